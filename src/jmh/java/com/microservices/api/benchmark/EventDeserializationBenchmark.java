@@ -0,0 +1,65 @@
+package com.microservices.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes -> event. Run with {@code -prof gc} to get the allocation rate (gc.alloc.rate.norm, bytes/op).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDeserializationBenchmark {
+
+    /** Test consumers today: Spring JsonDeserializer resolving the type from __TypeId__ headers. */
+    @Benchmark
+    public Object springJsonDeserializer(EventFixtures f) {
+        return f.springDeserializer.deserialize(EventFixtures.TOPIC, f.typeHeaders, f.json);
+    }
+
+    /** KafkaTestUtils.waitForBookingCreatedEventInDLT: a new ObjectMapper for every record. */
+    @Benchmark
+    public Object objectMapperPerRecord(EventFixtures f) throws Exception {
+        return new ObjectMapper().readValue(f.jsonText, f.type);
+    }
+
+    @Benchmark
+    public Object sharedObjectMapper(EventFixtures f) throws Exception {
+        return f.sharedMapper.readValue(f.json, f.type);
+    }
+
+    @Benchmark
+    public Object cachedObjectReader(EventFixtures f) throws Exception {
+        return f.cachedReader.readValue(f.json);
+    }
+
+    @Benchmark
+    public Object afterburner(EventFixtures f) throws Exception {
+        return f.afterburnerReader.readValue(f.json);
+    }
+
+    @Benchmark
+    public Object blackbird(EventFixtures f) throws Exception {
+        return f.blackbirdReader.readValue(f.json);
+    }
+
+    @Benchmark
+    public Object smile(EventFixtures f) throws Exception {
+        return f.smileReader.readValue(f.smile);
+    }
+
+    @Benchmark
+    public Object sagaBinary(EventFixtures f) {
+        return f.sagaBinaryDeserializer.deserialize(EventFixtures.TOPIC, f.sagaBinary);
+    }
+}
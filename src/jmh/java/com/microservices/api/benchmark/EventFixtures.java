@@ -0,0 +1,123 @@
+package com.microservices.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import com.microservices.api.serde.SagaEventDeserializer;
+import com.microservices.api.serde.SagaEventSerializer;
+import com.microservices.api.serde.WireFormat;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One saga event plus every serializer variant under comparison, and the event pre-encoded
+ * in each format so deserialization benchmarks measure decoding only.
+ */
+@State(Scope.Benchmark)
+public class EventFixtures {
+
+    static final String TOPIC = "benchmark-topic";
+
+    @Param({"BOOKING_CREATED", "SEAT_RESERVED", "BOOKING_PAYMENT"})
+    public String eventType;
+
+    Object event;
+    Class<?> type;
+
+    /** What the tests do today: Spring's JsonSerializer/JsonDeserializer with type-info headers. */
+    JsonSerializer<Object> springSerializer;
+    JsonDeserializer<Object> springDeserializer;
+    Headers typeHeaders;
+
+    ObjectMapper sharedMapper;
+    ObjectWriter cachedWriter;
+    ObjectReader cachedReader;
+    ObjectWriter afterburnerWriter;
+    ObjectReader afterburnerReader;
+    ObjectWriter blackbirdWriter;
+    ObjectReader blackbirdReader;
+    ObjectWriter smileWriter;
+    ObjectReader smileReader;
+    SagaEventSerializer sagaBinarySerializer;
+    SagaEventDeserializer<Object> sagaBinaryDeserializer;
+
+    byte[] json;
+    String jsonText;
+    byte[] smile;
+    byte[] sagaBinary;
+
+    @Setup
+    public void setup() throws Exception {
+        event = newEvent(eventType);
+        type = event.getClass();
+
+        springSerializer = new JsonSerializer<>();
+        springSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, true), false);
+        springDeserializer = new JsonDeserializer<>();
+        springDeserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, true,
+                // the headers are reused across invocations, so keep __TypeId__ in place
+                JsonDeserializer.REMOVE_TYPE_INFO_HEADERS, false
+        ), false);
+        typeHeaders = new RecordHeaders();
+        json = springSerializer.serialize(TOPIC, typeHeaders, event);
+        jsonText = new String(json, StandardCharsets.UTF_8);
+
+        sharedMapper = new ObjectMapper();
+        cachedWriter = sharedMapper.writerFor(type);
+        cachedReader = sharedMapper.readerFor(type);
+
+        ObjectMapper afterburner = new ObjectMapper().registerModule(new AfterburnerModule());
+        afterburnerWriter = afterburner.writerFor(type);
+        afterburnerReader = afterburner.readerFor(type);
+
+        ObjectMapper blackbird = new ObjectMapper().registerModule(new BlackbirdModule());
+        blackbirdWriter = blackbird.writerFor(type);
+        blackbirdReader = blackbird.readerFor(type);
+
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        smileWriter = smileMapper.writerFor(type);
+        smileReader = smileMapper.readerFor(type);
+        smile = smileWriter.writeValueAsBytes(event);
+
+        sagaBinarySerializer = new SagaEventSerializer(WireFormat.BINARY);
+        sagaBinaryDeserializer = new SagaEventDeserializer<>(Object.class, false);
+        sagaBinary = sagaBinarySerializer.serialize(TOPIC, event);
+
+        System.out.println(eventType + " encoded size: json=" + json.length + "B smile=" + smile.length
+                + "B saga-binary=" + sagaBinary.length + "B");
+    }
+
+    static Object newEvent(String eventType) {
+        String bookingId = UUID.randomUUID().toString();
+        switch (eventType) {
+            case "BOOKING_CREATED":
+                return new BookingCreatedEvent(bookingId, UUID.randomUUID().toString(), "SHOW_1",
+                        List.of("A1", "A2", "A3", "A4"), 2000);
+            case "SEAT_RESERVED":
+                return new SeatReservedEvent(bookingId, true, 2000);
+            case "BOOKING_PAYMENT":
+                return new BookingPaymentEvent(bookingId, true, 2000);
+            default:
+                throw new IllegalArgumentException("Unknown event type " + eventType);
+        }
+    }
+}
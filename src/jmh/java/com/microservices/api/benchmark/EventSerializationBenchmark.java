@@ -0,0 +1,66 @@
+package com.microservices.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event -> bytes. Run with {@code -prof gc} to get the allocation rate (gc.alloc.rate.norm, bytes/op).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    /** KafkaEventPublisher today: Spring JsonSerializer adding __TypeId__ headers to a fresh record. */
+    @Benchmark
+    public byte[] springJsonSerializer(EventFixtures f) {
+        return f.springSerializer.serialize(EventFixtures.TOPIC, new RecordHeaders(), f.event);
+    }
+
+    @Benchmark
+    public byte[] objectMapperPerCall(EventFixtures f) throws Exception {
+        return new ObjectMapper().writeValueAsBytes(f.event);
+    }
+
+    @Benchmark
+    public byte[] sharedObjectMapper(EventFixtures f) throws Exception {
+        return f.sharedMapper.writeValueAsBytes(f.event);
+    }
+
+    @Benchmark
+    public byte[] cachedObjectWriter(EventFixtures f) throws Exception {
+        return f.cachedWriter.writeValueAsBytes(f.event);
+    }
+
+    @Benchmark
+    public byte[] afterburner(EventFixtures f) throws Exception {
+        return f.afterburnerWriter.writeValueAsBytes(f.event);
+    }
+
+    @Benchmark
+    public byte[] blackbird(EventFixtures f) throws Exception {
+        return f.blackbirdWriter.writeValueAsBytes(f.event);
+    }
+
+    @Benchmark
+    public byte[] smile(EventFixtures f) throws Exception {
+        return f.smileWriter.writeValueAsBytes(f.event);
+    }
+
+    /** Schema-based binary format (SagaEventCodec), written with -Dkafka.wire.format=binary. */
+    @Benchmark
+    public byte[] sagaBinary(EventFixtures f) {
+        return f.sagaBinarySerializer.serialize(EventFixtures.TOPIC, new RecordHeaders(), f.event);
+    }
+}
@@ -0,0 +1,82 @@
+package com.microservices.api.benchmark;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import main.java.com.microservices.api.core.RequestBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of getting a {@link RequestSpecification}: the previous RequestBuilder (fresh
+ * {@link RequestSpecBuilder}, logging and HTTP client config on every call) against cached templates
+ * with a body overlay. No request is sent. Run with {@code -prof gc} for bytes/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestSpecBenchmark {
+
+    private static final String BASE_URI = "http://localhost:8080";
+
+    private final Map<String, String> headers = Map.of("X-Correlation-Id", "bench", "Accept", "application/json");
+    private final Map<String, Object> body = Map.of("userId", "user-1", "showId", "show-1", "amount", 5000L);
+
+    @Setup
+    public void setUp() {
+        RequestBuilder.overrideBaseUri(BASE_URI);
+    }
+
+    @Benchmark
+    public RequestSpecification rebuiltDefaultSpec() {
+        return previousBase().build();
+    }
+
+    @Benchmark
+    public RequestSpecification cachedDefaultSpec() {
+        return RequestBuilder.defaultSpec();
+    }
+
+    @Benchmark
+    public RequestSpecification rebuiltCustomSpecWithBody() {
+        return previousBase()
+                .addHeader("Authorization", "Bearer token")
+                .addHeaders(headers)
+                .setBody(body)
+                .setConfig(RestAssuredConfig.config()
+                        .httpClient(HttpClientConfig.httpClientConfig()
+                                .setParam("http.connection.timeout", 2000L)
+                                .setParam("http.socket.timeout", 5000L)))
+                .build();
+    }
+
+    @Benchmark
+    public RequestSpecification cachedCustomSpecWithBody() {
+        return RequestBuilder.customSpec("token", headers, null, null, body, null, 2000L, 5000L);
+    }
+
+    /** RequestBuilder.base() before templates were cached. */
+    private static RequestSpecBuilder previousBase() {
+        return new RequestSpecBuilder()
+                .setBaseUri(BASE_URI)
+                .setContentType(ContentType.JSON)
+                .log(LogDetail.ALL);
+    }
+}
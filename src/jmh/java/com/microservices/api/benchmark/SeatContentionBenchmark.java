@@ -0,0 +1,147 @@
+package com.microservices.api.benchmark;
+
+import com.microservices.api.seatmap.CasBitsetSeatMap;
+import com.microservices.api.seatmap.DbRowLockSeatMap;
+import com.microservices.api.seatmap.SeatMap;
+import com.microservices.api.seatmap.StripedLockSeatMap;
+import com.microservices.api.util.TestDataCleaner;
+import com.microservices.api.util.TestDataSeeder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Many bookers fighting over one hot show. Every thread holds at most one reservation: it releases
+ * it, then tries to reserve a random block of {@code seatsPerBooking} adjacent seats in one row.
+ * <p>
+ * Scale with the thread count and compare the seat maps, e.g.
+ * {@code -Djmh.args="SeatContention -t 8 -p seatsPerBooking=4"}. The {@code reserved} and
+ * {@code conflicts} counters give the conflict rate as conflicts / (reserved + conflicts).
+ * {@code -p impl=DB_ROW_LOCK} runs against seat_inventory and needs the database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeatContentionBenchmark {
+
+    static final String SHOW_ID = "SHOW_BENCH_CONTENTION";
+
+    @State(Scope.Benchmark)
+    public static class HotShow {
+
+        @Param({"STRIPED_LOCK", "CAS_BITSET"})
+        public String impl;
+
+        @Param({"1", "4"})
+        public int seatsPerBooking;
+
+        @Param({"8"})
+        public int rows;
+
+        @Param({"16"})
+        public int seatsPerRow;
+
+        SeatMap seatMap;
+        final AtomicInteger bookers = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            switch (impl) {
+                case "STRIPED_LOCK":
+                    seatMap = new StripedLockSeatMap(rows);
+                    break;
+                case "CAS_BITSET":
+                    seatMap = new CasBitsetSeatMap(rows * seatsPerRow);
+                    break;
+                case "DB_ROW_LOCK":
+                    List<String> seats = new ArrayList<>();
+                    for (int row = 0; row < rows; row++) {
+                        seats.addAll(block(row, 0, seatsPerRow));
+                    }
+                    TestDataSeeder.seedSeatInventory(SHOW_ID, "BENCH_THEATER", "BENCH_SCREEN", seats);
+                    seatMap = new DbRowLockSeatMap();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown seat map: " + impl);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if ("DB_ROW_LOCK".equals(impl)) {
+                TestDataCleaner.cleanShow(SHOW_ID);
+            }
+        }
+
+        List<String> block(int row, int firstSeat, int count) {
+            List<String> seats = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                seats.add(String.valueOf((char) ('A' + row)) + (firstSeat + i + 1));
+            }
+            return seats;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Booker {
+
+        public long reserved;
+        public long conflicts;
+
+        String bookingId;
+        SplittableRandom random;
+        List<String> held;
+
+        @Setup(Level.Trial)
+        public void setup(HotShow show) {
+            int id = show.bookers.incrementAndGet();
+            bookingId = "BENCH_BOOKER_" + id;
+            random = new SplittableRandom(id);
+        }
+
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            reserved = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public boolean reserveBlock(HotShow show, Booker booker) {
+        if (booker.held != null) {
+            show.seatMap.releaseAll(SHOW_ID, booker.held, booker.bookingId);
+            booker.held = null;
+        }
+        int row = booker.random.nextInt(show.rows);
+        int first = booker.random.nextInt(show.seatsPerRow - show.seatsPerBooking + 1);
+        List<String> seats = show.block(row, first, show.seatsPerBooking);
+
+        if (show.seatMap.tryReserveAll(SHOW_ID, seats, booker.bookingId)) {
+            booker.held = seats;
+            booker.reserved++;
+            return true;
+        }
+        booker.conflicts++;
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package main.java.com.microservices.api.core;
+
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Writes the buffered API context of a failed test ({@code -Dapi.log.mode=on-failure}) and drops it for
+ * tests that pass or are skipped.
+ */
+public class ApiLogFailureListener implements ITestListener {
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        String reason = result.getTestClass().getRealClass().getSimpleName() + "." + result.getName() + " failed";
+        if (result.getThrowable() != null) {
+            reason += ": " + result.getThrowable().getMessage();
+        }
+        ApiLogger.flushContext(reason);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        onTestFailure(result);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        ApiLogger.clearContext();
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        ApiLogger.clearContext();
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        ApiLogger.flush();
+    }
+}
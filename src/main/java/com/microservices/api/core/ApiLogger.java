@@ -2,52 +2,176 @@ package main.java.com.microservices.api.core;
 
 import io.restassured.response.Response;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Structured API logging on top of {@link AsyncLogWriter}: the calling thread only builds a small
+ * {@link LogEvent} and hands it to the ring buffer; formatting and stdout happen on the writer thread.
+ * Headers and bodies are only rendered for failed exchanges (status &gt;= 400) or at DEBUG and below.
+ * <p>
+ * Settings (all {@code -D}):
+ * <ul>
+ *   <li>{@code api.log.level} - TRACE..ERROR or OFF, default INFO. Requests log at DEBUG, responses at
+ *   INFO, failures at WARN.</li>
+ *   <li>{@code api.log.sample.rate} - fraction of successful exchanges logged, default 1.0. Failures are
+ *   never sampled out.</li>
+ *   <li>{@code api.log.mode} - {@code async} (default) writes as it goes; {@code on-failure} keeps the
+ *   last {@code api.log.context.size} (default 32) events per thread and writes them only when
+ *   {@link #flushContext(String)} is called, which {@link ApiLogFailureListener} does for failed tests.
+ *   Exchanges of {@link AsyncHttpBackend} complete on its I/O threads; they are kept in the context of
+ *   the thread that sent the request.</li>
+ * </ul>
+ */
 public class ApiLogger {
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final LogLevel LEVEL = LogLevel.fromSystemProperty("api.log.level", LogLevel.INFO);
+    private static final double SAMPLE_RATE = Double.parseDouble(System.getProperty("api.log.sample.rate", "1.0"));
+    private static final boolean ON_FAILURE_MODE = "on-failure".equalsIgnoreCase(System.getProperty("api.log.mode", "async"));
+    private static final int CONTEXT_SIZE = Integer.getInteger("api.log.context.size", 32);
+
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
 
     // ---------------- Request Logging ----------------
     public static void logRequest(String method, String endpoint) {
-        System.out.println("--------- REQUEST ---------");
-        System.out.println("Timestamp: " + LocalDateTime.now().format(formatter));
-        System.out.println("Method: " + method);
-        System.out.println("Endpoint: " + endpoint);
+        logRequest(method, endpoint, null, null);
     }
 
-
-    // ---------------- Request Logging ----------------
     public static void logRequest(String method, String endpoint, Map<String, ?> headers, Object body) {
-        System.out.println("--------- REQUEST ---------");
-        System.out.println("Timestamp: " + LocalDateTime.now().format(formatter));
-        System.out.println("Method: " + method);
-        System.out.println("Endpoint: " + endpoint);
-        if (headers != null && !headers.isEmpty()) {
-            System.out.println("Headers: " + headers);
-        }
-        if (body != null) {
-            System.out.println("Body: " + body);
+        if (enabled(LogLevel.DEBUG)) {
+            emit(new LogEvent(LogLevel.DEBUG, "request", method, endpoint, headers, body,
+                    0, null, 0, true, null));
         }
-        System.out.println("---------------------------");
     }
 
     // ---------------- Response Logging ----------------
     public static void logResponse(Response response) {
-        System.out.println("--------- RESPONSE ---------");
-        System.out.println("Timestamp: " + LocalDateTime.now().format(formatter));
-        System.out.println("Status Code: " + response.getStatusCode());
-        System.out.println("Headers: " + response.getHeaders());
-        System.out.println("Body: " + response.getBody().asPrettyString());
-        System.out.println("----------------------------");
+        logExchange(null, null, null, null, response, 0);
+    }
+
+    /**
+     * One request/response pair, as recorded by {@link ApiLoggingFilter}.
+     */
+    public static void logExchange(String method, String endpoint, Object headers, Object body,
+                                   Response response, long durationNanos) {
+        logExchange(method, endpoint, headers, body, response == null ? 0 : response.getStatusCode(), response, durationNanos);
+    }
+
+    /**
+     * Same for {@link AsyncHttpBackend} exchanges; {@code response} is rendered on the writer thread.
+     */
+    public static void logExchange(String method, String endpoint, Object headers, Object body,
+                                   int status, Object response, long durationNanos) {
+        logExchange(currentContext(), method, endpoint, headers, body, status, response, durationNanos);
+    }
+
+    /**
+     * Same, buffered in {@code context} in on-failure mode instead of the current thread's; for exchanges
+     * that complete on another thread than the one that sent them.
+     */
+    static void logExchange(Context context, String method, String endpoint, Object headers, Object body,
+                            int status, Object response, long durationNanos) {
+        boolean failed = status >= 400;
+        LogLevel level = failed ? LogLevel.WARN : LogLevel.INFO;
+        if (!enabled(level) || (!failed && !sampled())) {
+            return;
+        }
+        boolean bodies = failed || LEVEL.compareTo(LogLevel.DEBUG) <= 0;
+        emit(new LogEvent(level, failed ? "api.failure" : "response", method, endpoint, headers, body,
+                status, response, durationNanos, bodies, null), context);
     }
 
     // ---------------- Conditional Logging ----------------
     public static void logOnFailure(Response response) {
         if (response.getStatusCode() >= 400) {
-            System.out.println("----- API FAILURE LOG -----");
             logResponse(response);
         }
     }
+
+    // ---------------- Failure Context ----------------
+    /**
+     * Writes the events buffered for the current thread (on-failure mode) with full headers and bodies,
+     * then forgets them. No-op in async mode, where everything was already written.
+     */
+    public static void flushContext(String reason) {
+        List<LogEvent> events = CONTEXT.get().drain();
+        if (events.isEmpty()) {
+            return;
+        }
+        AsyncLogWriter writer = AsyncLogWriter.shared();
+        writer.offer(new LogEvent(LogLevel.ERROR, "failure.context", null, null, null, null, 0, null, 0, false,
+                reason + " - last " + events.size() + " API events on this thread"));
+        for (LogEvent event : events) {
+            writer.offer(event.withBodies());
+        }
+    }
+
+    public static void clearContext() {
+        CONTEXT.get().clear();
+    }
+
+    /**
+     * The current thread's failure context, to be captured before work is handed to another thread;
+     * null in async mode.
+     */
+    static Context currentContext() {
+        return ON_FAILURE_MODE ? CONTEXT.get() : null;
+    }
+
+    /** Blocks until the writer has caught up, e.g. before the JVM or a report reads stdout. */
+    public static void flush() {
+        AsyncLogWriter.shared().flush(2000);
+    }
+
+    public static boolean isEnabled(LogLevel level) {
+        return enabled(level);
+    }
+
+    private static boolean enabled(LogLevel level) {
+        return level.isEnabled(LEVEL);
+    }
+
+    private static boolean sampled() {
+        return SAMPLE_RATE >= 1.0 || ThreadLocalRandom.current().nextDouble() < SAMPLE_RATE;
+    }
+
+    private static void emit(LogEvent event) {
+        emit(event, currentContext());
+    }
+
+    private static void emit(LogEvent event, Context context) {
+        if (!ON_FAILURE_MODE || context == null) {
+            AsyncLogWriter.shared().offer(event);
+            return;
+        }
+        context.add(event);
+    }
+
+    /**
+     * The last {@code api.log.context.size} events of one test thread. Synchronized: async exchanges add to
+     * it from I/O threads while the test thread may flush or clear it.
+     */
+    static final class Context {
+        private final ArrayDeque<LogEvent> events = new ArrayDeque<>(CONTEXT_SIZE);
+
+        synchronized void add(LogEvent event) {
+            if (events.size() == CONTEXT_SIZE) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+
+        synchronized List<LogEvent> drain() {
+            List<LogEvent> drained = new ArrayList<>(events);
+            events.clear();
+            return drained;
+        }
+
+        synchronized void clear() {
+            events.clear();
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package main.java.com.microservices.api.core;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Replaces RestAssured's {@code LogDetail.ALL} console logging: hands each exchange to {@link ApiLogger}
+ * instead of printing it on the calling thread.
+ */
+public class ApiLoggingFilter implements Filter {
+
+    public static final ApiLoggingFilter INSTANCE = new ApiLoggingFilter();
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        ApiLogger.logExchange(requestSpec.getMethod(), requestSpec.getURI(),
+                requestSpec.getHeaders(), requestSpec.getBody(), response, System.nanoTime() - start);
+        return response;
+    }
+}
@@ -0,0 +1,271 @@
+package main.java.com.microservices.api.core;
+
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.authentication.BasicAuthScheme;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.Cookie;
+import io.restassured.http.Header;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking backend for {@link RestClient}'s {@code *Async} methods, on {@code java.net.http.HttpClient}.
+ * <p>
+ * One client per backend keeps connections alive and reuses them, negotiating HTTP/2 where the server
+ * supports it (h2c upgrade or ALPN) and falling back to HTTP/1.1. Requests are built from the same
+ * {@link RequestSpecification}s as the blocking API (base URI/path, headers, auth, query/path params,
+ * cookies, body and socket timeout are read with {@link SpecificationQuerier}); RestAssured filters are
+ * not run, the exchange is logged and timed here instead, in the API log context of the calling thread.
+ * <p>
+ * At most {@code maxInFlight} requests are on the wire; the rest wait in a queue without holding a
+ * thread, in arrival order, so thousands of concurrent calls run on {@code ioThreads} threads plus the
+ * client's selector.
+ * Shared instance settings: {@code api.http.async.max.inflight} (default 10000),
+ * {@code api.http.async.threads} (4), {@code api.http.version} (HTTP_2 or HTTP_1_1) and
+ * {@code api.http.connect.timeout.ms} (5000). Pool tuning uses the JDK's own
+ * {@code jdk.httpclient.connectionPoolSize} / {@code jdk.httpclient.keepalive.timeout}.
+ */
+public class AsyncHttpBackend implements AutoCloseable {
+
+    /** Managed by HttpClient itself; setting them throws. */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private static volatile AsyncHttpBackend shared;
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    public AsyncHttpBackend(int maxInFlight, int ioThreads, HttpClient.Version version, Duration connectTimeout) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(ioThreads, r -> {
+            Thread thread = new Thread(r, "async-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        this.maxInFlight = maxInFlight;
+    }
+
+    public AsyncHttpBackend(int maxInFlight) {
+        this(maxInFlight, Integer.getInteger("api.http.async.threads", 4),
+                HttpClient.Version.valueOf(System.getProperty("api.http.version", "HTTP_2")),
+                Duration.ofMillis(Long.getLong("api.http.connect.timeout.ms", 5000L)));
+    }
+
+    public static AsyncHttpBackend shared() {
+        AsyncHttpBackend backend = shared;
+        if (backend != null) {
+            return backend;
+        }
+        synchronized (AsyncHttpBackend.class) {
+            if (shared == null) {
+                shared = new AsyncHttpBackend(Integer.getInteger("api.http.async.max.inflight", 10_000));
+                Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "async-http-shutdown"));
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Sends {@code method endpoint} with the settings of {@code spec}. A non-null {@code body} replaces the
+     * spec's body. The future fails only for transport errors; HTTP error statuses complete normally.
+     */
+    public CompletableFuture<AsyncResponse> send(String method, String endpoint, RequestSpecification spec, Object body) {
+        HttpRequest request = toHttpRequest(method, endpoint, SpecificationQuerier.query(spec), body);
+        CompletableFuture<AsyncResponse> result = new CompletableFuture<>();
+        ApiLogger.Context logContext = ApiLogger.currentContext();
+        Runnable dispatch = () -> dispatch(method, endpoint, request, logContext, result);
+        if (waiting.isEmpty() && tryAcquire()) {
+            dispatch.run();
+        } else {
+            waiting.add(dispatch);
+            drainWaiting();
+        }
+        return result;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return waiting.size();
+    }
+
+    /**
+     * Runs with a permit held. The permit is released when the exchange completes, or right away if
+     * {@code sendAsync} throws (bad request, closed client), so a rejected request never leaks it.
+     */
+    private void dispatch(String method, String endpoint, HttpRequest request, ApiLogger.Context logContext,
+                          CompletableFuture<AsyncResponse> result) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> exchange;
+        try {
+            exchange = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            result.completeExceptionally(e);
+            // not inline: a queue of requests that all fail here would recurse through drainWaiting()
+            try {
+                executor.execute(this::drainWaiting);
+            } catch (RejectedExecutionException closed) {
+                // close() was called; nothing will be sent any more
+            }
+            return;
+        }
+        exchange.whenComplete((response, error) -> {
+            long duration = System.nanoTime() - start;
+            inFlight.decrementAndGet();
+            drainWaiting();
+            RestClient.recorder(method, endpoint).recordNanos(duration);
+            if (error != null) {
+                ApiLogger.logExchange(logContext, method, request.uri().toString(), request.headers().map(), null,
+                        0, null, duration);
+                result.completeExceptionally(error);
+                return;
+            }
+            AsyncResponse async = new AsyncResponse(response.statusCode(), response.headers().map(),
+                    response.body(), duration);
+            ApiLogger.logExchange(logContext, method, request.uri().toString(), request.headers().map(), null,
+                    async.getStatusCode(), async, duration);
+            result.complete(async);
+        });
+    }
+
+    /**
+     * Starts queued requests, oldest first, while there is room; called whenever a permit may have been
+     * freed and after every enqueue, so a new request never overtakes one that is already waiting.
+     */
+    private void drainWaiting() {
+        while (!waiting.isEmpty()) {
+            if (!tryAcquire()) {
+                return;
+            }
+            Runnable next = waiting.poll();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            next.run();
+        }
+    }
+
+    private boolean tryAcquire() {
+        if (inFlight.incrementAndGet() <= maxInFlight) {
+            return true;
+        }
+        inFlight.decrementAndGet();
+        return false;
+    }
+
+    private static HttpRequest toHttpRequest(String method, String endpoint, QueryableRequestSpecification spec, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(endpoint, spec));
+
+        for (Header header : spec.getHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase())) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+        if (spec.getContentType() != null && !spec.getHeaders().hasHeaderWithName("Content-Type")) {
+            builder.header("Content-Type", spec.getContentType());
+        }
+        if (spec.getCookies().exist()) {
+            StringJoiner cookies = new StringJoiner("; ");
+            for (Cookie cookie : spec.getCookies()) {
+                cookies.add(cookie.getName() + "=" + cookie.getValue());
+            }
+            builder.header("Cookie", cookies.toString());
+        }
+        AuthenticationScheme auth = spec.getAuthenticationScheme();
+        if (auth instanceof BasicAuthScheme) {
+            BasicAuthScheme basic = (BasicAuthScheme) auth;
+            String credentials = basic.getUserName() + ":" + basic.getPassword();
+            builder.header("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        Duration timeout = socketTimeout(spec.getConfig());
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+
+        Object payload = body != null ? body : spec.getBody();
+        builder.method(method, payload == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(RequestBuilder.json(payload)));
+        return builder.build();
+    }
+
+    private static URI uri(String endpoint, QueryableRequestSpecification spec) {
+        String path = endpoint;
+        for (Map.Entry<String, String> param : spec.getNamedPathParams().entrySet()) {
+            path = path.replace("{" + param.getKey() + "}", encode(param.getValue()).replace("+", "%20"));
+        }
+        StringBuilder uri = new StringBuilder();
+        if (!path.startsWith("http://") && !path.startsWith("https://")) {
+            uri.append(trimTrailingSlash(spec.getBaseUri())).append(trimTrailingSlash(spec.getBasePath()));
+            if (!path.startsWith("/")) {
+                uri.append('/');
+            }
+        }
+        uri.append(path);
+        char separator = path.contains("?") ? '&' : '?';
+        for (Map.Entry<String, String> param : spec.getQueryParams().entrySet()) {
+            uri.append(separator).append(encode(param.getKey())).append('=').append(encode(param.getValue()));
+            separator = '&';
+        }
+        return URI.create(uri.toString());
+    }
+
+    private static Duration socketTimeout(RestAssuredConfig config) {
+        if (config == null) {
+            return null;
+        }
+        Object value = config.getHttpClientConfig().params().get("http.socket.timeout");
+        return value instanceof Number && ((Number) value).longValue() > 0
+                ? Duration.ofMillis(((Number) value).longValue()) : null;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8);
+    }
+
+    private static String trimTrailingSlash(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+
+    @Override
+    public void close() {
+        client.shutdownNow();
+        executor.shutdownNow();
+    }
+}
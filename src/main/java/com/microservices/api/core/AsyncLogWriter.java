@@ -0,0 +1,126 @@
+package main.java.com.microservices.api.core;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer ring buffer in front of stdout, drained by one daemon thread.
+ * <p>
+ * Test threads only claim a slot with a CAS and publish a reference; they never take a lock or wait
+ * for the console. When the ring is full the event is dropped and counted rather than blocking the
+ * caller. The writer batches everything available into one {@code print} per drain.
+ * Capacity: {@code api.log.buffer.size} (default 8192, rounded up to a power of two).
+ */
+public final class AsyncLogWriter {
+
+    private static final AsyncLogWriter SHARED = new AsyncLogWriter(Integer.getInteger("api.log.buffer.size", 8192), System.out);
+
+    private final int mask;
+    private final AtomicReferenceArray<LogEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final PrintStream out;
+    private final Thread drainer;
+    private volatile long head;
+    /** Events up to here have been printed and flushed; {@code head} only says they were taken from the ring. */
+    private volatile long written;
+
+    AsyncLogWriter(int requestedCapacity, PrintStream out) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.out = out;
+        this.drainer = new Thread(this::drainLoop, "api-log-writer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(TimeUnit.SECONDS.toMillis(2)), "api-log-flush"));
+    }
+
+    public static AsyncLogWriter shared() {
+        return SHARED;
+    }
+
+    boolean offer(LogEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            // another producer took the slot; retry with the new tail
+        }
+    }
+
+    /** Events discarded because the ring was full. */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Waits until everything offered so far has been written, at most {@code timeoutMillis}.
+     */
+    public void flush(long timeoutMillis) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (written < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(drainer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private void drainLoop() {
+        StringBuilder batch = new StringBuilder(8192);
+        long reportedDrops = 0;
+        while (true) {
+            long position = head;
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                if (batch.length() > 0) {
+                    out.print(batch);
+                    out.flush();
+                    batch.setLength(0);
+                }
+                written = position;
+                long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    out.println("api-log-writer: dropped " + (drops - reportedDrops) + " log events (buffer full)");
+                    reportedDrops = drops;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                continue;
+            }
+            LogEvent event = slots.get(index);
+            slots.set(index, null);
+            sequences.set(index, position + mask + 1);
+            try {
+                event.appendTo(batch);
+            } catch (RuntimeException e) {
+                batch.append("api-log-writer: could not format event ").append(event.event).append(": ").append(e).append('\n');
+            }
+            head = position + 1;
+            if (batch.length() > 64 * 1024) {
+                out.print(batch);
+                out.flush();
+                batch.setLength(0);
+                written = position + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package main.java.com.microservices.api.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.restassured.path.json.JsonPath;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of an {@link AsyncHttpBackend} call; the body is fully read before the future completes.
+ */
+public class AsyncResponse {
+
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final String body;
+    private final long durationNanos;
+
+    public AsyncResponse(int statusCode, Map<String, List<String>> headers, String body, long durationNanos) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.durationNanos = durationNanos;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public String getHeader(String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public String asString() {
+        return body;
+    }
+
+    /** Time from handing the request to the client until the body was read. */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public JsonPath jsonPath() {
+        return new JsonPath(body);
+    }
+
+    public <T> T as(Class<T> type) {
+        try {
+            return RequestBuilder.bodyMapper().readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot map response body to " + type.getSimpleName() + ": " + body, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncResponse{status=" + statusCode + ", body=" + body + "}";
+    }
+}
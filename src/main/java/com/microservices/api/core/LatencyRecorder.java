@@ -0,0 +1,185 @@
+package main.java.com.microservices.api.core;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Named latency recorder on top of an HdrHistogram {@link Recorder}.
+ * <p>
+ * Recording is wait-free and allocation-free, so any number of test, load or event-consumer threads can
+ * record into the same name. At every interval boundary ({@link #startIntervals(Duration)}, or when a report
+ * is captured) the interval histogram is swapped out, merged into the run total and summarised into the
+ * timeline. Values are kept in microseconds, up to one hour, with 3 significant digits.
+ * <p>
+ * Recorders are registered per name: {@code LatencyRecorder.of("http POST /booking-service/bookSeat")}.
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final ConcurrentMap<String, LatencyRecorder> RECORDERS = new ConcurrentHashMap<>();
+    private static volatile ScheduledExecutorService intervalTicker;
+
+    private final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final List<Interval> timeline = new ArrayList<>();
+    private Histogram recycled;
+    private long intervalStartMillis = System.currentTimeMillis();
+
+    private LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public static LatencyRecorder of(String name) {
+        return RECORDERS.computeIfAbsent(name, LatencyRecorder::new);
+    }
+
+    /** Every recorder created so far, by name. */
+    public static Map<String, LatencyRecorder> all() {
+        return new TreeMap<>(RECORDERS);
+    }
+
+    /**
+     * Closes the current interval of every recorder every {@code interval}; no-op if already running.
+     */
+    public static synchronized void startIntervals(Duration interval) {
+        if (intervalTicker != null) {
+            return;
+        }
+        intervalTicker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "latency-interval-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        intervalTicker.scheduleAtFixedRate(LatencyRecorder::sampleAll,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stopIntervals() {
+        if (intervalTicker != null) {
+            intervalTicker.shutdownNow();
+            intervalTicker = null;
+        }
+    }
+
+    public static void sampleAll() {
+        RECORDERS.values().forEach(LatencyRecorder::sampleInterval);
+    }
+
+    /** Drops everything recorded so far, e.g. at the start of a load run. */
+    public static void resetAll() {
+        RECORDERS.values().forEach(LatencyRecorder::reset);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void recordNanos(long nanos) {
+        recorder.recordValue(Math.min(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public void recordMillis(long millis) {
+        recordNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public void record(Duration duration) {
+        recordNanos(duration.toNanos());
+    }
+
+    /** Runs {@code action} and records how long it took, also when it throws. */
+    public <T> T time(Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Closes the current interval: merges it into the run total and appends it to the timeline.
+     */
+    public synchronized void sampleInterval() {
+        Histogram interval = recorder.getIntervalHistogram(recycled);
+        long end = System.currentTimeMillis();
+        total.add(interval);
+        timeline.add(new Interval(intervalStartMillis, end, interval));
+        intervalStartMillis = end;
+        recycled = interval;
+    }
+
+    /** Copy of everything recorded up to the last interval boundary, in microseconds. */
+    public synchronized Histogram totalHistogram() {
+        return total.copy();
+    }
+
+    public synchronized List<Interval> timeline() {
+        return Collections.unmodifiableList(new ArrayList<>(timeline));
+    }
+
+    public synchronized void reset() {
+        recorder.reset();
+        total.reset();
+        timeline.clear();
+        intervalStartMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Summary of one interval; the histogram itself is recycled.
+     */
+    public static final class Interval {
+        private final long startMillis;
+        private final long endMillis;
+        private final long count;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        Interval(long startMillis, long endMillis, Histogram histogram) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.count = histogram.getTotalCount();
+            this.p50Micros = histogram.getValueAtPercentile(50);
+            this.p99Micros = histogram.getValueAtPercentile(99);
+            this.maxMicros = histogram.getMaxValue();
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+    }
+}
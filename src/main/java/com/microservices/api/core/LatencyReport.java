@@ -0,0 +1,349 @@
+package main.java.com.microservices.api.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of every {@link LatencyRecorder}: p50/p90/p99/p99.9/max and throughput per recorder, plus
+ * the per-interval timeline. Written as JSON (for {@link LatencyReportDiff} between builds) and as a
+ * self-contained HTML page.
+ */
+public class LatencyReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private String runName;
+    private String capturedAt;
+    private List<MetricSummary> metrics = new ArrayList<>();
+
+    public LatencyReport() {
+    }
+
+    /**
+     * Closes the current interval of every recorder and summarises all of them.
+     */
+    public static LatencyReport capture(String runName) {
+        LatencyRecorder.sampleAll();
+        LatencyReport report = new LatencyReport();
+        report.runName = runName;
+        report.capturedAt = Instant.now().toString();
+        for (LatencyRecorder recorder : LatencyRecorder.all().values()) {
+            Histogram histogram = recorder.totalHistogram();
+            if (histogram.getTotalCount() > 0) {
+                report.metrics.add(MetricSummary.of(recorder.getName(), histogram, recorder.timeline()));
+            }
+        }
+        return report;
+    }
+
+    public static LatencyReport readJson(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), LatencyReport.class);
+    }
+
+    public void writeJson(Path file) throws IOException {
+        createParent(file);
+        MAPPER.writeValue(file.toFile(), this);
+    }
+
+    public void writeHtml(Path file) throws IOException {
+        createParent(file);
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>" + escape(runName) + "</title>");
+            out.write("<style>body{font-family:sans-serif}table{border-collapse:collapse}"
+                    + "td,th{border:1px solid #ccc;padding:4px 8px;text-align:right}td:first-child{text-align:left}"
+                    + "polyline{fill:none;stroke-width:1.5}</style></head><body>");
+            out.write("<h1>" + escape(runName) + "</h1><p>Captured " + escape(capturedAt) + "</p>");
+            out.write("<table><tr><th>metric</th><th>count</th><th>ops/s</th><th>p50 ms</th><th>p90 ms</th>"
+                    + "<th>p99 ms</th><th>p99.9 ms</th><th>max ms</th><th>throughput (blue) / p99 (red)</th></tr>");
+            for (MetricSummary m : metrics) {
+                out.write(String.format("<tr><td>%s</td><td>%d</td><td>%.1f</td><td>%.2f</td><td>%.2f</td>"
+                                + "<td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%s</td></tr>",
+                        escape(m.name), m.count, m.throughputPerSecond, m.p50Ms, m.p90Ms,
+                        m.p99Ms, m.p999Ms, m.maxMs, sparkline(m.timeline)));
+            }
+            out.write("</table></body></html>");
+        }
+    }
+
+    public LatencyReportDiff diff(LatencyReport baseline, double thresholdPercent) {
+        return LatencyReportDiff.compare(baseline, this, thresholdPercent);
+    }
+
+    public MetricSummary metric(String name) {
+        for (MetricSummary m : metrics) {
+            if (m.name.equals(name)) {
+                return m;
+            }
+        }
+        return null;
+    }
+
+    private static String sparkline(List<TimelinePoint> timeline) {
+        if (timeline.size() < 2) {
+            return "";
+        }
+        double maxRate = timeline.stream().mapToDouble(TimelinePoint::getThroughputPerSecond).max().orElse(1);
+        double maxP99 = timeline.stream().mapToDouble(TimelinePoint::getP99Ms).max().orElse(1);
+        StringBuilder rate = new StringBuilder();
+        StringBuilder p99 = new StringBuilder();
+        for (int i = 0; i < timeline.size(); i++) {
+            double x = 200.0 * i / (timeline.size() - 1);
+            rate.append(String.format("%.1f,%.1f ", x, 40 - 38 * timeline.get(i).throughputPerSecond / Math.max(maxRate, 1e-9)));
+            p99.append(String.format("%.1f,%.1f ", x, 40 - 38 * timeline.get(i).p99Ms / Math.max(maxP99, 1e-9)));
+        }
+        return "<svg width=\"200\" height=\"42\"><polyline stroke=\"#36c\" points=\"" + rate + "\"/>"
+                + "<polyline stroke=\"#c33\" points=\"" + p99 + "\"/></svg>";
+    }
+
+    private static String escape(String text) {
+        return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static void createParent(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+    }
+
+    public String getRunName() {
+        return runName;
+    }
+
+    public void setRunName(String runName) {
+        this.runName = runName;
+    }
+
+    public String getCapturedAt() {
+        return capturedAt;
+    }
+
+    public void setCapturedAt(String capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+
+    public List<MetricSummary> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(List<MetricSummary> metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("--------- LATENCY REPORT: " + runName + " ---------\n");
+        for (MetricSummary m : metrics) {
+            sb.append(String.format("%-48s n=%-8d %8.1f/s  p50=%.2f p99=%.2f p99.9=%.2f max=%.2f ms%n",
+                    m.name, m.count, m.throughputPerSecond, m.p50Ms, m.p99Ms, m.p999Ms, m.maxMs));
+        }
+        return sb.toString();
+    }
+
+    public static class MetricSummary {
+        private String name;
+        private long count;
+        private double throughputPerSecond;
+        private double meanMs;
+        private double p50Ms;
+        private double p90Ms;
+        private double p99Ms;
+        private double p999Ms;
+        private double maxMs;
+        private List<TimelinePoint> timeline = new ArrayList<>();
+
+        public MetricSummary() {
+        }
+
+        static MetricSummary of(String name, Histogram histogram, List<LatencyRecorder.Interval> intervals) {
+            MetricSummary m = new MetricSummary();
+            m.name = name;
+            m.count = histogram.getTotalCount();
+            m.meanMs = histogram.getMean() / 1000.0;
+            m.p50Ms = histogram.getValueAtPercentile(50) / 1000.0;
+            m.p90Ms = histogram.getValueAtPercentile(90) / 1000.0;
+            m.p99Ms = histogram.getValueAtPercentile(99) / 1000.0;
+            m.p999Ms = histogram.getValueAtPercentile(99.9) / 1000.0;
+            m.maxMs = histogram.getMaxValue() / 1000.0;
+            for (LatencyRecorder.Interval interval : intervals) {
+                m.timeline.add(TimelinePoint.of(interval));
+            }
+            if (!intervals.isEmpty()) {
+                long spanMillis = intervals.get(intervals.size() - 1).getEndMillis() - intervals.get(0).getStartMillis();
+                m.throughputPerSecond = spanMillis <= 0 ? 0 : m.count * 1000.0 / spanMillis;
+            }
+            return m;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public double getThroughputPerSecond() {
+            return throughputPerSecond;
+        }
+
+        public void setThroughputPerSecond(double throughputPerSecond) {
+            this.throughputPerSecond = throughputPerSecond;
+        }
+
+        public double getMeanMs() {
+            return meanMs;
+        }
+
+        public void setMeanMs(double meanMs) {
+            this.meanMs = meanMs;
+        }
+
+        public double getP50Ms() {
+            return p50Ms;
+        }
+
+        public void setP50Ms(double p50Ms) {
+            this.p50Ms = p50Ms;
+        }
+
+        public double getP90Ms() {
+            return p90Ms;
+        }
+
+        public void setP90Ms(double p90Ms) {
+            this.p90Ms = p90Ms;
+        }
+
+        public double getP99Ms() {
+            return p99Ms;
+        }
+
+        public void setP99Ms(double p99Ms) {
+            this.p99Ms = p99Ms;
+        }
+
+        public double getP999Ms() {
+            return p999Ms;
+        }
+
+        public void setP999Ms(double p999Ms) {
+            this.p999Ms = p999Ms;
+        }
+
+        public double getMaxMs() {
+            return maxMs;
+        }
+
+        public void setMaxMs(double maxMs) {
+            this.maxMs = maxMs;
+        }
+
+        public List<TimelinePoint> getTimeline() {
+            return timeline;
+        }
+
+        public void setTimeline(List<TimelinePoint> timeline) {
+            this.timeline = timeline;
+        }
+    }
+
+    public static class TimelinePoint {
+        private long startMillis;
+        private long endMillis;
+        private long count;
+        private double throughputPerSecond;
+        private double p50Ms;
+        private double p99Ms;
+        private double maxMs;
+
+        public TimelinePoint() {
+        }
+
+        static TimelinePoint of(LatencyRecorder.Interval interval) {
+            TimelinePoint p = new TimelinePoint();
+            p.startMillis = interval.getStartMillis();
+            p.endMillis = interval.getEndMillis();
+            p.count = interval.getCount();
+            long span = p.endMillis - p.startMillis;
+            p.throughputPerSecond = span <= 0 ? 0 : p.count * 1000.0 / span;
+            p.p50Ms = interval.getP50Micros() / 1000.0;
+            p.p99Ms = interval.getP99Micros() / 1000.0;
+            p.maxMs = interval.getMaxMicros() / 1000.0;
+            return p;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public void setStartMillis(long startMillis) {
+            this.startMillis = startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        public void setEndMillis(long endMillis) {
+            this.endMillis = endMillis;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public double getThroughputPerSecond() {
+            return throughputPerSecond;
+        }
+
+        public void setThroughputPerSecond(double throughputPerSecond) {
+            this.throughputPerSecond = throughputPerSecond;
+        }
+
+        public double getP50Ms() {
+            return p50Ms;
+        }
+
+        public void setP50Ms(double p50Ms) {
+            this.p50Ms = p50Ms;
+        }
+
+        public double getP99Ms() {
+            return p99Ms;
+        }
+
+        public void setP99Ms(double p99Ms) {
+            this.p99Ms = p99Ms;
+        }
+
+        public double getMaxMs() {
+            return maxMs;
+        }
+
+        public void setMaxMs(double maxMs) {
+            this.maxMs = maxMs;
+        }
+    }
+}
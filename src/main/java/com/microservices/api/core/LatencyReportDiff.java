@@ -0,0 +1,119 @@
+package main.java.com.microservices.api.core;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Percentile-by-percentile comparison of two {@link LatencyReport}s. A metric regresses when one of
+ * its p50/p99/p99.9 got slower than the baseline by more than the threshold.
+ * <p>
+ * From the command line (exit code 1 on regression):
+ * {@code java ... LatencyReportDiff baseline.json current.json [thresholdPercent]}
+ */
+public class LatencyReportDiff {
+
+    private final double thresholdPercent;
+    private final List<Change> changes = new ArrayList<>();
+    private final List<String> missing = new ArrayList<>();
+
+    private LatencyReportDiff(double thresholdPercent) {
+        this.thresholdPercent = thresholdPercent;
+    }
+
+    public static LatencyReportDiff compare(LatencyReport baseline, LatencyReport current, double thresholdPercent) {
+        LatencyReportDiff diff = new LatencyReportDiff(thresholdPercent);
+        for (LatencyReport.MetricSummary before : baseline.getMetrics()) {
+            LatencyReport.MetricSummary after = current.metric(before.getName());
+            if (after == null) {
+                diff.missing.add(before.getName());
+                continue;
+            }
+            diff.add(before.getName(), "p50", before.getP50Ms(), after.getP50Ms());
+            diff.add(before.getName(), "p99", before.getP99Ms(), after.getP99Ms());
+            diff.add(before.getName(), "p99.9", before.getP999Ms(), after.getP999Ms());
+        }
+        return diff;
+    }
+
+    private void add(String metric, String percentile, double baselineMs, double currentMs) {
+        changes.add(new Change(metric, percentile, baselineMs, currentMs, thresholdPercent));
+    }
+
+    public boolean hasRegressions() {
+        return changes.stream().anyMatch(Change::isRegression);
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    /** Metrics of the baseline that the current report does not contain. */
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("--------- LATENCY DIFF (threshold " + thresholdPercent + "%) ---------\n");
+        for (Change c : changes) {
+            sb.append(String.format("%s %-44s %-6s %10.2f -> %10.2f ms  %+7.1f%%%n",
+                    c.isRegression() ? "!!" : "  ", c.metric, c.percentile, c.baselineMs, c.currentMs, c.getChangePercent()));
+        }
+        missing.forEach(name -> sb.append("   missing in current run: ").append(name).append('\n'));
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: LatencyReportDiff <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        LatencyReportDiff diff = LatencyReport.readJson(Paths.get(args[1]))
+                .diff(LatencyReport.readJson(Paths.get(args[0])), threshold);
+        System.out.println(diff);
+        System.exit(diff.hasRegressions() ? 1 : 0);
+    }
+
+    public static final class Change {
+        private final String metric;
+        private final String percentile;
+        private final double baselineMs;
+        private final double currentMs;
+        private final double thresholdPercent;
+
+        Change(String metric, String percentile, double baselineMs, double currentMs, double thresholdPercent) {
+            this.metric = metric;
+            this.percentile = percentile;
+            this.baselineMs = baselineMs;
+            this.currentMs = currentMs;
+            this.thresholdPercent = thresholdPercent;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        public String getPercentile() {
+            return percentile;
+        }
+
+        public double getBaselineMs() {
+            return baselineMs;
+        }
+
+        public double getCurrentMs() {
+            return currentMs;
+        }
+
+        public double getChangePercent() {
+            return baselineMs == 0 ? 0 : (currentMs - baselineMs) * 100.0 / baselineMs;
+        }
+
+        public boolean isRegression() {
+            return getChangePercent() > thresholdPercent;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package main.java.com.microservices.api.core;
+
+import io.restassured.response.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One structured log line. The caller only captures references; all string building, including
+ * pretty-printing bodies, happens on the {@link AsyncLogWriter} thread.
+ */
+final class LogEvent {
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    final long epochMillis = System.currentTimeMillis();
+    final String thread = Thread.currentThread().getName();
+    final LogLevel level;
+    final String event;
+    final String method;
+    final String endpoint;
+    final Object headers;
+    final Object body;
+    final int status;
+    final Object response;
+    final long durationNanos;
+    final boolean includeBodies;
+    final String note;
+
+    LogEvent(LogLevel level, String event, String method, String endpoint, Object headers, Object body,
+             int status, Object response, long durationNanos, boolean includeBodies, String note) {
+        this.level = level;
+        this.event = event;
+        this.method = method;
+        this.endpoint = endpoint;
+        this.headers = headers;
+        this.body = body;
+        this.status = status;
+        this.response = response;
+        this.durationNanos = durationNanos;
+        this.includeBodies = includeBodies;
+        this.note = note;
+    }
+
+    LogEvent withBodies() {
+        return new LogEvent(level, event, method, endpoint, headers, body, status, response, durationNanos, true, note);
+    }
+
+    void appendTo(StringBuilder out) {
+        out.append(TIMESTAMP.format(Instant.ofEpochMilli(epochMillis)))
+                .append(' ').append(level)
+                .append(" [").append(thread).append("] ")
+                .append("event=").append(event);
+        if (note != null) out.append(" note=\"").append(note).append('"');
+        if (method != null) out.append(" method=").append(method);
+        if (endpoint != null) out.append(" endpoint=").append(endpoint);
+        if (status > 0) out.append(" status=").append(status);
+        if (durationNanos > 0) out.append(" durationMs=").append(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        if (includeBodies) {
+            if (headers != null) out.append("\n  requestHeaders: ").append(String.valueOf(headers).replace('\n', ' '));
+            if (body != null) out.append("\n  requestBody: ")
+                    .append(body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8) : body);
+            if (response instanceof Response) {
+                Response restAssured = (Response) response;
+                out.append("\n  responseHeaders: ").append(restAssured.getHeaders().toString().replace('\n', ' '));
+                out.append("\n  responseBody: ").append(restAssured.getBody().asPrettyString());
+            } else if (response instanceof AsyncResponse) {
+                AsyncResponse async = (AsyncResponse) response;
+                out.append("\n  responseHeaders: ").append(async.getHeaders());
+                out.append("\n  responseBody: ").append(async.getBody());
+            }
+        }
+        out.append('\n');
+    }
+}
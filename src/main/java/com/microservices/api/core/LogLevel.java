@@ -0,0 +1,14 @@
+package main.java.com.microservices.api.core;
+
+public enum LogLevel {
+    TRACE, DEBUG, INFO, WARN, ERROR, OFF;
+
+    public boolean isEnabled(LogLevel threshold) {
+        return threshold != OFF && compareTo(threshold) >= 0;
+    }
+
+    public static LogLevel fromSystemProperty(String property, LogLevel defaultLevel) {
+        String value = System.getProperty(property);
+        return value == null || value.isBlank() ? defaultLevel : LogLevel.valueOf(value.trim().toUpperCase());
+    }
+}
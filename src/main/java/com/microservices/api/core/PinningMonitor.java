@@ -0,0 +1,101 @@
+package main.java.com.microservices.api.core;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches {@code jdk.VirtualThreadPinned} JFR events while virtual threads run blocking test code.
+ * <p>
+ * A virtual thread that blocks inside {@code synchronized} (or a native frame) keeps its carrier thread,
+ * so a few hot monitors can cap the whole run at the carrier count. Every pin longer than the threshold
+ * is counted against the first frame outside the JDK, which is usually the {@code synchronized} block to
+ * replace with a {@link java.util.concurrent.locks.ReentrantLock}.
+ */
+public class PinningMonitor implements AutoCloseable {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+
+    private final RecordingStream stream = new RecordingStream();
+    private final LongAdder pinned = new LongAdder();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+    private final ConcurrentMap<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private PinningMonitor(Duration threshold) {
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+    }
+
+    /**
+     * Starts listening; pins shorter than {@code threshold} are ignored (the JDK default is 20 ms).
+     */
+    public static PinningMonitor start(Duration threshold) {
+        PinningMonitor monitor = new PinningMonitor(threshold);
+        monitor.stream.startAsync();
+        return monitor;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        pinnedNanos.addAndGet(event.getDuration().toNanos());
+        sites.computeIfAbsent(siteOf(event.getStackTrace()), s -> new LongAdder()).increment();
+    }
+
+    private static String siteOf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "<no stack trace>";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        RecordedFrame top = stackTrace.getFrames().get(0);
+        return top.getMethod().getType().getName() + "." + top.getMethod().getName();
+    }
+
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    public Duration getPinnedTime() {
+        return Duration.ofNanos(pinnedNanos.get());
+    }
+
+    /** Pin count per call site, most frequent first. */
+    public Map<String, Long> topSites(int limit) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .limit(limit)
+                .forEach(e -> top.put(e.getKey(), e.getValue().sum()));
+        return top;
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder("Virtual thread pinning: " + getPinnedCount() + " event(s), "
+                + getPinnedTime().toMillis() + " ms pinned\n");
+        topSites(10).forEach((site, count) -> sb.append(String.format("  %6d  %s%n", count, site)));
+        return sb.toString();
+    }
+
+    /**
+     * Delivers events still buffered in the stream, then stops it.
+     */
+    @Override
+    public void close() {
+        stream.stop();
+        stream.close();
+    }
+}
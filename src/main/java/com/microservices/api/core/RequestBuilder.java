@@ -1,5 +1,7 @@
 package main.java.com.microservices.api.core;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.config.HttpClientConfig;
@@ -7,10 +9,31 @@ import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 
+/**
+ * RestAssured request specs for the gateway.
+ * <p>
+ * Specs that only differ by auth, headers and timeouts are built once and cached as templates (base URI,
+ * content type, logging filter and HTTP client config already resolved). Body, query/path params and
+ * cookies are laid over a template per request, which only copies it instead of rebuilding everything.
+ * Object bodies are serialized with one shared {@link ObjectMapper}; RestAssured's own object mapping
+ * sets up a new mapper per call, which costs milliseconds.
+ * Cached templates are shared between threads: pass them to {@code given().spec(...)} / {@link RestClient}
+ * and never modify them in place.
+ */
 public class RequestBuilder {
+    private static final int MAX_TEMPLATES = 256;
+    private static final ObjectMapper BODY_MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final ConcurrentMap<TemplateKey, RequestSpecification> TEMPLATES = new ConcurrentHashMap<>();
+    /** Not {@code synchronized}: a virtual thread blocked on a monitor pins its carrier. */
+    private static final ReentrantLock BASE_URI_LOCK = new ReentrantLock();
     private static volatile String BASE_URI = null;
 
    /* static {
@@ -23,6 +46,7 @@ public class RequestBuilder {
 
     public static void overrideBaseUri(String baseUri) {
         BASE_URI = baseUri;
+        TEMPLATES.clear();
     }
 
     public static String getBaseUri() {
@@ -30,7 +54,8 @@ public class RequestBuilder {
             return BASE_URI;
         }
 
-        synchronized (RequestBuilder.class) {
+        BASE_URI_LOCK.lock();
+        try {
             if (BASE_URI == null) {
 
                 // 1️⃣ Highest priority: System property (mvn -D)
@@ -57,77 +82,135 @@ public class RequestBuilder {
                     );
                 }
             }
+        } finally {
+            BASE_URI_LOCK.unlock();
         }
         return BASE_URI;
     }
 
     // ---------------- Base Builder (no duplication) ----------------
     private static RequestSpecBuilder base() {
+        return base(getBaseUri());
+    }
+
+    private static RequestSpecBuilder base(String baseUri) {
         return new RequestSpecBuilder()
-                .setBaseUri(getBaseUri())
+                .setBaseUri(baseUri)
                 .setContentType(ContentType.JSON)
-                .log(io.restassured.filter.log.LogDetail.ALL);
+                .addFilter(ApiLoggingFilter.INSTANCE);
+    }
+
+    // ---------------- Templates ----------------
+    /**
+     * Cached spec for this auth/headers/timeouts combination; every argument may be null.
+     */
+    public static RequestSpecification template(String token, Map<String, String> headers,
+                                                Long connectionTimeout, Long socketTimeout) {
+        return cached(new TemplateKey(null, token, null, null, headers, connectionTimeout, socketTimeout));
+    }
+
+    /**
+     * Cached default spec for another service than the gateway, e.g. the booking service a load run
+     * posts to directly.
+     */
+    public static RequestSpecification forBaseUri(String baseUri) {
+        return cached(new TemplateKey(Objects.requireNonNull(baseUri, "baseUri"), null, null, null, null, null, null));
+    }
+
+    public static void clearTemplates() {
+        TEMPLATES.clear();
+    }
+
+    private static RequestSpecification cached(TemplateKey key) {
+        RequestSpecification template = TEMPLATES.get(key);
+        if (template != null) {
+            return template;
+        }
+        if (TEMPLATES.size() >= MAX_TEMPLATES) {
+            // per-user tokens would otherwise grow the cache without bound
+            TEMPLATES.clear();
+        }
+        return TEMPLATES.computeIfAbsent(key, RequestBuilder::buildTemplate);
+    }
+
+    private static RequestSpecification buildTemplate(TemplateKey key) {
+        RequestSpecBuilder builder = key.baseUri != null ? base(key.baseUri) : base();
+        if (key.token != null) builder.addHeader("Authorization", "Bearer " + key.token);
+        if (key.username != null) builder.setAuth(RestAssured.basic(key.username, key.password));
+        if (key.headers != null) builder.addHeaders(key.headers);
+        if (key.connectionTimeout != null && key.socketTimeout != null) {
+            builder.setConfig(RestAssuredConfig.config()
+                    .httpClient(HttpClientConfig.httpClientConfig()
+                            .setParam("http.connection.timeout", key.connectionTimeout)
+                            .setParam("http.socket.timeout", key.socketTimeout)));
+        }
+        return builder.build();
+    }
+
+    /** Per-request copy of a template; the template itself stays untouched. */
+    private static RequestSpecification overlay(RequestSpecification template) {
+        return RestAssured.given().spec(template);
+    }
+
+    static ObjectMapper bodyMapper() {
+        return BODY_MAPPER;
+    }
+
+    static byte[] json(Object body) {
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body instanceof String) {
+            return ((String) body).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return BODY_MAPPER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize request body " + body.getClass().getName(), e);
+        }
     }
 
     // ---------------- Default Spec ----------------
     public static RequestSpecification defaultSpec() {
-        return base().build();
+        return template(null, null, null, null);
     }
 
     // ---------------- Request with OAuth2 access token ----------------
     public static RequestSpecification withBearerAuth(String token) {
-        return base()
-                .addHeader("Authorization", "Bearer " + token)
-                .build();
+        return template(token, null, null, null);
     }
 
     public static RequestSpecification withBasicAuth(String username, String password) {
-        return base()
-                .setAuth(io.restassured.RestAssured.basic(username, password))
-                .build();
+        return cached(new TemplateKey(null, null, username, password, null, null, null));
     }
 
     // ---------------- Headers ----------------
     public static RequestSpecification withHeaders(Map<String, String> headers) {
-        return base()
-                .addHeaders(headers)
-                .build();
+        return template(null, headers, null, null);
     }
 
     // ---------------- Query & Path Params ----------------
     public static RequestSpecification withQueryParams(Map<String, ?> queryParams) {
-        return base()
-                .addQueryParams(queryParams)
-                .build();
+        return overlay(defaultSpec()).queryParams(queryParams);
     }
 
     public static RequestSpecification withPathParams(Map<String, ?> pathParams) {
-        return base()
-                .addPathParams(pathParams)
-                .build();
+        return overlay(defaultSpec()).pathParams(pathParams);
     }
 
     // ---------------- Body ----------------
     public static RequestSpecification withBody(Object body) {
-        return base()
-                .setBody(body)
-                .build();
+        return overlay(defaultSpec()).body(json(body));
     }
 
     // ---------------- Cookies ----------------
     public static RequestSpecification withCookies(Map<String, ?> cookies) {
-        return base()
-                .addCookies(cookies)
-                .build();
+        return overlay(defaultSpec()).cookies(cookies);
     }
 
     // ---------------- Timeouts ----------------
     public static RequestSpecification withTimeouts(long connectionTimeout, long socketTimeout) {
-        return base()
-                .setConfig(RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
-                        .setParam("http.connection.timeout", connectionTimeout)
-                        .setParam("http.socket.timeout", socketTimeout)))
-                .build();
+        return template(null, null, connectionTimeout, socketTimeout);
     }
 
     // ---------------- Custom Builder (full flexibility) ----------------
@@ -146,26 +229,59 @@ public class RequestBuilder {
             Long connectionTimeout,
             Long socketTimeout
     ) {
-        RequestSpecBuilder builder = new RequestSpecBuilder()
-                .setBaseUri(BASE_URI)
-                .setContentType(ContentType.JSON)
-                .log(io.restassured.filter.log.LogDetail.ALL);
-
-        if (token != null) builder.addHeader("Authorization", "Bearer " + token);
-        if (headers != null) builder.addHeaders(headers);
-        if (queryParams != null) builder.addQueryParams(queryParams);
-        if (pathParams != null) builder.addPathParams(pathParams);
-        if (body != null) builder.setBody(body);
-        if (cookies != null) builder.addCookies(cookies);
-        if (connectionTimeout != null && socketTimeout != null) {
-            builder.setConfig(RestAssuredConfig.config()
-                    .httpClient(HttpClientConfig.httpClientConfig()
-                            .setParam("http.connection.timeout", connectionTimeout)
-                            .setParam("http.socket.timeout", socketTimeout)));
+        RequestSpecification template = template(token, headers, connectionTimeout, socketTimeout);
+        if (queryParams == null && pathParams == null && body == null && cookies == null) {
+            return template;
         }
-
-        return builder.build();
+        RequestSpecification spec = overlay(template);
+        if (queryParams != null) spec.queryParams(queryParams);
+        if (pathParams != null) spec.pathParams(pathParams);
+        if (body != null) spec.body(json(body));
+        if (cookies != null) spec.cookies(cookies);
+        return spec;
     }
 
-}
+    private static final class TemplateKey {
+        /** Null for the gateway, whose URI is only resolved when the template is built. */
+        private final String baseUri;
+        private final String token;
+        private final String username;
+        private final String password;
+        private final Map<String, String> headers;
+        private final Long connectionTimeout;
+        private final Long socketTimeout;
+        private final int hash;
+
+        TemplateKey(String baseUri, String token, String username, String password, Map<String, String> headers,
+                    Long connectionTimeout, Long socketTimeout) {
+            this.baseUri = baseUri;
+            this.token = token;
+            this.username = username;
+            this.password = password;
+            this.headers = headers == null || headers.isEmpty() ? null : Map.copyOf(headers);
+            this.connectionTimeout = connectionTimeout;
+            this.socketTimeout = socketTimeout;
+            this.hash = Objects.hash(baseUri, token, username, password, this.headers, connectionTimeout, socketTimeout);
+        }
 
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TemplateKey)) return false;
+            TemplateKey other = (TemplateKey) o;
+            return hash == other.hash
+                    && Objects.equals(baseUri, other.baseUri)
+                    && Objects.equals(token, other.token)
+                    && Objects.equals(username, other.username)
+                    && Objects.equals(password, other.password)
+                    && Objects.equals(headers, other.headers)
+                    && Objects.equals(connectionTimeout, other.connectionTimeout)
+                    && Objects.equals(socketTimeout, other.socketTimeout);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.microservices.api.core;
 
 import io.restassured.response.Response;
+import main.java.com.microservices.api.core.ApiLogger;
 import org.testng.Assert;
 
 import java.util.List;
@@ -15,11 +16,7 @@ public class ResponseValidator {
 
     // ---------------- Response Logging ----------------
     public static void logResponse(Response response) {
-        System.out.println("--------- RESPONSE ---------");
-        System.out.println("Status Code: " + response.getStatusCode());
-        System.out.println("Headers: " + response.getHeaders());
-        System.out.println("Body: " + response.getBody().asPrettyString());
-        System.out.println("----------------------------");
+        ApiLogger.logResponse(response);
     }
 
     // ---------------- JSON Extraction ----------------
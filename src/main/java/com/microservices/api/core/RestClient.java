@@ -4,63 +4,124 @@ import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 import static io.restassured.RestAssured.given;
 
+/**
+ * Thin RestAssured wrapper. Every call is timed into a {@link LatencyRecorder} named
+ * {@code http <METHOD> <route>}, where the route is the endpoint with ids replaced by {@code {id}}. Object bodies go through RequestBuilder's shared mapper.
+ * <p>
+ * The {@code *Async} variants take the same specs but run on the shared {@link AsyncHttpBackend}
+ * (pooled, HTTP/2-capable, non-blocking) and return a {@link CompletableFuture}.
+ */
 public class RestClient {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "/(?:\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})(?=/|$)");
+
     // ---------------- GET ----------------
     public static Response get(String endpoint, RequestSpecification spec) {
-        return given()
+        return timed("GET", endpoint, () -> given()
                 .spec(spec)
                 .when()
-                .get(endpoint);
+                .get(endpoint));
     }
 
     public static Response get(String endpoint, RequestSpecification spec, Map<String, ?> queryParams) {
-        return given()
+        return timed("GET", endpoint, () -> given()
                 .spec(spec)
                 .queryParams(queryParams)
                 .when()
-                .get(endpoint);
+                .get(endpoint));
     }
 
     // ---------------- POST ----------------
     public static Response post(String endpoint, RequestSpecification spec) {
-        return given()
+        return timed("POST", endpoint, () -> given()
                 .spec(spec)
                 .when()
-                .post(endpoint);
+                .post(endpoint));
     }
 
     public static Response post(String endpoint, RequestSpecification spec, Object body) {
-        return given()
+        return timed("POST", endpoint, () -> given()
                 .spec(spec)
-                .body(body)
+                .body(RequestBuilder.json(body))
                 .when()
-                .post(endpoint);
+                .post(endpoint));
     }
 
     // ---------------- PUT ----------------
     public static Response put(String endpoint, RequestSpecification spec) {
-        return given()
+        return timed("PUT", endpoint, () -> given()
                 .spec(spec)
                 .when()
-                .put(endpoint);
+                .put(endpoint));
     }
 
     public static Response put(String endpoint, RequestSpecification spec, Object body) {
-        return given()
+        return timed("PUT", endpoint, () -> given()
                 .spec(spec)
-                .body(body)
+                .body(RequestBuilder.json(body))
                 .when()
-                .put(endpoint);
+                .put(endpoint));
     }
 
     // ---------------- DELETE ----------------
     public static Response delete(String endpoint, RequestSpecification spec) {
-        return given()
+        return timed("DELETE", endpoint, () -> given()
                 .spec(spec)
                 .when()
-                .delete(endpoint);
+                .delete(endpoint));
+    }
+
+    // ---------------- Async ----------------
+    public static CompletableFuture<AsyncResponse> getAsync(String endpoint, RequestSpecification spec) {
+        return AsyncHttpBackend.shared().send("GET", endpoint, spec, null);
+    }
+
+    public static CompletableFuture<AsyncResponse> postAsync(String endpoint, RequestSpecification spec, Object body) {
+        return AsyncHttpBackend.shared().send("POST", endpoint, spec, body);
+    }
+
+    public static CompletableFuture<AsyncResponse> putAsync(String endpoint, RequestSpecification spec, Object body) {
+        return AsyncHttpBackend.shared().send("PUT", endpoint, spec, body);
+    }
+
+    public static CompletableFuture<AsyncResponse> deleteAsync(String endpoint, RequestSpecification spec) {
+        return AsyncHttpBackend.shared().send("DELETE", endpoint, spec, null);
+    }
+
+    private static Response timed(String method, String endpoint, Supplier<Response> call) {
+        return recorder(method, endpoint).time(call);
+    }
+
+    /**
+     * The recorder for {@code method} on the route of {@code endpoint}: one per route template, not per
+     * concrete URL, so ids in the path do not create a recorder each.
+     */
+    static LatencyRecorder recorder(String method, String endpoint) {
+        return LatencyRecorder.of("http " + method + " " + route(endpoint));
+    }
+
+    /**
+     * Drops scheme, host and query, and replaces numeric and UUID path segments with {@code {id}};
+     * templated paths such as {@code /bookings/{bookingId}} are kept as they are.
+     */
+    static String route(String endpoint) {
+        String path = endpoint;
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        int scheme = path.indexOf("://");
+        if (scheme >= 0) {
+            int slash = path.indexOf('/', scheme + 3);
+            path = slash < 0 ? "/" : path.substring(slash);
+        }
+        return ID_SEGMENT.matcher(path).replaceAll("/{id}");
     }
 }
@@ -0,0 +1,130 @@
+package com.microservices.api.chaos;
+
+import com.microservices.api.util.KafkaTestUtils;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.common.quota.ClientQuotaAlteration;
+import org.apache.kafka.common.quota.ClientQuotaEntity;
+import org.apache.kafka.common.quota.ClientQuotaFilter;
+import org.apache.kafka.common.quota.ClientQuotaFilterComponent;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Injects and reverts faults: listener pauses and the seat-inventory timeout through the services'
+ * control endpoints ({@code chaos.control.url}, default {@code http://localhost:9292}, or a
+ * {@code ControlEndpointStub}), broker slowness through client quotas on the broker itself.
+ * <p>
+ * Broker slowness sets {@code producer_byte_rate} and {@code consumer_byte_rate} on the default client-id
+ * entity, so the broker throttles every client (services and harness alike) by delaying its responses.
+ * Whatever default quotas were there before are read first and put back by {@link #restoreBroker()}.
+ */
+public class ChaosControlClient implements AutoCloseable {
+
+    private static final ClientQuotaEntity ALL_CLIENTS =
+            new ClientQuotaEntity(Collections.singletonMap(ClientQuotaEntity.CLIENT_ID, null));
+    private static final String PRODUCER_BYTE_RATE = "producer_byte_rate";
+    private static final String CONSUMER_BYTE_RATE = "consumer_byte_rate";
+
+    private final String controlBaseUrl;
+    private AdminClient admin;
+    /** Default quotas from before {@link #slowBroker(long)}; null while the broker is not slowed. */
+    private Map<String, Double> savedQuotas;
+
+    public ChaosControlClient(String controlBaseUrl) {
+        this.controlBaseUrl = controlBaseUrl;
+    }
+
+    public static ChaosControlClient fromSystemProperties() {
+        return new ChaosControlClient(System.getProperty("chaos.control.url", "http://localhost:9292"));
+    }
+
+    public String getControlBaseUrl() {
+        return controlBaseUrl;
+    }
+
+    public void pauseListener(String listener) {
+        post("/kafka/pause/" + listener);
+    }
+
+    public void resumeListener(String listener) {
+        post("/kafka/resume/" + listener);
+    }
+
+    public void enableSeatTimeout() {
+        post("/internal/test/seat-inventory/timeout/enable");
+    }
+
+    public void disableSeatTimeout() {
+        post("/internal/test/seat-inventory/timeout/disable");
+    }
+
+    public synchronized void slowBroker(long bytesPerSecond) {
+        if (savedQuotas == null) {
+            ClientQuotaFilter filter = ClientQuotaFilter.containsOnly(
+                    List.of(ClientQuotaFilterComponent.ofDefaultEntity(ClientQuotaEntity.CLIENT_ID)));
+            savedQuotas = call("describe client quotas", admin().describeClientQuotas(filter).entities())
+                    .getOrDefault(ALL_CLIENTS, Map.of());
+        }
+        alterQuotas(List.of(
+                new ClientQuotaAlteration.Op(PRODUCER_BYTE_RATE, (double) bytesPerSecond),
+                new ClientQuotaAlteration.Op(CONSUMER_BYTE_RATE, (double) bytesPerSecond)));
+    }
+
+    /**
+     * Puts back the default quotas {@link #slowBroker(long)} found; a rate that was not set is removed again.
+     */
+    public synchronized void restoreBroker() {
+        if (savedQuotas == null) {
+            return;
+        }
+        alterQuotas(List.of(
+                new ClientQuotaAlteration.Op(PRODUCER_BYTE_RATE, savedQuotas.get(PRODUCER_BYTE_RATE)),
+                new ClientQuotaAlteration.Op(CONSUMER_BYTE_RATE, savedQuotas.get(CONSUMER_BYTE_RATE))));
+        savedQuotas = null;
+    }
+
+    private void post(String path) {
+        Response response = RestAssured.given().post(controlBaseUrl + path);
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("POST " + controlBaseUrl + path + " returned "
+                    + response.getStatusCode() + ": " + response.asString());
+        }
+    }
+
+    private void alterQuotas(List<ClientQuotaAlteration.Op> ops) {
+        call("alter client quotas " + ops, admin().alterClientQuotas(List.of(new ClientQuotaAlteration(ALL_CLIENTS, ops))).all());
+    }
+
+    private AdminClient admin() {
+        if (admin == null) {
+            admin = KafkaTestUtils.createAdminClient();
+        }
+        return admin;
+    }
+
+    private static <T> T call(String what, Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while trying to " + what, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not " + what, e.getCause());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (admin != null) {
+            admin.close(Duration.ofSeconds(5));
+            admin = null;
+        }
+    }
+}
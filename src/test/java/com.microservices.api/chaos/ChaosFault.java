@@ -0,0 +1,176 @@
+package com.microservices.api.chaos;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * One fault of a {@link ChaosScenario}: what to break, how long after the start of the run, and for how long.
+ * <p>
+ * Written as {@code <type>[:<target>]@<offset>+<duration>}, durations as {@code 500ms}, {@code 10s} or {@code 2m}:
+ * <ul>
+ *     <li>{@code pause:seat-booking-created-listener@10s+5s} - pauses a listener, then resumes it</li>
+ *     <li>{@code seat-timeout@30s+10s} - turns the seat-inventory timeout simulation on, then off</li>
+ *     <li>{@code broker-slow:65536@45s+10s} - caps every client at 64 KiB/s produce and fetch, then lifts the cap</li>
+ * </ul>
+ */
+public final class ChaosFault {
+
+    public enum Type {
+        PAUSE_LISTENER("pause"),
+        SEAT_TIMEOUT("seat-timeout"),
+        BROKER_SLOWNESS("broker-slow");
+
+        private final String token;
+
+        Type(String token) {
+            this.token = token;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        static Type ofToken(String token) {
+            for (Type type : values()) {
+                if (type.token.equals(token)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown chaos fault type '" + token + "'");
+        }
+    }
+
+    private final Type type;
+    private final String target;
+    private final Duration offset;
+    private final Duration duration;
+
+    private ChaosFault(Type type, String target, Duration offset, Duration duration) {
+        if (offset.isNegative() || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Fault offset must be >= 0 and duration > 0: " + offset + "+" + duration);
+        }
+        this.type = type;
+        this.target = target;
+        this.offset = offset;
+        this.duration = duration;
+    }
+
+    public static ChaosFault pause(String listener, Duration offset, Duration duration) {
+        return new ChaosFault(Type.PAUSE_LISTENER, listener, offset, duration);
+    }
+
+    public static ChaosFault seatTimeout(Duration offset, Duration duration) {
+        return new ChaosFault(Type.SEAT_TIMEOUT, null, offset, duration);
+    }
+
+    /**
+     * @param bytesPerSecond produce and fetch quota applied to every client while the fault lasts
+     */
+    public static ChaosFault brokerSlowness(long bytesPerSecond, Duration offset, Duration duration) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("bytesPerSecond must be > 0");
+        }
+        return new ChaosFault(Type.BROKER_SLOWNESS, Long.toString(bytesPerSecond), offset, duration);
+    }
+
+    public static ChaosFault parse(String spec) {
+        String text = spec.trim();
+        int at = text.indexOf('@');
+        int plus = text.indexOf('+', at);
+        if (at < 0 || plus < 0) {
+            throw new IllegalArgumentException("Chaos fault '" + spec + "' is not <type>[:<target>]@<offset>+<duration>");
+        }
+        String head = text.substring(0, at);
+        int colon = head.indexOf(':');
+        Type type = Type.ofToken(colon < 0 ? head : head.substring(0, colon));
+        String target = colon < 0 ? null : head.substring(colon + 1);
+        Duration offset = parseDuration(text.substring(at + 1, plus));
+        Duration duration = parseDuration(text.substring(plus + 1));
+        switch (type) {
+            case PAUSE_LISTENER:
+                if (target == null || target.isEmpty()) {
+                    throw new IllegalArgumentException("Chaos fault '" + spec + "' needs a listener: pause:<listener>@...");
+                }
+                return pause(target, offset, duration);
+            case BROKER_SLOWNESS:
+                if (target == null || target.isEmpty()) {
+                    throw new IllegalArgumentException("Chaos fault '" + spec + "' needs a rate: broker-slow:<bytesPerSecond>@...");
+                }
+                return brokerSlowness(Long.parseLong(target), offset, duration);
+            default:
+                return seatTimeout(offset, duration);
+        }
+    }
+
+    static Duration parseDuration(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException("Duration '" + text + "' needs a unit: ms, s or m");
+    }
+
+    /** Breaks what this fault is about. */
+    void inject(ChaosControlClient control) {
+        switch (type) {
+            case PAUSE_LISTENER:
+                control.pauseListener(target);
+                break;
+            case SEAT_TIMEOUT:
+                control.enableSeatTimeout();
+                break;
+            case BROKER_SLOWNESS:
+                control.slowBroker(Long.parseLong(target));
+                break;
+        }
+    }
+
+    /** Undoes {@link #inject(ChaosControlClient)}. */
+    void revert(ChaosControlClient control) {
+        switch (type) {
+            case PAUSE_LISTENER:
+                control.resumeListener(target);
+                break;
+            case SEAT_TIMEOUT:
+                control.disableSeatTimeout();
+                break;
+            case BROKER_SLOWNESS:
+                control.restoreBroker();
+                break;
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /** Listener name for PAUSE_LISTENER, bytes per second for BROKER_SLOWNESS, null otherwise. */
+    public String getTarget() {
+        return target;
+    }
+
+    /** When the fault is injected, counted from the start of the run. */
+    public Duration getOffset() {
+        return offset;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getEnd() {
+        return offset.plus(duration);
+    }
+
+    @Override
+    public String toString() {
+        return type.token + (target == null ? "" : ":" + target)
+                + "@" + offset.toMillis() + "ms+" + duration.toMillis() + "ms";
+    }
+}
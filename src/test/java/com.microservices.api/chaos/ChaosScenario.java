@@ -0,0 +1,55 @@
+package com.microservices.api.chaos;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Declarative fault schedule of a load run: {@link ChaosFault}s ordered by offset.
+ * <p>
+ * Given with {@code -Dchaos.scenario}, faults separated by {@code ;}, e.g.
+ * {@code -Dchaos.scenario="pause:seat-booking-created-listener@10s+5s;seat-timeout@30s+5s;broker-slow:65536@45s+10s"}
+ */
+public final class ChaosScenario {
+
+    private final List<ChaosFault> faults;
+
+    public ChaosScenario(List<ChaosFault> faults) {
+        List<ChaosFault> ordered = new ArrayList<>(faults);
+        ordered.sort(Comparator.comparing(ChaosFault::getOffset));
+        this.faults = List.copyOf(ordered);
+    }
+
+    public static ChaosScenario of(ChaosFault... faults) {
+        return new ChaosScenario(List.of(faults));
+    }
+
+    public static ChaosScenario parse(String spec) {
+        List<ChaosFault> faults = new ArrayList<>();
+        for (String fault : spec.split(";")) {
+            if (!fault.isBlank()) {
+                faults.add(ChaosFault.parse(fault));
+            }
+        }
+        return new ChaosScenario(faults);
+    }
+
+    /** {@code -Dchaos.scenario}; empty if not set. */
+    public static ChaosScenario fromSystemProperties() {
+        return parse(System.getProperty("chaos.scenario", ""));
+    }
+
+    public List<ChaosFault> getFaults() {
+        return faults;
+    }
+
+    public boolean isEmpty() {
+        return faults.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return faults.stream().map(ChaosFault::toString).collect(Collectors.joining(";"));
+    }
+}
@@ -0,0 +1,340 @@
+package com.microservices.api.chaos;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.dlt.DltEntry;
+import com.microservices.api.dlt.DltInspector;
+import com.microservices.api.metrics.ConsumerLagSampler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import main.java.com.microservices.api.core.LatencyRecorder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link ChaosScenario} alongside a load run: every fault is injected at its offset from
+ * {@link #start()} and reverted after its duration, through a {@link ChaosControlClient}.
+ * <p>
+ * Meanwhile the summed consumer lag of the saga topics (every live group, i.e. the services' listeners,
+ * or the groups given to {@link #withLagGroups(Collection)}) is sampled every {@code chaos.sample.ms}. Per fault this gives the peak backlog,
+ * the drain rate after the fault is reverted, and the recovery time: until the backlog is back within
+ * {@code chaos.recovery.tolerance} records of where it was before the fault, at most
+ * {@code chaos.recovery.timeout.seconds}. DLT volume is counted from the {@link DltInspector} by record
+ * timestamp, up to {@code chaos.dlt.grace.seconds} after recovery to leave time for retries; a record inside
+ * the windows of several faults counts for the one injected last. Recovery times are also recorded as
+ * {@code chaos.recovery <type>} in the latency report.
+ * <p>
+ * Faults may overlap; each is measured against the same backlog, so overlapping faults share their effects.
+ */
+public class ChaosScheduler implements AutoCloseable {
+
+    private final ChaosScenario scenario;
+    private final ChaosControlClient control;
+    private final Duration sampleInterval;
+    private final long recoveryTolerance;
+    private final Duration recoveryTimeout;
+    private final Duration dltGrace;
+    private final List<FaultRun> runs = new ArrayList<>();
+    private ScheduledExecutorService sampler;
+    private ScheduledExecutorService injector;
+    private ConsumerLagSampler lagSampler;
+    private DltInspector dlt;
+    private volatile long backlog;
+    private Collection<String> lagGroups;
+
+    public ChaosScheduler(ChaosScenario scenario, ChaosControlClient control, Duration sampleInterval,
+                          long recoveryTolerance, Duration recoveryTimeout, Duration dltGrace) {
+        this.scenario = scenario;
+        this.control = control;
+        this.sampleInterval = sampleInterval;
+        this.recoveryTolerance = recoveryTolerance;
+        this.recoveryTimeout = recoveryTimeout;
+        this.dltGrace = dltGrace;
+        scenario.getFaults().forEach(fault -> runs.add(new FaultRun(fault)));
+    }
+
+    public static ChaosScheduler fromSystemProperties() {
+        return fromSystemProperties(ChaosScenario.fromSystemProperties(), ChaosControlClient.fromSystemProperties());
+    }
+
+    public static ChaosScheduler fromSystemProperties(ChaosScenario scenario, ChaosControlClient control) {
+        return new ChaosScheduler(
+                scenario,
+                control,
+                Duration.ofMillis(Long.getLong("chaos.sample.ms", 250L)),
+                Long.getLong("chaos.recovery.tolerance", 50L),
+                Duration.ofSeconds(Long.getLong("chaos.recovery.timeout.seconds", 60L)),
+                Duration.ofSeconds(Long.getLong("chaos.dlt.grace.seconds", 5L))
+        );
+    }
+
+    public ChaosScenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * Measures the backlog of exactly these consumer groups instead of every live group; needed for groups
+     * that commit without joining, like the simulator's. Call before {@link #start()}.
+     */
+    public synchronized ChaosScheduler withLagGroups(Collection<String> groups) {
+        this.lagGroups = groups;
+        return this;
+    }
+
+    public synchronized Collection<String> getLagGroups() {
+        return lagGroups;
+    }
+
+    /**
+     * Starts sampling and schedules every fault relative to now; call it when the load starts.
+     */
+    public synchronized ChaosScheduler start() {
+        if (injector != null) {
+            throw new IllegalStateException("Chaos scheduler already started");
+        }
+        dlt = DltInspector.shared();
+        lagSampler = new ConsumerLagSampler(KafkaTestConstants.SAGA_TOPICS, new SimpleMeterRegistry(), lagGroups);
+        sample();
+        // separate threads: a slow control endpoint must not stall the backlog samples, and vice versa
+        sampler = newDaemonScheduler("chaos-backlog-sampler");
+        sampler.scheduleWithFixedDelay(this::sample, sampleInterval.toMillis(), sampleInterval.toMillis(), TimeUnit.MILLISECONDS);
+        injector = newDaemonScheduler("chaos-injector");
+        for (FaultRun run : runs) {
+            injector.schedule(() -> inject(run), run.fault.getOffset().toMillis(), TimeUnit.MILLISECONDS);
+            injector.schedule(() -> revert(run), run.fault.getEnd().toMillis(), TimeUnit.MILLISECONDS);
+        }
+        System.out.println("Chaos scenario started: " + scenario + " via " + control.getControlBaseUrl());
+        return this;
+    }
+
+    private void inject(FaultRun run) {
+        synchronized (run) {
+            run.baselineBacklog = backlog;
+            run.peakBacklog = backlog;
+            run.peakAtMillis = System.currentTimeMillis();
+            run.injectedAtMillis = run.peakAtMillis;
+        }
+        try {
+            run.fault.inject(control);
+            synchronized (run) {
+                run.injected = true;
+            }
+            System.out.println("Chaos fault injected: " + run.fault + " (backlog " + run.baselineBacklog + ")");
+        } catch (RuntimeException e) {
+            run.fail("inject failed: " + e.getMessage());
+            System.out.println("Chaos fault " + run.fault + " could not be injected: " + e.getMessage());
+        }
+    }
+
+    private void revert(FaultRun run) {
+        synchronized (run) {
+            if (!run.injected || run.revertedAtMillis != 0) {
+                return;
+            }
+        }
+        try {
+            run.fault.revert(control);
+            synchronized (run) {
+                run.revertedAtMillis = System.currentTimeMillis();
+            }
+            System.out.println("Chaos fault reverted: " + run.fault + " (backlog " + backlog + ")");
+        } catch (RuntimeException e) {
+            run.fail("revert failed: " + e.getMessage());
+            System.out.println("Chaos fault " + run.fault + " could not be reverted: " + e.getMessage());
+        }
+    }
+
+    private void sample() {
+        try {
+            lagSampler.sample();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException | RuntimeException e) {
+            System.out.println("Chaos backlog sample failed: " + e.getMessage());
+            return;
+        }
+        long current = lagSampler.currentLag().values().stream().mapToLong(Long::longValue).sum();
+        backlog = current;
+        long now = System.currentTimeMillis();
+        for (FaultRun run : runs) {
+            run.observe(current, now);
+        }
+    }
+
+    /**
+     * Waits until every fault has been injected, reverted and has recovered (or timed out).
+     *
+     * @return true if all faults finished within {@code timeout}
+     */
+    public boolean awaitFinished(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (runs.stream().allMatch(FaultRun::isDone)) {
+                return true;
+            }
+            Thread.sleep(sampleInterval.toMillis());
+        }
+        return runs.stream().allMatch(FaultRun::isDone);
+    }
+
+    /**
+     * How long after {@link #start()} the last fault can still be recovering.
+     */
+    public Duration getScheduleLength() {
+        Duration end = Duration.ZERO;
+        for (ChaosFault fault : scenario.getFaults()) {
+            if (fault.getEnd().compareTo(end) > 0) {
+                end = fault.getEnd();
+            }
+        }
+        return end.plus(recoveryTimeout);
+    }
+
+    /** Impact of every fault so far, in scenario order. */
+    public List<FaultImpact> results() {
+        long now = System.currentTimeMillis();
+        long[] dltRecords = new long[runs.size()];
+        for (DltEntry entry : dlt == null ? List.<DltEntry>of() : dlt.all()) {
+            int owner = -1;
+            for (int i = 0; i < runs.size(); i++) {
+                if (runs.get(i).dltWindowContains(entry.getTimestamp(), now)
+                        && (owner < 0 || runs.get(i).getInjectedAtMillis() > runs.get(owner).getInjectedAtMillis())) {
+                    owner = i;
+                }
+            }
+            if (owner >= 0) {
+                dltRecords[owner]++;
+            }
+        }
+        List<FaultImpact> impacts = new ArrayList<>(runs.size());
+        for (int i = 0; i < runs.size(); i++) {
+            impacts.add(runs.get(i).toImpact(dltRecords[i]));
+        }
+        return impacts;
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder("--------- CHAOS SCENARIO: " + scenario + " ---------\n");
+        results().forEach(impact -> sb.append(impact).append('\n'));
+        return sb.toString();
+    }
+
+    /**
+     * Stops the schedule and reverts every fault that is still injected, so no listener stays paused
+     * and no quota stays on after the run.
+     */
+    @Override
+    public synchronized void close() throws InterruptedException {
+        for (ScheduledExecutorService executor : new ScheduledExecutorService[]{injector, sampler}) {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        }
+        runs.forEach(this::revert);
+        if (lagSampler != null) {
+            lagSampler.close();
+        }
+        control.close();
+    }
+
+    private static ScheduledExecutorService newDaemonScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final class FaultRun {
+        private final ChaosFault fault;
+        private long injectedAtMillis;
+        private boolean injected;
+        private long revertedAtMillis;
+        private long recoveredAtMillis;
+        private long baselineBacklog;
+        private long peakBacklog;
+        private long peakAtMillis;
+        private long endBacklog;
+        private long endAtMillis;
+        private String error;
+        private volatile boolean done;
+
+        FaultRun(ChaosFault fault) {
+            this.fault = fault;
+        }
+
+        synchronized void observe(long current, long now) {
+            if (done || injectedAtMillis == 0) {
+                return;
+            }
+            if (current > peakBacklog) {
+                peakBacklog = current;
+                peakAtMillis = now;
+            }
+            if (revertedAtMillis == 0) {
+                return;
+            }
+            if (current <= baselineBacklog + recoveryTolerance) {
+                recoveredAtMillis = now;
+                finish(current, now);
+                LatencyRecorder.of("chaos.recovery " + fault.getType().getToken()).recordMillis(now - revertedAtMillis);
+                System.out.println("Chaos fault recovered: " + fault + " after " + (now - revertedAtMillis) + " ms");
+            } else if (now - revertedAtMillis > recoveryTimeout.toMillis()) {
+                finish(current, now);
+                System.out.println("Chaos fault did not recover: " + fault + " (backlog " + current + ")");
+            }
+        }
+
+        synchronized void fail(String message) {
+            error = message;
+            finish(backlog, System.currentTimeMillis());
+        }
+
+        private void finish(long current, long now) {
+            endBacklog = current;
+            endAtMillis = now;
+            done = true;
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        synchronized long getInjectedAtMillis() {
+            return injectedAtMillis;
+        }
+
+        synchronized boolean dltWindowContains(long timestamp, long now) {
+            return injectedAtMillis > 0 && timestamp >= injectedAtMillis
+                    && timestamp <= (endAtMillis > 0 ? endAtMillis : now) + dltGrace.toMillis();
+        }
+
+        synchronized FaultImpact toImpact(long dltRecords) {
+            Duration recovery = recoveredAtMillis == 0 ? null : Duration.ofMillis(recoveredAtMillis - revertedAtMillis);
+            double drainRate = 0;
+            if (revertedAtMillis > 0 && endAtMillis > 0 && peakBacklog > endBacklog) {
+                long drainMillis = Math.max(endAtMillis - Math.max(peakAtMillis, revertedAtMillis), sampleInterval.toMillis());
+                drainRate = (peakBacklog - endBacklog) * 1000.0 / drainMillis;
+            }
+            return new FaultImpact(
+                    fault,
+                    injectedAtMillis == 0 ? null : Instant.ofEpochMilli(injectedAtMillis),
+                    revertedAtMillis == 0 ? null : Instant.ofEpochMilli(revertedAtMillis),
+                    recovery,
+                    baselineBacklog,
+                    peakBacklog,
+                    drainRate,
+                    dltRecords,
+                    error
+            );
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.microservices.api.chaos;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * What one {@link ChaosFault} did to the saga: how far the consumer backlog grew, how fast it drained
+ * once the fault was reverted, how long until it was back to its pre-fault level, and how many records
+ * were dead-lettered meanwhile.
+ */
+public final class FaultImpact {
+
+    private final ChaosFault fault;
+    private final Instant injectedAt;
+    private final Instant revertedAt;
+    private final Duration recoveryTime;
+    private final long baselineBacklog;
+    private final long peakBacklog;
+    private final double drainRatePerSecond;
+    private final long dltRecords;
+    private final String error;
+
+    FaultImpact(ChaosFault fault, Instant injectedAt, Instant revertedAt, Duration recoveryTime,
+                long baselineBacklog, long peakBacklog, double drainRatePerSecond, long dltRecords, String error) {
+        this.fault = fault;
+        this.injectedAt = injectedAt;
+        this.revertedAt = revertedAt;
+        this.recoveryTime = recoveryTime;
+        this.baselineBacklog = baselineBacklog;
+        this.peakBacklog = peakBacklog;
+        this.drainRatePerSecond = drainRatePerSecond;
+        this.dltRecords = dltRecords;
+        this.error = error;
+    }
+
+    public ChaosFault getFault() {
+        return fault;
+    }
+
+    /** Null if the fault was never injected. */
+    public Instant getInjectedAt() {
+        return injectedAt;
+    }
+
+    /** Null if the fault was never reverted. */
+    public Instant getRevertedAt() {
+        return revertedAt;
+    }
+
+    /**
+     * From reverting the fault until the backlog was back within tolerance of its pre-fault level;
+     * null if that did not happen within the recovery timeout.
+     */
+    public Duration getRecoveryTime() {
+        return recoveryTime;
+    }
+
+    public boolean isRecovered() {
+        return recoveryTime != null;
+    }
+
+    /** Summed consumer lag of the saga topics just before the fault was injected. */
+    public long getBaselineBacklog() {
+        return baselineBacklog;
+    }
+
+    public long getPeakBacklog() {
+        return peakBacklog;
+    }
+
+    /** Records per second the backlog shrank by, from its peak until recovery (or the timeout). */
+    public double getDrainRatePerSecond() {
+        return drainRatePerSecond;
+    }
+
+    /** Records that reached a DLT between injection and recovery, plus a grace period for retries. */
+    public long getDltRecords() {
+        return dltRecords;
+    }
+
+    /** Why injecting or reverting failed; null if both worked. */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-48s backlog %d -> %d, drain %.1f/s, recovery %s, dlt %d%s",
+                fault, baselineBacklog, peakBacklog, drainRatePerSecond,
+                recoveryTime == null ? "NOT RECOVERED" : recoveryTime.toMillis() + " ms",
+                dltRecords, error == null ? "" : ", error: " + error);
+    }
+}
@@ -1,5 +1,7 @@
 package com.microservices.api.constants;
 
+import java.util.List;
+
 public final class KafkaTestConstants {
 
     private KafkaTestConstants() {}
@@ -9,7 +11,22 @@ public final class KafkaTestConstants {
     public static final String PAYMENT_EVENTS_TOPIC = "payment-events";
     public static final String SEAT_RESERVED_TOPIC = "seat-reserved-topic";
 
+    public static final List<String> SAGA_TOPICS = List.of(
+            BOOKING_EVENTS_TOPIC,
+            SEAT_RESERVED_TOPIC,
+            PAYMENT_EVENTS_TOPIC
+    );
+
     // 🔹 DLT topics (future-safe)
     public static final String BOOKING_EVENTS_DLT = "movie-booking-events-dlt";
     public static final String PAYMENT_EVENTS_DLT = "payment-events-dlt";
-}
\ No newline at end of file
+
+    // 🔹 Everything the saga uses; pre-created by the embedded broker
+    public static final String[] ALL_TOPICS = {
+            BOOKING_EVENTS_TOPIC,
+            PAYMENT_EVENTS_TOPIC,
+            SEAT_RESERVED_TOPIC,
+            BOOKING_EVENTS_DLT,
+            PAYMENT_EVENTS_DLT
+    };
+}
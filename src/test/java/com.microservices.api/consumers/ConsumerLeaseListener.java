@@ -0,0 +1,27 @@
+package com.microservices.api.consumers;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Marks the start of each test method for {@link KafkaConsumerRegistry.Lease#seekToTestStart()} and
+ * returns the registry consumers a test left leased.
+ */
+public class ConsumerLeaseListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            KafkaConsumerRegistry.markTestStart();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            KafkaConsumerRegistry.clearTestStart();
+            KafkaConsumerRegistry.shared().releaseLeasesOf(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.microservices.api.consumers;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * A deserialized record as stored by {@link TopicEventIndex}, together with the
+ * local System.nanoTime at which the background consumer received it.
+ */
+public class IndexedEvent<T> {
+
+    private final ConsumerRecord<String, T> record;
+    private final long receivedNanos;
+
+    public IndexedEvent(ConsumerRecord<String, T> record, long receivedNanos) {
+        this.record = record;
+        this.receivedNanos = receivedNanos;
+    }
+
+    public T getValue() {
+        return record.value();
+    }
+
+    public ConsumerRecord<String, T> getRecord() {
+        return record;
+    }
+
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedEvent{" +
+                "topic=" + record.topic() +
+                ", partition=" + record.partition() +
+                ", offset=" + record.offset() +
+                ", value=" + record.value() +
+                '}';
+    }
+}
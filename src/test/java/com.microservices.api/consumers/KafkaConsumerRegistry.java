@@ -0,0 +1,251 @@
+package com.microservices.api.consumers;
+
+import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
+import com.microservices.api.util.TopicResetService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Warm, manually assigned consumers kept for the whole suite and leased to tests.
+ * <p>
+ * A fresh consumer group per test class pays for a group join, a rebalance and a replay of the topic from
+ * the earliest offset. The consumers here have no group: they are assigned to every partition once, and
+ * a lease only moves their position - to the end, to a timestamp, or to the start of the current test
+ * ({@link #markTestStart()}, called by {@link ConsumerLeaseListener}). Closing a lease hands the consumer
+ * back; leases a test forgot to close are returned when the test method ends.
+ * <p>
+ * KafkaConsumer is single-threaded, so a leased consumer belongs to the leasing thread until it is closed.
+ * Idle consumers per topic and value type: {@code -Dkafka.registry.idle.max} (default 4).
+ */
+public class KafkaConsumerRegistry implements AutoCloseable {
+
+    private static final int MAX_IDLE = Integer.getInteger("kafka.registry.idle.max", 4);
+    private static final Duration DEFAULT_LOOKBACK = Duration.ofMinutes(5);
+    private static final ThreadLocal<Instant> TEST_START = new ThreadLocal<>();
+    private static volatile KafkaConsumerRegistry shared;
+
+    private final ConcurrentMap<String, Deque<Consumer<String, ?>>> idle = new ConcurrentHashMap<>();
+    private final Set<Lease<?>> leased = ConcurrentHashMap.newKeySet();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+
+    public static KafkaConsumerRegistry shared() {
+        KafkaConsumerRegistry registry = shared;
+        if (registry != null) {
+            return registry;
+        }
+        synchronized (KafkaConsumerRegistry.class) {
+            if (shared == null) {
+                shared = new KafkaConsumerRegistry();
+                Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "kafka-consumer-registry-shutdown"));
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Remembers when the test on this thread started, for {@link Lease#seekToTestStart()}.
+     */
+    public static void markTestStart() {
+        TEST_START.set(Instant.now());
+    }
+
+    public static void clearTestStart() {
+        TEST_START.remove();
+    }
+
+    /**
+     * Start of the current test, or now minus five minutes outside of a test.
+     */
+    public static Instant testStart() {
+        Instant start = TEST_START.get();
+        return start != null ? start : Instant.now().minus(DEFAULT_LOOKBACK);
+    }
+
+    /**
+     * A consumer of every partition of {@code topic}, positioned at the current end.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Lease<T> lease(Class<T> valueType, String topic) {
+        Deque<Consumer<String, ?>> pool = idle.computeIfAbsent(key(valueType, topic), k -> new ConcurrentLinkedDeque<>());
+        Consumer<String, T> consumer = (Consumer<String, T>) pool.pollFirst();
+        if (consumer == null) {
+            consumer = BaseKafkaIntegrationTest.createAssignedConsumer(valueType, topic);
+            created.incrementAndGet();
+        } else {
+            reused.incrementAndGet();
+        }
+        Lease<T> lease = new Lease<>(this, key(valueType, topic), topic, consumer);
+        lease.seekToEnd();
+        leased.add(lease);
+        return lease;
+    }
+
+    /** Returns every lease taken by the calling thread that is still open. */
+    public void releaseLeasesOf(Thread thread) {
+        for (Lease<?> lease : leased) {
+            if (lease.owner == thread) {
+                lease.close();
+            }
+        }
+    }
+
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    public long getReusedCount() {
+        return reused.get();
+    }
+
+    private void giveBack(Lease<?> lease) {
+        leased.remove(lease);
+        Deque<Consumer<String, ?>> pool = idle.get(lease.key);
+        if (pool != null && pool.size() < MAX_IDLE) {
+            pool.addFirst(lease.consumer);
+        } else {
+            lease.consumer.close(Duration.ofSeconds(1));
+        }
+    }
+
+    /**
+     * Moves every assigned partition of {@code consumer} to its first record at or after {@code timestamp};
+     * partitions with nothing newer go to their end. Positions are resolved before returning.
+     */
+    public static void seekToTimestamp(Consumer<?, ?> consumer, Instant timestamp) {
+        Map<TopicPartition, Long> query = new HashMap<>();
+        for (TopicPartition partition : consumer.assignment()) {
+            query.put(partition, timestamp.toEpochMilli());
+        }
+        List<TopicPartition> atEnd = new ArrayList<>();
+        for (Map.Entry<TopicPartition, OffsetAndTimestamp> entry : consumer.offsetsForTimes(query).entrySet()) {
+            if (entry.getValue() == null) {
+                atEnd.add(entry.getKey());
+            } else {
+                consumer.seek(entry.getKey(), entry.getValue().offset());
+            }
+        }
+        if (!atEnd.isEmpty()) {
+            consumer.seekToEnd(atEnd);
+            // seekToEnd is lazy; resolve now so records written after this call are not missed
+            atEnd.forEach(consumer::position);
+        }
+    }
+
+    private static String key(Class<?> valueType, String topic) {
+        return topic + "|" + valueType.getName();
+    }
+
+    @Override
+    public void close() {
+        leased.forEach(lease -> lease.consumer.wakeup());
+        idle.values().forEach(pool -> {
+            Consumer<String, ?> consumer;
+            while ((consumer = pool.pollFirst()) != null) {
+                consumer.close(Duration.ofSeconds(1));
+            }
+        });
+        System.out.println("Kafka consumer registry: " + created.get() + " created, " + reused.get() + " reused");
+    }
+
+    /**
+     * One consumer, exclusively owned by the leasing thread until {@link #close()}.
+     */
+    public static final class Lease<T> implements AutoCloseable {
+        private final KafkaConsumerRegistry registry;
+        private final String key;
+        private final String topic;
+        private final Consumer<String, T> consumer;
+        private final Thread owner = Thread.currentThread();
+        private volatile boolean closed;
+
+        private Lease(KafkaConsumerRegistry registry, String key, String topic, Consumer<String, T> consumer) {
+            this.registry = registry;
+            this.key = key;
+            this.topic = topic;
+            this.consumer = consumer;
+        }
+
+        public Consumer<String, T> consumer() {
+            return consumer;
+        }
+
+        public Lease<T> seekToEnd() {
+            Set<TopicPartition> partitions = consumer.assignment();
+            consumer.seekToEnd(partitions);
+            // seekToEnd is lazy; resolve now so records published after this call are not missed
+            partitions.forEach(consumer::position);
+            return this;
+        }
+
+        public Lease<T> seekToBeginning() {
+            consumer.seekToBeginning(consumer.assignment());
+            return this;
+        }
+
+        /**
+         * First record at or after {@code timestamp} on every partition; partitions with nothing newer
+         * go to their end.
+         */
+        public Lease<T> seekToTimestamp(Instant timestamp) {
+            KafkaConsumerRegistry.seekToTimestamp(consumer, timestamp);
+            return this;
+        }
+
+        /** Records from a watermark taken before the test published anything. */
+        public Lease<T> seekTo(TopicResetService.Watermark watermark) {
+            watermark.seek(consumer);
+            return this;
+        }
+
+        /** Everything published since the current test started. */
+        public Lease<T> seekToTestStart() {
+            return seekToTimestamp(testStart());
+        }
+
+        /**
+         * Polls until a record matches or {@code timeout} passes; null on timeout.
+         */
+        public ConsumerRecord<String, T> pollUntil(Predicate<ConsumerRecord<String, T>> match, Duration timeout) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, T> record : consumer.poll(Duration.ofMillis(200)).records(topic)) {
+                    if (match.test(record)) {
+                        return record;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /** {@link #pollUntil} on a value extracted from the record, e.g. the bookingId. */
+        public <K> ConsumerRecord<String, T> pollUntilValue(Function<T, K> extractor, K expected, Duration timeout) {
+            return pollUntil(record -> record.value() != null && expected.equals(extractor.apply(record.value())), timeout);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                registry.giveBack(this);
+            }
+        }
+    }
+}
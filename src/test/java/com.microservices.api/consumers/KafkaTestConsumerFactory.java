@@ -1,6 +1,7 @@
 package com.microservices.api.consumers;
 
-import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.serde.SagaEventDeserializer;
+import com.microservices.api.util.EmbeddedKafkaSupport;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -16,6 +17,13 @@ public class KafkaTestConsumerFactory {
 
     private final EmbeddedKafkaBroker embeddedKafkaBroker;
 
+    /**
+     * Uses the suite-wide broker from {@link EmbeddedKafkaSupport}, starting it if needed.
+     */
+    public KafkaTestConsumerFactory() {
+        this(EmbeddedKafkaSupport.start());
+    }
+
     public KafkaTestConsumerFactory(EmbeddedKafkaBroker embeddedKafkaBroker) {
         this.embeddedKafkaBroker = embeddedKafkaBroker;
     }
@@ -41,7 +49,7 @@ public class KafkaTestConsumerFactory {
                 new DefaultKafkaConsumerFactory<>(
                         props,
                         new StringDeserializer(),
-                        new JsonDeserializer<>(eventClass)
+                        new SagaEventDeserializer<>(eventClass)
                 );
 
         Consumer<String, T> consumer = consumerFactory.createConsumer();
@@ -0,0 +1,91 @@
+package com.microservices.api.consumers;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+
+import java.time.Duration;
+
+/**
+ * The three saga topics indexed by bookingId.
+ * <p>
+ * {@link #shared()} returns one instance for the whole JVM, so parallel tests and load workers
+ * all read from the same three background consumers instead of each owning a consumer group.
+ * {@link SagaEventIndexListener} creates it when the suite starts, so it already tails the topics when
+ * the first test publishes.
+ */
+public class SagaEventIndex implements AutoCloseable {
+
+    private static volatile SagaEventIndex shared;
+
+    private final TopicEventIndex<BookingCreatedEvent> bookingCreated;
+    private final TopicEventIndex<SeatReservedEvent> seatReserved;
+    private final TopicEventIndex<BookingPaymentEvent> payments;
+
+    public SagaEventIndex() {
+        this.bookingCreated = new TopicEventIndex<>(
+                KafkaTestConstants.BOOKING_EVENTS_TOPIC, BookingCreatedEvent.class, BookingCreatedEvent::getBookingId);
+        this.seatReserved = new TopicEventIndex<>(
+                KafkaTestConstants.SEAT_RESERVED_TOPIC, SeatReservedEvent.class, SeatReservedEvent::getBookingId);
+        this.payments = new TopicEventIndex<>(
+                KafkaTestConstants.PAYMENT_EVENTS_TOPIC, BookingPaymentEvent.class, BookingPaymentEvent::getBookingId);
+    }
+
+    public static SagaEventIndex shared() {
+        if (shared != null) {
+            return shared;
+        }
+        synchronized (SagaEventIndex.class) {
+            if (shared == null) {
+                SagaEventIndex index = new SagaEventIndex();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        index.close();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, "saga-event-index-shutdown"));
+                shared = index;
+            }
+        }
+        return shared;
+    }
+
+    public TopicEventIndex<BookingCreatedEvent> bookingCreated() {
+        return bookingCreated;
+    }
+
+    public TopicEventIndex<SeatReservedEvent> seatReserved() {
+        return seatReserved;
+    }
+
+    public TopicEventIndex<BookingPaymentEvent> payments() {
+        return payments;
+    }
+
+    public BookingCreatedEvent awaitBookingCreated(String bookingId, Duration timeout) {
+        return bookingCreated.await(bookingId, timeout);
+    }
+
+    public SeatReservedEvent awaitSeatReserved(String bookingId, Duration timeout) {
+        return seatReserved.await(bookingId, timeout);
+    }
+
+    public BookingPaymentEvent awaitPayment(String bookingId, Duration timeout) {
+        return payments.await(bookingId, timeout);
+    }
+
+    public void forget(String bookingId) {
+        bookingCreated.forget(bookingId);
+        seatReserved.forget(bookingId);
+        payments.forget(bookingId);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        bookingCreated.close();
+        seatReserved.close();
+        payments.close();
+    }
+}
@@ -0,0 +1,22 @@
+package com.microservices.api.consumers;
+
+import com.microservices.api.util.EmbeddedKafkaSupport;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Starts {@link SagaEventIndex#shared()} before the first test of a suite. The index only sees records
+ * published after it starts, so a test that calls bookSeat before its first {@code sagaEvents()} lookup
+ * would otherwise miss the events of the first bookings in the JVM.
+ */
+public class SagaEventIndexListener implements ISuiteListener {
+
+    @Override
+    public void onStart(ISuite suite) {
+        // the index must attach to the embedded broker, whichever suite listener runs first
+        if (EmbeddedKafkaSupport.isEnabled()) {
+            EmbeddedKafkaSupport.start();
+        }
+        SagaEventIndex.shared();
+    }
+}
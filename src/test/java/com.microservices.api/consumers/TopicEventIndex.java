@@ -0,0 +1,222 @@
+package com.microservices.api.consumers;
+
+import com.microservices.api.metrics.SagaMetrics;
+import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
+import main.java.com.microservices.api.core.LatencyRecorder;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.RecordDeserializationException;
+import org.apache.kafka.common.errors.WakeupException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tails one topic with a single background consumer and indexes every record by bookingId.
+ * <p>
+ * The consumer is manually assigned to all partitions (no consumer group, no rebalances) and
+ * starts at the end of the topic. Records are deserialized once and kept in a concurrent map,
+ * so any number of threads can wait for "their" booking without polling Kafka themselves.
+ * <p>
+ * Bookings are evicted once nothing has happened to them for {@code event.index.ttl.seconds} (default
+ * 1800), and the oldest ones first whenever more than {@code event.index.max.bookings} (default 200000)
+ * are held, so the index stays bounded over a whole suite even when nobody calls {@link #forget(String)}.
+ * A booking still waiting for its first event is never evicted by the size cap, only by the TTL.
+ */
+public class TopicEventIndex<T> implements AutoCloseable {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final String topic;
+    private final Function<T, String> bookingIdExtractor;
+    private final Consumer<String, T> consumer;
+    private final ConcurrentMap<String, Entry<T>> index = new ConcurrentHashMap<>();
+    private final Thread poller;
+    private final SagaMetrics metrics = SagaMetrics.shared();
+    private final LatencyRecorder awaitLatency;
+    private final long ttlNanos;
+    private final int maxBookings;
+    private long lastSweepNanos = System.nanoTime();
+    private volatile boolean running = true;
+
+    public TopicEventIndex(String topic, Class<T> valueType, Function<T, String> bookingIdExtractor) {
+        this(topic, valueType, bookingIdExtractor,
+                Duration.ofSeconds(Long.getLong("event.index.ttl.seconds", 1800L)),
+                Integer.getInteger("event.index.max.bookings", 200_000));
+    }
+
+    public TopicEventIndex(String topic, Class<T> valueType, Function<T, String> bookingIdExtractor,
+                           Duration ttl, int maxBookings) {
+        this.topic = topic;
+        this.bookingIdExtractor = bookingIdExtractor;
+        this.ttlNanos = ttl.toNanos();
+        this.maxBookings = maxBookings;
+        this.awaitLatency = LatencyRecorder.of("kafka.await " + topic);
+        this.consumer = BaseKafkaIntegrationTest.createAssignedConsumer(valueType, topic);
+        this.poller = new Thread(this::pollLoop, "event-index-" + topic);
+        this.poller.setDaemon(true);
+        this.poller.start();
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * Future completed with the first event seen for the booking. Safe to call before the event arrives.
+     */
+    public CompletableFuture<IndexedEvent<T>> future(String bookingId) {
+        return entry(bookingId).first;
+    }
+
+    /**
+     * Blocks until the first event for the booking is indexed.
+     *
+     * @throws RuntimeException if nothing arrives within the timeout
+     */
+    public T await(String bookingId, Duration timeout) {
+        long start = System.nanoTime();
+        try {
+            return future(bookingId).get(timeout.toMillis(), TimeUnit.MILLISECONDS).getValue();
+        } catch (TimeoutException e) {
+            throw new RuntimeException("No matching event found on " + topic + " for bookingId=" + bookingId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for bookingId=" + bookingId, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Event index for " + topic + " failed", e.getCause());
+        } finally {
+            awaitLatency.recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Every event seen so far for the booking, in arrival order (duplicates included).
+     */
+    public List<T> events(String bookingId) {
+        Entry<T> entry = index.get(bookingId);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        return entry.all.stream().map(IndexedEvent::getValue).collect(Collectors.toList());
+    }
+
+    /**
+     * Same as {@link #events(String)} but with the Kafka record (headers, offset) of each event.
+     */
+    public List<IndexedEvent<T>> indexedEvents(String bookingId) {
+        Entry<T> entry = index.get(bookingId);
+        return entry == null ? Collections.emptyList() : List.copyOf(entry.all);
+    }
+
+    public int count(String bookingId) {
+        Entry<T> entry = index.get(bookingId);
+        return entry == null ? 0 : entry.all.size();
+    }
+
+    /**
+     * Drops the booking from the index; long load runs call this once a saga is finished.
+     */
+    public void forget(String bookingId) {
+        index.remove(bookingId);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private Entry<T> entry(String bookingId) {
+        return index.computeIfAbsent(bookingId, id -> new Entry<>());
+    }
+
+    private void pollLoop() {
+        try {
+            while (running) {
+                try {
+                    for (ConsumerRecord<String, T> record : consumer.poll(POLL_INTERVAL)) {
+                        index(record);
+                    }
+                    if (System.nanoTime() - lastSweepNanos > SWEEP_INTERVAL_NANOS) {
+                        evict();
+                    }
+                } catch (RecordDeserializationException e) {
+                    // skip the poison record instead of stalling the whole index
+                    System.out.println("Skipping undeserializable record on " + e.topicPartition()
+                            + " @" + e.offset() + ": " + e.getMessage());
+                    consumer.seek(e.topicPartition(), e.offset() + 1);
+                }
+            }
+        } catch (WakeupException e) {
+            // close() was called
+        } catch (RuntimeException e) {
+            index.values().forEach(entry -> entry.first.completeExceptionally(e));
+            throw e;
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void index(ConsumerRecord<String, T> record) {
+        T value = record.value();
+        if (value == null) {
+            return;
+        }
+        String bookingId = bookingIdExtractor.apply(value);
+        if (bookingId == null) {
+            return;
+        }
+        metrics.recordDelivery(record);
+        IndexedEvent<T> event = new IndexedEvent<>(record, System.nanoTime());
+        Entry<T> entry = entry(bookingId);
+        entry.all.add(event);
+        entry.touchedNanos = event.getReceivedNanos();
+        entry.first.complete(event);
+    }
+
+    /**
+     * Drops bookings idle for longer than the TTL, then the least recently touched ones above the size cap.
+     * The cap only drops bookings whose first event has arrived: a pending entry is what a caller is
+     * waiting on. Pending entries nobody waits on any more are left to the TTL, which no await outlives.
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        lastSweepNanos = now;
+        index.values().removeIf(entry -> now - entry.touchedNanos > ttlNanos);
+        int excess = index.size() - maxBookings;
+        if (excess > 0) {
+            index.entrySet().stream()
+                    .filter(e -> e.getValue().first.isDone())
+                    .sorted(Comparator.comparingLong(e -> e.getValue().touchedNanos))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList())
+                    .forEach(index::remove);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        consumer.wakeup();
+        poller.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private static final class Entry<T> {
+        private final CompletableFuture<IndexedEvent<T>> first = new CompletableFuture<>();
+        private final List<IndexedEvent<T>> all = new CopyOnWriteArrayList<>();
+        private volatile long touchedNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,172 @@
+package com.microservices.api.dlt;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import com.microservices.api.serde.SagaEventCodec;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One dead-lettered record: the original key, value bytes and headers, plus what Spring's
+ * DeadLetterPublishingRecoverer recorded about the failure ({@link KafkaHeaders} {@code DLT_*} headers).
+ * The value is kept as raw bytes so a replay sends exactly what the service rejected.
+ */
+public class DltEntry {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final ObjectReader TREE_READER = MAPPER.reader();
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private final String dltTopic;
+    private final int partition;
+    private final long offset;
+    private final long timestamp;
+    private final String key;
+    private final byte[] value;
+    private final Headers headers;
+    private final String bookingId;
+    private final long receivedNanos = System.nanoTime();
+
+    DltEntry(ConsumerRecord<String, byte[]> record) {
+        this.dltTopic = record.topic();
+        this.partition = record.partition();
+        this.offset = record.offset();
+        this.timestamp = record.timestamp();
+        this.key = record.key();
+        this.value = record.value();
+        this.headers = record.headers();
+        this.bookingId = key != null ? key : bookingIdFromValue(value);
+    }
+
+    public String getDltTopic() {
+        return dltTopic;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public byte[] getValue() {
+        return value;
+    }
+
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    /** The record key, or the payload's bookingId for records without a key. */
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    /** Topic the record failed on; derived from the DLT name if the header is missing. */
+    public String getOriginalTopic() {
+        String topic = header(KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        return topic != null ? topic : dltTopic.replaceFirst("-dlt$", "");
+    }
+
+    public String getExceptionClass() {
+        return header(KafkaHeaders.DLT_EXCEPTION_FQCN);
+    }
+
+    public String getExceptionCauseClass() {
+        return header(KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN);
+    }
+
+    public String getExceptionMessage() {
+        return header(KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+    }
+
+    public int getOriginalPartition() {
+        Header header = headers.lastHeader(KafkaHeaders.DLT_ORIGINAL_PARTITION);
+        return header == null || header.value().length != Integer.BYTES ? -1 : ByteBuffer.wrap(header.value()).getInt();
+    }
+
+    public long getOriginalOffset() {
+        Header header = headers.lastHeader(KafkaHeaders.DLT_ORIGINAL_OFFSET);
+        return header == null || header.value().length != Long.BYTES ? -1 : ByteBuffer.wrap(header.value()).getLong();
+    }
+
+    /**
+     * The payload as {@code type}; binary payloads are decoded with {@link SagaEventCodec}, JSON through a
+     * cached {@link ObjectReader} per type.
+     */
+    public <T> T as(Class<T> type) {
+        if (SagaEventCodec.isBinary(value)) {
+            return type.cast(SagaEventCodec.decode(value));
+        }
+        try {
+            return READERS.computeIfAbsent(type, MAPPER::readerFor).readValue(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("DLT record " + dltTopic + "@" + offset + " is not a " + type.getSimpleName(), e);
+        }
+    }
+
+    public String valueAsString() {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private String header(String name) {
+        Header header = headers.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static String bookingIdFromValue(byte[] value) {
+        if (value == null || value.length == 0) {
+            return null;
+        }
+        try {
+            if (SagaEventCodec.isBinary(value)) {
+                Object event = SagaEventCodec.decode(value);
+                if (event instanceof BookingCreatedEvent) return ((BookingCreatedEvent) event).getBookingId();
+                if (event instanceof SeatReservedEvent) return ((SeatReservedEvent) event).getBookingId();
+                if (event instanceof BookingPaymentEvent) return ((BookingPaymentEvent) event).getBookingId();
+                return null;
+            }
+            JsonNode bookingId = TREE_READER.readTree(value).get("bookingId");
+            return bookingId == null || bookingId.isNull() ? null : bookingId.asText();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DltEntry{" + dltTopic + "@" + partition + ":" + offset
+                + ", bookingId=" + bookingId
+                + ", exception=" + getExceptionClass()
+                + ", originalTopic=" + getOriginalTopic() + "}";
+    }
+}
@@ -0,0 +1,512 @@
+package com.microservices.api.dlt;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.consumers.KafkaConsumerRegistry;
+import com.microservices.api.metrics.SagaHeaders;
+import com.microservices.api.util.DeliveryMode;
+import com.microservices.api.util.KafkaBootstrap;
+import main.java.com.microservices.api.core.LatencyRecorder;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Tails the dead-letter topics with one background consumer and indexes every entry by bookingId and by
+ * exception class, so a test asks "did booking X dead-letter, and why?" without polling Kafka itself.
+ * <p>
+ * The consumer is manually assigned (no group) and starts {@code -Ddlt.lookback.seconds} (default 300)
+ * before it was created, so entries written just before a test looked are still found. Values stay raw
+ * bytes; {@link DltEntry#as(Class)} decodes on demand. {@link #replay(Collection, double)} sends entries back
+ * to their original topic at a fixed rate with the original key, value and non-DLT headers.
+ * <p>
+ * Like {@code TopicEventIndex}, bookings idle for {@code dlt.index.ttl.seconds} (default 1800) are dropped,
+ * and above {@code dlt.index.max.bookings} (default 200000) the least recently touched ones whose futures
+ * have all completed. Once the consumer stops, because of {@link #close()} or an error, pending futures
+ * fail and new ones fail straight away.
+ */
+public class DltInspector implements AutoCloseable {
+
+    public static final List<String> DLT_TOPICS =
+            List.of(KafkaTestConstants.BOOKING_EVENTS_DLT, KafkaTestConstants.PAYMENT_EVENTS_DLT);
+
+    /** Prefix of the headers DeadLetterPublishingRecoverer adds; stripped on replay. */
+    private static final String DLT_HEADER_PREFIX = KafkaHeaders.PREFIX + "dlt-";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final Duration LOOKBACK = Duration.ofSeconds(Long.getLong("dlt.lookback.seconds", 300));
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static volatile DltInspector shared;
+
+    private final List<String> topics;
+    private final KafkaConsumer<String, byte[]> consumer;
+    private final ConcurrentMap<String, Entry> byBookingId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<DltEntry>> byException = new ConcurrentHashMap<>();
+    private final AtomicLong indexed = new AtomicLong();
+    private final LatencyRecorder awaitLatency = LatencyRecorder.of("dlt.await");
+    private final LatencyRecorder replayAckLatency = LatencyRecorder.of("dlt.replay.ack");
+    private final Thread poller;
+    private final long ttlNanos;
+    private final int maxBookings;
+    private long lastSweepNanos = System.nanoTime();
+    private volatile KafkaProducer<String, byte[]> replayProducer;
+    private volatile boolean running = true;
+    /** Set once the poll loop has ended; every future still pending or requested later fails with it. */
+    private volatile RuntimeException stopped;
+
+    public DltInspector(List<String> topics) {
+        this(topics, Duration.ofSeconds(Long.getLong("dlt.index.ttl.seconds", 1800L)),
+                Integer.getInteger("dlt.index.max.bookings", 200_000));
+    }
+
+    public DltInspector(List<String> topics, Duration ttl, int maxBookings) {
+        this.topics = List.copyOf(topics);
+        this.ttlNanos = ttl.toNanos();
+        this.maxBookings = maxBookings;
+        this.consumer = new KafkaConsumer<>(consumerProperties(), new StringDeserializer(), new ByteArrayDeserializer());
+        assignFrom(Instant.now().minus(LOOKBACK));
+        this.poller = new Thread(this::pollLoop, "dlt-inspector");
+        this.poller.setDaemon(true);
+        this.poller.start();
+    }
+
+    /**
+     * Inspector over {@link #DLT_TOPICS}, created on first use and closed at JVM exit.
+     */
+    public static DltInspector shared() {
+        DltInspector inspector = shared;
+        if (inspector != null) {
+            return inspector;
+        }
+        synchronized (DltInspector.class) {
+            if (shared == null) {
+                shared = new DltInspector(DLT_TOPICS);
+                Runtime.getRuntime().addShutdownHook(new Thread(shared::closeQuietly, "dlt-inspector-shutdown"));
+            }
+            return shared;
+        }
+    }
+
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    /**
+     * Future completed with the first DLT entry of the booking on any DLT. Safe to call before the entry arrives.
+     */
+    public CompletableFuture<DltEntry> future(String bookingId) {
+        return failIfStopped(entry(bookingId).first);
+    }
+
+    /**
+     * Future completed with the first entry of the booking on {@code dltTopic} only.
+     */
+    public CompletableFuture<DltEntry> future(String bookingId, String dltTopic) {
+        return failIfStopped(entry(bookingId).firstOn(dltTopic));
+    }
+
+    /** Checked after the future is registered, so it cannot slip past the poller failing the pending ones. */
+    private CompletableFuture<DltEntry> failIfStopped(CompletableFuture<DltEntry> future) {
+        RuntimeException failure = stopped;
+        if (failure != null) {
+            future.completeExceptionally(failure);
+        }
+        return future;
+    }
+
+    /**
+     * First DLT entry of the booking on any DLT, or {@code null} if none arrives within the timeout.
+     */
+    public DltEntry await(String bookingId, Duration timeout) {
+        return await(future(bookingId), bookingId, timeout);
+    }
+
+    /**
+     * First entry of the booking on {@code dltTopic}, or {@code null} if none arrives within the timeout;
+     * use this when the caller decodes the value as that topic's event type.
+     */
+    public DltEntry await(String bookingId, String dltTopic, Duration timeout) {
+        return await(future(bookingId, dltTopic), bookingId, timeout);
+    }
+
+    private DltEntry await(CompletableFuture<DltEntry> future, String bookingId, Duration timeout) {
+        long start = System.nanoTime();
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for DLT entry of bookingId=" + bookingId, e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("DLT inspector failed", e.getCause());
+        } finally {
+            awaitLatency.recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    /** Every DLT entry seen so far for the booking, in arrival order. */
+    public List<DltEntry> entries(String bookingId) {
+        Entry entry = byBookingId.get(bookingId);
+        return entry == null ? Collections.emptyList() : List.copyOf(entry.all);
+    }
+
+    /**
+     * Entries whose {@link KafkaHeaders#DLT_EXCEPTION_FQCN} or cause class is {@code exceptionClass}
+     * (fully qualified or simple name).
+     */
+    public List<DltEntry> byException(String exceptionClass) {
+        List<DltEntry> entries = byException.get(exceptionClass);
+        return entries == null ? Collections.emptyList() : List.copyOf(entries);
+    }
+
+    /** Entry count per exception class (fully qualified), sorted by name. */
+    public Map<String, Integer> exceptionCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        byException.forEach((name, entries) -> {
+            if (name.indexOf('.') >= 0) {
+                counts.put(name, entries.size());
+            }
+        });
+        return counts;
+    }
+
+    /** Every entry indexed so far, in arrival order per booking. */
+    public List<DltEntry> all() {
+        return byBookingId.values().stream().flatMap(e -> e.all.stream()).collect(Collectors.toList());
+    }
+
+    public long size() {
+        return indexed.get();
+    }
+
+    /**
+     * Drops everything indexed so far; the consumer keeps its position, so nothing is re-read. Futures
+     * still being waited on are carried over and complete with the next matching entry.
+     */
+    public void clear() {
+        for (String bookingId : byBookingId.keySet()) {
+            byBookingId.computeIfPresent(bookingId, (id, entry) -> entry.pendingOnly());
+        }
+        byException.clear();
+        indexed.set(0);
+    }
+
+    /**
+     * Sends {@code entries} back to their original topic, at most {@code ratePerSecond} per second
+     * (0 or less: unthrottled), and waits for every ack. DLT headers are stripped, the saga correlation and
+     * publish-time headers are re-stamped. Sends are paced on a fixed schedule, not after each ack, so a slow
+     * broker shows up as ack latency ({@code dlt.replay.ack}) rather than as a lower send rate.
+     */
+    public ReplayResult replay(Collection<DltEntry> entries, double ratePerSecond) {
+        KafkaProducer<String, byte[]> producer = replayProducer();
+        long intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+        List<CompletableFuture<Void>> acks = new ArrayList<>(entries.size());
+        AtomicLong failed = new AtomicLong();
+        long start = System.nanoTime();
+        long next = start;
+
+        for (DltEntry entry : entries) {
+            if (intervalNanos > 0) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                next += intervalNanos;
+            }
+            CompletableFuture<Void> ack = new CompletableFuture<>();
+            long sentAt = System.nanoTime();
+            producer.send(replayRecord(entry), (metadata, exception) -> {
+                replayAckLatency.recordNanos(System.nanoTime() - sentAt);
+                if (exception != null) {
+                    failed.incrementAndGet();
+                    System.out.println("DLT replay of " + entry + " failed: " + exception.getMessage());
+                }
+                ack.complete(null);
+            });
+            acks.add(ack);
+        }
+        producer.flush();
+        CompletableFuture.allOf(acks.toArray(new CompletableFuture[0])).join();
+
+        ReplayResult result = new ReplayResult(entries.size(), failed.get(), System.nanoTime() - start);
+        System.out.println(result);
+        return result;
+    }
+
+    public ReplayResult replayByException(String exceptionClass, double ratePerSecond) {
+        return replay(byException(exceptionClass), ratePerSecond);
+    }
+
+    /** Replays the first DLT entry of each booking that has one. */
+    public ReplayResult replayBookings(Collection<String> bookingIds, double ratePerSecond) {
+        List<DltEntry> entries = new ArrayList<>(bookingIds.size());
+        for (String bookingId : bookingIds) {
+            Entry entry = byBookingId.get(bookingId);
+            if (entry != null && !entry.all.isEmpty()) {
+                entries.add(entry.all.get(0));
+            }
+        }
+        return replay(entries, ratePerSecond);
+    }
+
+    private ProducerRecord<String, byte[]> replayRecord(DltEntry entry) {
+        Headers headers = SagaHeaders.stamp(entry.getKey());
+        for (Header header : entry.getHeaders()) {
+            String key = header.key();
+            if (!key.startsWith(DLT_HEADER_PREFIX)
+                    && !key.equals(SagaHeaders.CORRELATION_ID) && !key.equals(SagaHeaders.PUBLISHED_AT)) {
+                headers.add(header);
+            }
+        }
+        int partition = entry.getOriginalPartition();
+        return new ProducerRecord<>(entry.getOriginalTopic(), partition >= 0 ? partition : null,
+                entry.getKey(), entry.getValue(), headers);
+    }
+
+    private KafkaProducer<String, byte[]> replayProducer() {
+        KafkaProducer<String, byte[]> producer = replayProducer;
+        if (producer != null) {
+            return producer;
+        }
+        synchronized (this) {
+            if (replayProducer == null) {
+                Map<String, Object> props = new HashMap<>();
+                props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaBootstrap.servers());
+                props.put(ProducerConfig.ACKS_CONFIG, "all");
+                props.put(ProducerConfig.LINGER_MS_CONFIG, Integer.getInteger("kafka.producer.linger.ms", 5));
+                props.put(ProducerConfig.BATCH_SIZE_CONFIG, Integer.getInteger("kafka.producer.batch.size", 65_536));
+                props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, System.getProperty("kafka.producer.compression", "lz4"));
+                replayProducer = new KafkaProducer<>(props, new StringSerializer(), new ByteArraySerializer());
+            }
+            return replayProducer;
+        }
+    }
+
+    private void assignFrom(Instant timestamp) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (String topic : topics) {
+            consumer.partitionsFor(topic).forEach(p -> partitions.add(new TopicPartition(topic, p.partition())));
+        }
+        consumer.assign(partitions);
+        KafkaConsumerRegistry.seekToTimestamp(consumer, timestamp);
+    }
+
+    private void pollLoop() {
+        RuntimeException failure = new IllegalStateException("DLT inspector is closed");
+        try {
+            while (running) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_INTERVAL)) {
+                    index(new DltEntry(record));
+                }
+                if (System.nanoTime() - lastSweepNanos > SWEEP_INTERVAL_NANOS) {
+                    evict();
+                }
+            }
+        } catch (WakeupException e) {
+            // close() was called
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            stopped = failure;
+            RuntimeException cause = failure;
+            byBookingId.values().forEach(entry -> entry.fail(cause));
+            consumer.close();
+        }
+    }
+
+    /**
+     * Drops bookings idle for longer than the TTL, then the least recently touched ones above the size cap;
+     * the cap skips bookings with a future still pending, since a caller may be waiting on it.
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        lastSweepNanos = now;
+        byBookingId.values().removeIf(entry -> now - entry.touchedNanos > ttlNanos);
+        int excess = byBookingId.size() - maxBookings;
+        if (excess > 0) {
+            byBookingId.entrySet().stream()
+                    .filter(e -> e.getValue().isSettled())
+                    .sorted(Comparator.comparingLong(e -> e.getValue().touchedNanos))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList())
+                    .forEach(byBookingId::remove);
+        }
+    }
+
+    private void index(DltEntry dltEntry) {
+        indexed.incrementAndGet();
+        String exception = dltEntry.getExceptionClass();
+        if (exception != null) {
+            indexException(exception, dltEntry);
+            String cause = dltEntry.getExceptionCauseClass();
+            if (cause != null && !cause.equals(exception)) {
+                indexException(cause, dltEntry);
+            }
+        }
+        String bookingId = dltEntry.getBookingId();
+        if (bookingId != null) {
+            entry(bookingId).add(dltEntry);
+        }
+    }
+
+    private void indexException(String className, DltEntry dltEntry) {
+        byException.computeIfAbsent(className, k -> new CopyOnWriteArrayList<>()).add(dltEntry);
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        if (!simpleName.equals(className)) {
+            byException.computeIfAbsent(simpleName, k -> new CopyOnWriteArrayList<>()).add(dltEntry);
+        }
+    }
+
+    private Entry entry(String bookingId) {
+        return byBookingId.computeIfAbsent(bookingId, id -> new Entry());
+    }
+
+    private static Properties consumerProperties() {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaBootstrap.servers());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 2_000);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, DeliveryMode.fromSystemProperty().isolationLevel());
+        return props;
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        consumer.wakeup();
+        poller.join(TimeUnit.SECONDS.toMillis(5));
+        if (replayProducer != null) {
+            replayProducer.close(Duration.ofSeconds(5));
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<DltEntry> first;
+        private final ConcurrentMap<String, CompletableFuture<DltEntry>> firstByTopic;
+        private final List<DltEntry> all = new CopyOnWriteArrayList<>();
+        private volatile long touchedNanos = System.nanoTime();
+
+        Entry() {
+            this(new CompletableFuture<>(), new ConcurrentHashMap<>());
+        }
+
+        private Entry(CompletableFuture<DltEntry> first, ConcurrentMap<String, CompletableFuture<DltEntry>> firstByTopic) {
+            this.first = first;
+            this.firstByTopic = firstByTopic;
+        }
+
+        CompletableFuture<DltEntry> firstOn(String dltTopic) {
+            return firstByTopic.computeIfAbsent(dltTopic, topic -> new CompletableFuture<>());
+        }
+
+        void add(DltEntry dltEntry) {
+            all.add(dltEntry);
+            touchedNanos = System.nanoTime();
+            first.complete(dltEntry);
+            firstOn(dltEntry.getDltTopic()).complete(dltEntry);
+        }
+
+        boolean isSettled() {
+            return first.isDone() && firstByTopic.values().stream().allMatch(CompletableFuture::isDone);
+        }
+
+        void fail(RuntimeException e) {
+            first.completeExceptionally(e);
+            firstByTopic.values().forEach(future -> future.completeExceptionally(e));
+        }
+
+        /** A fresh entry keeping only the futures not completed yet; null if there are none. */
+        Entry pendingOnly() {
+            ConcurrentMap<String, CompletableFuture<DltEntry>> pending = new ConcurrentHashMap<>();
+            firstByTopic.forEach((topic, future) -> {
+                if (!future.isDone()) {
+                    pending.put(topic, future);
+                }
+            });
+            if (first.isDone() && pending.isEmpty()) {
+                return null;
+            }
+            return new Entry(first.isDone() ? new CompletableFuture<>() : first, pending);
+        }
+    }
+
+    /**
+     * Outcome of one {@link #replay(Collection, double)} call.
+     */
+    public static final class ReplayResult {
+        private final long sent;
+        private final long failed;
+        private final long durationNanos;
+
+        ReplayResult(long sent, long failed, long durationNanos) {
+            this.sent = sent;
+            this.failed = failed;
+            this.durationNanos = durationNanos;
+        }
+
+        public long getSent() {
+            return sent;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public Duration getDuration() {
+            return Duration.ofNanos(durationNanos);
+        }
+
+        public double getRatePerSecond() {
+            return durationNanos == 0 ? 0 : sent * 1e9 / durationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("DLT replay: %d sent, %d failed in %d ms (%.0f/s)",
+                    sent, failed, TimeUnit.NANOSECONDS.toMillis(durationNanos), getRatePerSecond());
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.microservices.api.load;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import com.microservices.api.util.DeliveryMode;
+import com.microservices.api.util.KafkaBootstrap;
+import com.microservices.api.util.KafkaEventPublisher;
+import com.microservices.api.util.KafkaTestUtils;
+import com.microservices.api.util.TransactionalEventPublisher;
+import main.java.com.microservices.api.core.LatencyRecorder;
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput cost of exactly-once delivery: publishes the same synthetic sagas (BookingCreated,
+ * SeatReserved and BookingPayment per booking) once at-least-once through
+ * {@link KafkaEventPublisher} and once in transactions through {@link TransactionalEventPublisher}, and
+ * measures for each mode
+ * <ul>
+ *     <li>publish throughput: until every record is acknowledged, or every transaction committed</li>
+ *     <li>visible throughput: until a consumer with the mode's isolation level has read every record,
+ *     which includes the time records wait for their transaction to commit</li>
+ * </ul>
+ * The events go to benchmark copies of the three saga topics, created for each mode's run and deleted
+ * after it, so the services never consume them. Tunable with {@code -Deos.compare.sagas} (default 10000),
+ * {@code -Deos.compare.tx.size} (sagas per transaction, default 100), {@code -Deos.compare.threads}
+ * (default 4) and {@code -Deos.compare.partitions} (partitions per benchmark topic, default 3).
+ */
+public class DeliveryModeComparison {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofMinutes(2);
+
+    private final int sagas;
+    private final int transactionSize;
+    private final int threads;
+    private final int partitions;
+
+    public DeliveryModeComparison(int sagas, int transactionSize, int threads, int partitions) {
+        this.sagas = sagas;
+        this.transactionSize = transactionSize;
+        this.threads = threads;
+        this.partitions = partitions;
+    }
+
+    public static DeliveryModeComparison fromSystemProperties() {
+        return new DeliveryModeComparison(
+                Integer.getInteger("eos.compare.sagas", 10_000),
+                Integer.getInteger("eos.compare.tx.size", 100),
+                Integer.getInteger("eos.compare.threads", 4),
+                Integer.getInteger("eos.compare.partitions", 3));
+    }
+
+    /**
+     * Runs both modes, at-least-once first, and prints the comparison.
+     */
+    public List<ModeResult> run() throws Exception {
+        List<ModeResult> results = List.of(run(DeliveryMode.AT_LEAST_ONCE), run(DeliveryMode.EXACTLY_ONCE));
+        System.out.println(summary(results));
+        return results;
+    }
+
+    public ModeResult run(DeliveryMode mode) throws Exception {
+        String runId = mode.name().toLowerCase() + "-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        BenchmarkTopics topics = new BenchmarkTopics("eos-compare-" + runId);
+        long records = 3L * sagas;
+        LatencyRecorder commits = LatencyRecorder.of("kafka.tx.commit");
+        commits.reset();
+
+        long publishNanos;
+        long visibleNanos;
+        try (AdminClient admin = KafkaTestUtils.createAdminClient()) {
+            admin.createTopics(topics.newTopics(partitions)).all().get();
+            try {
+                CompletableFuture<Long> visible = drain(mode, topics, partitions, records);
+                ExecutorService workers = Executors.newFixedThreadPool(threads);
+                long start = System.nanoTime();
+                try {
+                    List<Future<?>> slices = new ArrayList<>(threads);
+                    for (int t = 0; t < threads; t++) {
+                        int from = (int) ((long) sagas * t / threads);
+                        int to = (int) ((long) sagas * (t + 1) / threads);
+                        slices.add(workers.submit(() -> publish(mode, topics, runId, from, to)));
+                    }
+                    for (Future<?> slice : slices) {
+                        slice.get();
+                    }
+                } finally {
+                    workers.shutdown();
+                }
+                publishNanos = System.nanoTime() - start;
+                visibleNanos = visible.get(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS) - start;
+            } finally {
+                admin.deleteTopics(topics.all()).all().get();
+            }
+        }
+
+        commits.sampleInterval();
+        Histogram commitHistogram = commits.totalHistogram();
+        return new ModeResult(mode, records, publishNanos, visibleNanos,
+                commitHistogram.getTotalCount(), commitHistogram.getValueAtPercentile(99));
+    }
+
+    private Void publish(DeliveryMode mode, BenchmarkTopics topics, String runId, int from, int to) throws Exception {
+        if (mode == DeliveryMode.AT_LEAST_ONCE) {
+            KafkaEventPublisher publisher = KafkaEventPublisher.shared();
+            List<CompletableFuture<?>> acks = new ArrayList<>(3 * (to - from));
+            for (int i = from; i < to; i++) {
+                String bookingId = runId + i;
+                acks.add(publisher.publishAsync(topics.bookingEvents, bookingId, bookingCreated(bookingId)));
+                acks.add(publisher.publishAsync(topics.seatReserved, bookingId, new SeatReservedEvent(bookingId, true, 500)));
+                acks.add(publisher.publishAsync(topics.payments, bookingId, new BookingPaymentEvent(bookingId, true, 500)));
+            }
+            CompletableFuture.allOf(acks.toArray(new CompletableFuture[0])).get();
+            return null;
+        }
+        TransactionalEventPublisher publisher = TransactionalEventPublisher.shared();
+        for (int first = from; first < to; first += transactionSize) {
+            int last = Math.min(to, first + transactionSize);
+            int batchStart = first;
+            publisher.inTransaction(tx -> {
+                for (int i = batchStart; i < last; i++) {
+                    String bookingId = runId + i;
+                    tx.send(topics.bookingEvents, bookingId, bookingCreated(bookingId));
+                    tx.send(topics.seatReserved, bookingId, new SeatReservedEvent(bookingId, true, 500));
+                    tx.send(topics.payments, bookingId, new BookingPaymentEvent(bookingId, true, 500));
+                }
+            });
+        }
+        return null;
+    }
+
+    private static BookingCreatedEvent bookingCreated(String bookingId) {
+        return new BookingCreatedEvent(bookingId, "eos-compare", "eos-compare-show", List.of("A1", "A2"), 500);
+    }
+
+    /**
+     * Completes with the System.nanoTime at which the last record of the run became readable.
+     */
+    private static CompletableFuture<Long> drain(DeliveryMode mode, BenchmarkTopics topics, int partitions, long expected) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaBootstrap.servers());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, mode.isolationLevel());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5_000);
+        KafkaConsumer<String, byte[]> consumer =
+                new KafkaConsumer<>(props, new StringDeserializer(), new ByteArrayDeserializer());
+        List<TopicPartition> assignment = new ArrayList<>();
+        for (String topic : topics.all()) {
+            for (int p = 0; p < partitions; p++) {
+                assignment.add(new TopicPartition(topic, p));
+            }
+        }
+        consumer.assign(assignment);
+        consumer.seekToBeginning(assignment);
+
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        Thread drainer = new Thread(() -> {
+            long seen = 0;
+            long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            try (consumer) {
+                while (seen < expected && System.nanoTime() < deadline) {
+                    seen += consumer.poll(Duration.ofMillis(20)).count();
+                }
+                if (seen < expected) {
+                    done.completeExceptionally(new IllegalStateException(
+                            "Only " + seen + " of " + expected + " " + mode + " records became visible"));
+                } else {
+                    done.complete(System.nanoTime());
+                }
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        }, "delivery-comparison-drain");
+        drainer.setDaemon(true);
+        drainer.start();
+        return done;
+    }
+
+    public String summary(List<ModeResult> results) {
+        StringBuilder sb = new StringBuilder(String.format(
+                "--------- DELIVERY MODE COMPARISON (%d sagas, %d per transaction, %d threads, %d partitions) ---------%n",
+                sagas, transactionSize, threads, partitions));
+        ModeResult baseline = results.get(0);
+        for (ModeResult r : results) {
+            sb.append(String.format("%-14s %9.0f rec/s published  %9.0f rec/s visible  commits=%-6d commit p99=%.1f ms",
+                    r.mode, r.getPublishRate(), r.getVisibleRate(), r.commits, r.commitP99Micros / 1000.0));
+            if (r != baseline && baseline.getVisibleRate() > 0) {
+                sb.append(String.format("  (%+.1f%% visible throughput vs %s)",
+                        (r.getVisibleRate() - baseline.getVisibleRate()) * 100 / baseline.getVisibleRate(), baseline.mode));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Benchmark copies of the saga topics, named {@code <prefix><saga topic>}.
+     */
+    private static final class BenchmarkTopics {
+        private final String bookingEvents;
+        private final String seatReserved;
+        private final String payments;
+
+        BenchmarkTopics(String prefix) {
+            this.bookingEvents = prefix + KafkaTestConstants.BOOKING_EVENTS_TOPIC;
+            this.seatReserved = prefix + KafkaTestConstants.SEAT_RESERVED_TOPIC;
+            this.payments = prefix + KafkaTestConstants.PAYMENT_EVENTS_TOPIC;
+        }
+
+        List<String> all() {
+            return List.of(bookingEvents, seatReserved, payments);
+        }
+
+        List<NewTopic> newTopics(int partitions) {
+            List<NewTopic> topics = new ArrayList<>();
+            for (String topic : all()) {
+                topics.add(new NewTopic(topic, Optional.of(partitions), Optional.empty()));
+            }
+            return topics;
+        }
+    }
+
+    /**
+     * Throughput of one mode; rates are records per second.
+     */
+    public static final class ModeResult {
+        private final DeliveryMode mode;
+        private final long records;
+        private final long publishNanos;
+        private final long visibleNanos;
+        private final long commits;
+        private final long commitP99Micros;
+
+        ModeResult(DeliveryMode mode, long records, long publishNanos, long visibleNanos, long commits, long commitP99Micros) {
+            this.mode = mode;
+            this.records = records;
+            this.publishNanos = publishNanos;
+            this.visibleNanos = visibleNanos;
+            this.commits = commits;
+            this.commitP99Micros = commitP99Micros;
+        }
+
+        public DeliveryMode getMode() {
+            return mode;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        public Duration getPublishTime() {
+            return Duration.ofNanos(publishNanos);
+        }
+
+        public Duration getVisibleTime() {
+            return Duration.ofNanos(visibleNanos);
+        }
+
+        public double getPublishRate() {
+            return publishNanos <= 0 ? 0 : records * 1e9 / publishNanos;
+        }
+
+        public double getVisibleRate() {
+            return visibleNanos <= 0 ? 0 : records * 1e9 / visibleNanos;
+        }
+
+        public long getCommits() {
+            return commits;
+        }
+
+        public long getCommitP99Micros() {
+            return commitP99Micros;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.microservices.api.load;
+
+import java.time.Duration;
+
+/**
+ * Settings for a {@link SagaLoadDriver} run.
+ * Every value can be overridden with a -D system property, e.g.
+ * {@code mvn test -Dload.rate=2000 -Dload.duration.seconds=120}
+ */
+public class SagaLoadConfig {
+
+    /**
+     * How bookSeat requests are sent: BLOCKING runs RestAssured on a pool of {@code maxInFlight} threads,
+     * VIRTUAL runs the same blocking code on one virtual thread per booking (at most {@code maxInFlight}
+     * at once), ASYNC uses a non-blocking {@code AsyncHttpBackend} capped at {@code maxInFlight} requests
+     * on the wire.
+     */
+    public enum HttpClientMode {
+        BLOCKING, VIRTUAL, ASYNC
+    }
+
+    private final String bookingBaseUrl;
+    private final int targetRatePerSecond;
+    private final Duration duration;
+    private final Duration drainTimeout;
+    private final int maxInFlight;
+    private final String showId;
+    private final int seatsPerBooking;
+    private final long amount;
+    private final boolean seedSeats;
+    private final boolean trackDbConfirmation;
+    private final Duration lagSampleInterval;
+    private final String metricsDir;
+    private final String latencyBaseline;
+    private final HttpClientMode httpClientMode;
+
+    public SagaLoadConfig(
+            String bookingBaseUrl,
+            int targetRatePerSecond,
+            Duration duration,
+            Duration drainTimeout,
+            int maxInFlight,
+            String showId,
+            int seatsPerBooking,
+            long amount,
+            boolean seedSeats,
+            boolean trackDbConfirmation,
+            Duration lagSampleInterval,
+            String metricsDir,
+            String latencyBaseline,
+            HttpClientMode httpClientMode
+    ) {
+        if (targetRatePerSecond <= 0) {
+            throw new IllegalArgumentException("targetRatePerSecond must be > 0");
+        }
+        this.bookingBaseUrl = bookingBaseUrl;
+        this.targetRatePerSecond = targetRatePerSecond;
+        this.duration = duration;
+        this.drainTimeout = drainTimeout;
+        this.maxInFlight = maxInFlight;
+        this.showId = showId;
+        this.seatsPerBooking = seatsPerBooking;
+        this.amount = amount;
+        this.seedSeats = seedSeats;
+        this.trackDbConfirmation = trackDbConfirmation;
+        this.lagSampleInterval = lagSampleInterval;
+        this.metricsDir = metricsDir;
+        this.latencyBaseline = latencyBaseline;
+        this.httpClientMode = httpClientMode;
+    }
+
+    public static SagaLoadConfig fromSystemProperties() {
+        return new SagaLoadConfig(
+                System.getProperty("booking.base.url", "http://localhost:9191"),
+                Integer.getInteger("load.rate", 500),
+                Duration.ofSeconds(Long.getLong("load.duration.seconds", 30L)),
+                Duration.ofSeconds(Long.getLong("load.drain.seconds", 30L)),
+                Integer.getInteger("load.max.inflight", 256),
+                System.getProperty("load.show.id", "LOAD_SHOW"),
+                Integer.getInteger("load.seats.per.booking", 1),
+                Long.getLong("load.amount", 500L),
+                Boolean.parseBoolean(System.getProperty("load.seed.seats", "true")),
+                Boolean.parseBoolean(System.getProperty("load.track.db.confirmed", "true")),
+                Duration.ofMillis(Long.getLong("load.lag.sample.ms", 1000L)),
+                System.getProperty("load.metrics.dir", "target/saga-metrics"),
+                System.getProperty("load.latency.baseline", ""),
+                HttpClientMode.valueOf(System.getProperty("load.http.client", "blocking").toUpperCase())
+        );
+    }
+
+    public String getBookingBaseUrl() {
+        return bookingBaseUrl;
+    }
+
+    public String getBookSeatUrl() {
+        return bookingBaseUrl + "/booking-service/bookSeat";
+    }
+
+    public int getTargetRatePerSecond() {
+        return targetRatePerSecond;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public String getShowId() {
+        return showId;
+    }
+
+    public int getSeatsPerBooking() {
+        return seatsPerBooking;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public boolean isSeedSeats() {
+        return seedSeats;
+    }
+
+    /**
+     * Poll the database for CONFIRMED bookings during the run, to time the payment -> DB stage.
+     */
+    public boolean isTrackDbConfirmation() {
+        return trackDbConfirmation;
+    }
+
+    /**
+     * How often consumer-group lag is sampled; zero disables sampling.
+     */
+    public Duration getLagSampleInterval() {
+        return lagSampleInterval;
+    }
+
+    /**
+     * Where the per-stage HdrHistogram logs and the latency report (JSON + HTML) of the run are written;
+     * empty to skip.
+     */
+    public String getMetricsDir() {
+        return metricsDir;
+    }
+
+    /**
+     * latency-report.json of an earlier run to diff this run against; empty to skip.
+     */
+    public String getLatencyBaseline() {
+        return latencyBaseline;
+    }
+
+    public HttpClientMode getHttpClientMode() {
+        return httpClientMode;
+    }
+
+    /**
+     * Total number of bookings the pacer will schedule.
+     */
+    public long getTotalRequests() {
+        return targetRatePerSecond * duration.toSeconds();
+    }
+
+    @Override
+    public String toString() {
+        return "SagaLoadConfig{" +
+                "bookingBaseUrl='" + bookingBaseUrl + '\'' +
+                ", targetRatePerSecond=" + targetRatePerSecond +
+                ", duration=" + duration +
+                ", drainTimeout=" + drainTimeout +
+                ", maxInFlight=" + maxInFlight +
+                ", showId='" + showId + '\'' +
+                ", seatsPerBooking=" + seatsPerBooking +
+                ", amount=" + amount +
+                ", seedSeats=" + seedSeats +
+                ", trackDbConfirmation=" + trackDbConfirmation +
+                ", lagSampleInterval=" + lagSampleInterval +
+                ", metricsDir='" + metricsDir + '\'' +
+                ", latencyBaseline='" + latencyBaseline + '\'' +
+                ", httpClientMode=" + httpClientMode +
+                '}';
+    }
+}
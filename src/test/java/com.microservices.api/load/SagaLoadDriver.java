@@ -0,0 +1,469 @@
+package com.microservices.api.load;
+
+import com.microservices.api.chaos.ChaosScenario;
+import com.microservices.api.chaos.ChaosScheduler;
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.consumers.SagaEventIndex;
+import com.microservices.api.metrics.ConsumerLagSampler;
+import com.microservices.api.metrics.SagaMetrics;
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import com.microservices.api.model.request.BookingRequest;
+import com.microservices.api.model.response.BookingResponse;
+import com.microservices.api.seatmap.SeatAvailabilityIndex;
+import com.microservices.api.streams.SagaInvariantChecker;
+import com.microservices.api.util.DBHelper;
+import com.microservices.api.util.DbTestUtils;
+import com.microservices.api.util.TestDataSeeder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import main.java.com.microservices.api.core.AsyncHttpBackend;
+import main.java.com.microservices.api.core.LatencyRecorder;
+import main.java.com.microservices.api.core.LatencyReport;
+import main.java.com.microservices.api.core.PinningMonitor;
+import main.java.com.microservices.api.core.RequestBuilder;
+import main.java.com.microservices.api.core.RestClient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the booking saga.
+ * <p>
+ * Bookings are scheduled at a fixed rate regardless of how fast the system answers. Latency is
+ * measured from the time a request <i>should</i> have been sent, so when the booking service or
+ * the driver's own worker pool falls behind the queueing delay shows up in the percentiles instead
+ * of silently lowering the offered load (coordinated omission).
+ * <p>
+ * With {@code -Dload.http.client=async} the pacer hands requests straight to a non-blocking
+ * {@link AsyncHttpBackend} instead of a worker pool, so {@code load.max.inflight} can be in the
+ * thousands without as many threads. {@code -Dload.http.client=virtual} keeps the blocking client
+ * but runs each booking on its own virtual thread, and reports where virtual threads got pinned.
+ * {@code -Dload.invariant.check=true} watches the saga topics with a {@link SagaInvariantChecker} during the run.
+ * {@code -Dchaos.scenario=...} (or {@link #withChaos(ChaosScheduler)}) injects faults at set offsets into the
+ * run and reports their impact, see {@link ChaosScheduler}.
+ * <p>
+ * Each booking is correlated with its {@link BookingCreatedEvent}, {@link SeatReservedEvent} and
+ * {@link BookingPaymentEvent} by bookingId through the shared {@link SagaEventIndex}.
+ */
+public class SagaLoadDriver {
+
+    private static final long DB_POLL_INTERVAL_MS = 250;
+    private static final Duration REPORT_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration PINNING_THRESHOLD = Duration.ofMillis(20);
+    private static final String BOOK_SEAT = "/booking-service/bookSeat";
+    private static final boolean INVARIANT_CHECK = Boolean.getBoolean("load.invariant.check");
+
+    private final SagaLoadConfig config;
+    private final SagaEventIndex events;
+    private final ConcurrentMap<String, SagaTrace> traces = new ConcurrentHashMap<>();
+    private final AtomicLong httpFailures = new AtomicLong();
+    private final AtomicLong pendingAsync = new AtomicLong();
+    private final LatencyRecorder httpLatency = LatencyRecorder.of("load bookSeat (from intended start)");
+    private ChaosScheduler chaos;
+    private Collection<String> lagGroups;
+
+    public SagaLoadDriver(SagaLoadConfig config) {
+        this(config, SagaEventIndex.shared());
+    }
+
+    public SagaLoadDriver(SagaLoadConfig config, SagaEventIndex events) {
+        this.config = config;
+        this.events = events;
+    }
+
+    /**
+     * Runs {@code scheduler} alongside the load, started together with the pacer; it is closed at the end of
+     * the run, its {@link ChaosScheduler#results()} stay readable.
+     */
+    public SagaLoadDriver withChaos(ChaosScheduler scheduler) {
+        this.chaos = scheduler;
+        return this;
+    }
+
+    /**
+     * Samples the lag of exactly these consumer groups (for the report and a chaos run without its own
+     * groups) instead of every live group, e.g. {@code LocalSagaEngine#getConsumerGroups()}.
+     */
+    public SagaLoadDriver withLagGroups(Collection<String> groups) {
+        this.lagGroups = groups;
+        return this;
+    }
+
+    public SagaLoadReport run() throws InterruptedException, SQLException {
+        System.out.println("Starting saga load run: " + config);
+        long total = config.getTotalRequests();
+        if (config.isSeedSeats()) {
+            TestDataSeeder.seedSeatInventory(config.getShowId(), "LOAD_THEATER", "LOAD_SCREEN",
+                    seatBlock(0, total * config.getSeatsPerBooking()));
+        }
+
+        SagaMetrics metrics = SagaMetrics.shared();
+        LatencyRecorder.resetAll();
+        LatencyRecorder.startIntervals(REPORT_INTERVAL);
+        ConsumerLagSampler lagSampler = config.getLagSampleInterval().isZero() ? null
+                : new ConsumerLagSampler(KafkaTestConstants.SAGA_TOPICS, metrics.registry(), lagGroups)
+                        .start(config.getLagSampleInterval());
+        ScheduledExecutorService dbTracker = config.isTrackDbConfirmation() ? startDbConfirmationTracker() : null;
+
+        boolean async = config.getHttpClientMode() == SagaLoadConfig.HttpClientMode.ASYNC;
+        boolean virtual = config.getHttpClientMode() == SagaLoadConfig.HttpClientMode.VIRTUAL;
+        ExecutorService workers = async ? null : virtual ? newVirtualWorkers() : newWorkerPool(config.getMaxInFlight());
+        Semaphore virtualPermits = new Semaphore(config.getMaxInFlight());
+        PinningMonitor pinning = virtual ? PinningMonitor.start(PINNING_THRESHOLD) : null;
+        AsyncHttpBackend backend = async ? new AsyncHttpBackend(config.getMaxInFlight()) : null;
+        RequestSpecification bookingSpec = RequestBuilder.forBaseUri(config.getBookingBaseUrl());
+        SagaInvariantChecker invariants = INVARIANT_CHECK ? startInvariantChecker() : null;
+        if (chaos == null && !ChaosScenario.fromSystemProperties().isEmpty()) {
+            chaos = ChaosScheduler.fromSystemProperties();
+        }
+        long runStart = System.nanoTime();
+        if (chaos != null) {
+            if (chaos.getLagGroups() == null) {
+                chaos.withLagGroups(lagGroups);
+            }
+            chaos.start();
+        }
+        try {
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getTargetRatePerSecond();
+            for (long i = 0; i < total; i++) {
+                long intendedStart = runStart + i * intervalNanos;
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long sequence = i;
+                if (async) {
+                    sendBookingAsync(backend, bookingSpec, sequence, intendedStart);
+                } else if (virtual) {
+                    workers.execute(() -> sendBookingLimited(virtualPermits, bookingSpec, sequence, intendedStart));
+                } else {
+                    workers.execute(() -> sendBooking(bookingSpec, sequence, intendedStart));
+                }
+            }
+            long sendWindowNanos = System.nanoTime() - runStart;
+
+            if (workers != null) {
+                workers.shutdown();
+            }
+            awaitDrain(workers, runStart + sendWindowNanos + config.getDrainTimeout().toNanos());
+            Duration wallTime = Duration.ofNanos(System.nanoTime() - runStart);
+            if (chaos != null) {
+                Duration sinceStart = Duration.ofNanos(System.nanoTime() - runStart);
+                chaos.awaitFinished(chaos.getScheduleLength().minus(sinceStart));
+                System.out.println(chaos.summary());
+            }
+            if (invariants != null) {
+                invariants.awaitSettled(invariants.getSagaTimeout().plusSeconds(5));
+            }
+
+            if (dbTracker != null) {
+                dbTracker.shutdownNow();
+                pollDbConfirmations();
+            }
+            traces.values().forEach(trace -> trace.recordStages(metrics));
+            LatencyRecorder.stopIntervals();
+            writeLatencyReports(metrics);
+
+            SagaLoadReport report = new SagaLoadReport(
+                    total,
+                    httpFailures.get(),
+                    Duration.ofNanos(sendWindowNanos),
+                    wallTime,
+                    traces.values(),
+                    config.isSeedSeats() ? verifySeatInventory() : List.of(),
+                    metrics.summary(),
+                    lagSampler == null ? Map.of() : lagSampler.maxLag(),
+                    invariants == null ? 0 : invariants.violationCount(),
+                    invariants == null ? List.of() : invariants.violations()
+            );
+            System.out.println(report);
+            System.out.println("DB pool: " + DbTestUtils.poolStats());
+            return report;
+        } finally {
+            LatencyRecorder.stopIntervals();
+            if (workers != null) {
+                workers.shutdownNow();
+            }
+            if (backend != null) {
+                backend.close();
+            }
+            if (pinning != null) {
+                pinning.close();
+                System.out.println(pinning.summary());
+            }
+            if (dbTracker != null) {
+                dbTracker.shutdownNow();
+            }
+            if (lagSampler != null) {
+                lagSampler.close();
+            }
+            if (invariants != null) {
+                System.out.println(invariants.summary());
+                invariants.close();
+            }
+            if (chaos != null) {
+                chaos.close();
+            }
+            traces.keySet().forEach(events::forget);
+        }
+    }
+
+    /**
+     * Streaming checker for the saga topics (-Dload.invariant.check=true); the first violations are
+     * printed as they are detected, and all of them end up in the {@link SagaLoadReport}.
+     */
+    private static SagaInvariantChecker startInvariantChecker() throws InterruptedException {
+        AtomicInteger printed = new AtomicInteger();
+        return SagaInvariantChecker.fromSystemProperties()
+                .onViolation(violation -> {
+                    if (printed.incrementAndGet() <= 20) {
+                        System.out.println("Saga invariant violated: " + violation);
+                    }
+                })
+                .start();
+    }
+
+    /**
+     * Posts through {@link RestClient} on the cached booking-service template, so a request only copies
+     * the spec and serializes its body with the shared mapper.
+     */
+    private void sendBooking(RequestSpecification spec, long sequence, long intendedStart) {
+        BookingRequest request = newBookingRequest(sequence);
+        long sentMillis = sentMillis(intendedStart);
+        try {
+            Response response = RestClient.post(BOOK_SEAT, spec, request);
+            long completed = System.nanoTime();
+            httpLatency.recordNanos(completed - intendedStart);
+            if (response.getStatusCode() != 200) {
+                httpFailures.incrementAndGet();
+                return;
+            }
+            String reservationId = response.as(BookingResponse.class).getReservationId();
+            track(reservationId, request.getSeatIds(), intendedStart, completed, sentMillis);
+        } catch (RuntimeException e) {
+            httpFailures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Virtual threads are unbounded; the permit keeps at most maxInFlight requests on the wire, and the
+     * time spent waiting for one still counts from the intended start.
+     */
+    private void sendBookingLimited(Semaphore permits, RequestSpecification spec, long sequence, long intendedStart) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            sendBooking(spec, sequence, intendedStart);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Called on the pacer thread; completion runs on the backend's I/O threads.
+     */
+    private void sendBookingAsync(AsyncHttpBackend backend, RequestSpecification spec, long sequence, long intendedStart) {
+        BookingRequest request = newBookingRequest(sequence);
+        long sentMillis = sentMillis(intendedStart);
+        pendingAsync.incrementAndGet();
+        backend.send("POST", BOOK_SEAT, spec, request)
+                .whenComplete((response, error) -> {
+                    try {
+                        long completed = System.nanoTime();
+                        httpLatency.recordNanos(completed - intendedStart);
+                        if (error != null || response.getStatusCode() != 200) {
+                            httpFailures.incrementAndGet();
+                            return;
+                        }
+                        String reservationId = response.as(BookingResponse.class).getReservationId();
+                        track(reservationId, request.getSeatIds(), intendedStart, completed, sentMillis);
+                    } catch (RuntimeException e) {
+                        httpFailures.incrementAndGet();
+                    } finally {
+                        pendingAsync.decrementAndGet();
+                    }
+                });
+    }
+
+    private BookingRequest newBookingRequest(long sequence) {
+        return new BookingRequest(
+                UUID.randomUUID().toString(),
+                config.getShowId(),
+                seatBlock(sequence * config.getSeatsPerBooking(), config.getSeatsPerBooking()),
+                UUID.randomUUID().toString(),
+                Instant.now(),
+                config.getAmount()
+        );
+    }
+
+    /** Wall-clock time the request should have been sent at. */
+    private static long sentMillis(long intendedStart) {
+        return System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - intendedStart);
+    }
+
+    private void awaitDrain(ExecutorService workers, long deadlineNanos) throws InterruptedException {
+        if (workers != null) {
+            workers.awaitTermination(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        while (System.nanoTime() < deadlineNanos && pendingAsync.get() > 0) {
+            Thread.sleep(50);
+        }
+        while (System.nanoTime() < deadlineNanos && hasOutstandingSagas()) {
+            Thread.sleep(250);
+        }
+    }
+
+    private boolean hasOutstandingSagas() {
+        for (SagaTrace trace : traces.values()) {
+            if (!trace.isTerminal()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Events may already be indexed when the HTTP response arrives; the futures then complete
+     * immediately and the trace still gets the original receive timestamps.
+     */
+    private void track(String bookingId, List<String> seats, long intendedStart, long httpCompleted, long sentMillis) {
+        SagaTrace trace = new SagaTrace(bookingId, seats);
+        trace.onRequestCompleted(intendedStart, httpCompleted, sentMillis);
+        traces.put(bookingId, trace);
+
+        events.bookingCreated().future(bookingId)
+                .thenAccept(e -> trace.onBookingCreated(e.getReceivedNanos(), e.getRecord().timestamp()));
+        events.seatReserved().future(bookingId)
+                .thenAccept(e -> trace.onSeatReserved(e.getReceivedNanos(), e.getRecord().timestamp(), e.getValue().isReserved()));
+        events.payments().future(bookingId)
+                .thenAccept(e -> trace.onPayment(e.getReceivedNanos(), e.getRecord().timestamp(), e.getValue().isPaymentCompleted()));
+    }
+
+    /**
+     * Paid bookings are looked up in one batched query per tick, and stamped when they turn CONFIRMED.
+     * The timestamp is the poll time, so the payment -> DB stage is accurate to the poll interval.
+     */
+    private ScheduledExecutorService startDbConfirmationTracker() {
+        ScheduledExecutorService tracker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "saga-load-db-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        tracker.scheduleWithFixedDelay(() -> {
+            try {
+                pollDbConfirmations();
+            } catch (SQLException | RuntimeException e) {
+                System.out.println("DB confirmation poll failed: " + e.getMessage());
+            }
+        }, DB_POLL_INTERVAL_MS, DB_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        return tracker;
+    }
+
+    private void pollDbConfirmations() throws SQLException {
+        Map<String, SagaTrace> awaiting = new HashMap<>();
+        traces.forEach((id, trace) -> {
+            if (trace.isAwaitingDbConfirmation()) {
+                awaiting.put(id, trace);
+            }
+        });
+        if (awaiting.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        DBHelper.forEachBookingState(awaiting.keySet(), state -> {
+            if ("CONFIRMED".equals(state.getStatus())) {
+                awaiting.get(state.getBookingCode()).onDbConfirmed(now);
+            }
+        });
+    }
+
+    private void writeLatencyReports(SagaMetrics metrics) {
+        LatencyReport latency = LatencyReport.capture("saga-load " + config.getTargetRatePerSecond() + "/s");
+        System.out.println(latency);
+        try {
+            if (!config.getMetricsDir().isEmpty()) {
+                Path dir = Paths.get(config.getMetricsDir());
+                metrics.writeHistogramLogs(dir);
+                latency.writeJson(dir.resolve("latency-report.json"));
+                latency.writeHtml(dir.resolve("latency-report.html"));
+            }
+            if (!config.getLatencyBaseline().isEmpty()) {
+                System.out.println(latency.diff(LatencyReport.readJson(Paths.get(config.getLatencyBaseline())), 10));
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write latency reports: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compares seat_inventory with what the finished sagas imply: seats of paid bookings are taken,
+     * every other seat of the show is available. Seats of sagas that never finished are skipped.
+     */
+    private List<String> verifySeatInventory() throws SQLException {
+        SeatAvailabilityIndex actual = DBHelper.loadSeatAvailability(config.getShowId());
+        SeatAvailabilityIndex expected = actual.emptyCopy();
+        Set<String> unfinished = new HashSet<>();
+        for (SagaTrace trace : traces.values()) {
+            if (trace.isSucceeded()) {
+                expected.lock(trace.getSeats());
+            } else if (!trace.isTerminal()) {
+                unfinished.addAll(trace.getSeats());
+            }
+        }
+        List<String> mismatches = new ArrayList<>(expected.diff(actual));
+        mismatches.removeAll(unfinished);
+        System.out.println("Seat inventory " + actual + ", " + mismatches.size() + " seat(s) differ from the saga outcomes");
+        return mismatches;
+    }
+
+    private static ExecutorService newWorkerPool(int size) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "saga-load-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ExecutorService newVirtualWorkers() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("saga-load-vt-", 0).factory());
+    }
+
+    private static List<String> seatBlock(long start, long count) {
+        List<String> seats = new ArrayList<>((int) count);
+        for (long i = start; i < start + count; i++) {
+            seats.add("L" + i);
+        }
+        return seats;
+    }
+}
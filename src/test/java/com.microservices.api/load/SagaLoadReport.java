@@ -0,0 +1,191 @@
+package com.microservices.api.load;
+
+import java.time.Duration;
+import com.microservices.api.streams.SagaViolation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of a {@link SagaLoadDriver} run: counters, throughput and latency percentiles.
+ */
+public class SagaLoadReport {
+
+    private final long scheduled;
+    private final long httpFailures;
+    private final long completed;
+    private final long succeeded;
+    private final long timedOut;
+    private final Duration sendWindow;
+    private final Duration wallTime;
+    private final long[] endToEndNanos;
+    private final long[] httpNanos;
+    private final List<String> bookingIds;
+    private final List<String> seatMismatches;
+    private final String stageSummary;
+    private final Map<String, Long> maxConsumerLag;
+    private final long invariantViolationCount;
+    private final List<SagaViolation> invariantViolations;
+
+    SagaLoadReport(long scheduled, long httpFailures, Duration sendWindow, Duration wallTime,
+                   Collection<SagaTrace> traces, List<String> seatMismatches,
+                   String stageSummary, Map<String, Long> maxConsumerLag,
+                   long invariantViolationCount, List<SagaViolation> invariantViolations) {
+        this.scheduled = scheduled;
+        this.httpFailures = httpFailures;
+        this.sendWindow = sendWindow;
+        this.wallTime = wallTime;
+
+        // responses still in flight after the drain timeout may add traces while this runs
+        List<SagaTrace> finished = new ArrayList<>(traces);
+        List<String> ids = new ArrayList<>(finished.size());
+        long[] e2e = new long[finished.size()];
+        long[] http = new long[finished.size()];
+        int completedCount = 0;
+        int requestedCount = 0;
+        long succeededCount = 0;
+        long timedOutCount = 0;
+        for (SagaTrace trace : finished) {
+            ids.add(trace.getBookingId());
+            http[requestedCount++] = trace.getHttpNanos();
+            if (trace.isTerminal()) {
+                e2e[completedCount++] = trace.getEndToEndNanos();
+                if (trace.isSucceeded()) succeededCount++;
+            } else {
+                timedOutCount++;
+            }
+        }
+        this.endToEndNanos = Arrays.copyOf(e2e, completedCount);
+        this.httpNanos = Arrays.copyOf(http, requestedCount);
+        Arrays.sort(this.endToEndNanos);
+        Arrays.sort(this.httpNanos);
+        this.completed = completedCount;
+        this.succeeded = succeededCount;
+        this.timedOut = timedOutCount;
+        this.bookingIds = Collections.unmodifiableList(ids);
+        this.seatMismatches = Collections.unmodifiableList(seatMismatches);
+        this.stageSummary = stageSummary;
+        this.maxConsumerLag = Collections.unmodifiableMap(maxConsumerLag);
+        this.invariantViolationCount = invariantViolationCount;
+        this.invariantViolations = List.copyOf(invariantViolations);
+    }
+
+    /**
+     * Reservation ids of every booking the service accepted during the run.
+     */
+    public List<String> getBookingIds() {
+        return bookingIds;
+    }
+
+    /**
+     * Seats whose seat_inventory state does not match the outcome of their saga; empty when the
+     * run did not seed its own seats.
+     */
+    public List<String> getSeatMismatches() {
+        return seatMismatches;
+    }
+
+    /**
+     * Highest consumer-group lag sampled during the run, keyed {@code group|topic}.
+     */
+    public Map<String, Long> getMaxConsumerLag() {
+        return maxConsumerLag;
+    }
+
+    /**
+     * Saga invariant violations flagged by the streaming checker; 0 when -Dload.invariant.check is off.
+     */
+    public long getInvariantViolationCount() {
+        return invariantViolationCount;
+    }
+
+    /** The first violations verbatim, see {@link #getInvariantViolationCount()} for all of them. */
+    public List<SagaViolation> getInvariantViolations() {
+        return invariantViolations;
+    }
+
+    public long getScheduled() {
+        return scheduled;
+    }
+
+    public long getHttpFailures() {
+        return httpFailures;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Completed sagas per second over the whole run (send window + drain).
+     */
+    public double getThroughputPerSecond() {
+        double seconds = wallTime.toNanos() / 1_000_000_000.0;
+        return seconds == 0 ? 0 : completed / seconds;
+    }
+
+    public double getOfferedRatePerSecond() {
+        double seconds = sendWindow.toNanos() / 1_000_000_000.0;
+        return seconds == 0 ? 0 : scheduled / seconds;
+    }
+
+    public double getCompletionRatio() {
+        return scheduled == 0 ? 0 : (double) completed / scheduled;
+    }
+
+    public long endToEndPercentileMillis(double percentile) {
+        return percentileMillis(endToEndNanos, percentile);
+    }
+
+    public long httpPercentileMillis(double percentile) {
+        return percentileMillis(httpNanos, percentile);
+    }
+
+    private static long percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        index = Math.max(0, Math.min(sorted.length - 1, index));
+        return TimeUnit.NANOSECONDS.toMillis(sorted[index]);
+    }
+
+    @Override
+    public String toString() {
+        return "--------- SAGA LOAD REPORT ---------\n" +
+                "Scheduled:        " + scheduled + "\n" +
+                "HTTP failures:    " + httpFailures + "\n" +
+                "Completed:        " + completed + " (succeeded " + succeeded + ")\n" +
+                "Timed out:        " + timedOut + "\n" +
+                String.format("Offered rate:     %.1f/s%n", getOfferedRatePerSecond()) +
+                String.format("Throughput:       %.1f sagas/s%n", getThroughputPerSecond()) +
+                "E2E latency ms:   p50=" + endToEndPercentileMillis(50) +
+                " p90=" + endToEndPercentileMillis(90) +
+                " p99=" + endToEndPercentileMillis(99) +
+                " p99.9=" + endToEndPercentileMillis(99.9) +
+                " max=" + endToEndPercentileMillis(100) + "\n" +
+                "HTTP latency ms:  p50=" + httpPercentileMillis(50) +
+                " p99=" + httpPercentileMillis(99) +
+                " max=" + httpPercentileMillis(100) + "\n" +
+                "Seat mismatches:  " + seatMismatches.size() +
+                (seatMismatches.isEmpty() ? "" : " " + seatMismatches.subList(0, Math.min(10, seatMismatches.size()))) + "\n" +
+                "Invariant violations: " + invariantViolationCount +
+                (invariantViolations.isEmpty() ? "" : " " + invariantViolations.subList(0, Math.min(10, invariantViolations.size()))) + "\n" +
+                "Max consumer lag: " + maxConsumerLag + "\n" +
+                stageSummary +
+                "------------------------------------";
+    }
+}
@@ -0,0 +1,138 @@
+package com.microservices.api.load;
+
+import com.microservices.api.metrics.SagaMetrics;
+
+import java.util.List;
+
+/**
+ * Timestamps (System.nanoTime) collected for one booking while it moves through the saga.
+ * Every field is written independently by a different event and a value of 0 means "not seen yet".
+ */
+public class SagaTrace {
+
+    private final String bookingId;
+    private final List<String> seats;
+
+    private volatile long intendedStartNanos;
+    private volatile long httpCompletedNanos;
+    private volatile long bookingCreatedNanos;
+    private volatile long seatReservedNanos;
+    private volatile long paymentNanos;
+
+    // wall-clock millis: request send time, record timestamps, DB confirmation time
+    private volatile long requestSentMillis;
+    private volatile long bookingCreatedTimestamp;
+    private volatile long seatReservedTimestamp;
+    private volatile long paymentTimestamp;
+    private volatile long dbConfirmedMillis;
+
+    private volatile boolean seatReserved;
+    private volatile boolean paymentCompleted;
+
+    public SagaTrace(String bookingId, List<String> seats) {
+        this.bookingId = bookingId;
+        this.seats = seats;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public List<String> getSeats() {
+        return seats;
+    }
+
+    void onRequestCompleted(long intendedStartNanos, long httpCompletedNanos, long requestSentMillis) {
+        this.intendedStartNanos = intendedStartNanos;
+        this.httpCompletedNanos = httpCompletedNanos;
+        this.requestSentMillis = requestSentMillis;
+    }
+
+    void onBookingCreated(long nanos, long recordTimestamp) {
+        if (bookingCreatedNanos == 0) {
+            bookingCreatedTimestamp = recordTimestamp;
+            bookingCreatedNanos = nanos;
+        }
+    }
+
+    void onSeatReserved(long nanos, long recordTimestamp, boolean reserved) {
+        if (seatReservedNanos == 0) {
+            seatReservedTimestamp = recordTimestamp;
+            seatReserved = reserved;
+            seatReservedNanos = nanos;
+        }
+    }
+
+    void onPayment(long nanos, long recordTimestamp, boolean completed) {
+        if (paymentNanos == 0) {
+            paymentTimestamp = recordTimestamp;
+            paymentCompleted = completed;
+            paymentNanos = nanos;
+        }
+    }
+
+    void onDbConfirmed(long millis) {
+        if (dbConfirmedMillis == 0) {
+            dbConfirmedMillis = millis;
+        }
+    }
+
+    /**
+     * Paid, but not yet seen CONFIRMED in the database.
+     */
+    boolean isAwaitingDbConfirmation() {
+        return isSucceeded() && dbConfirmedMillis == 0;
+    }
+
+    /**
+     * Feeds the wall-clock stage boundaries of this saga into {@code metrics}.
+     */
+    public void recordStages(SagaMetrics metrics) {
+        metrics.recordSaga(requestSentMillis, bookingCreatedTimestamp, seatReservedTimestamp,
+                paymentTimestamp, dbConfirmedMillis);
+    }
+
+    /**
+     * A saga is finished once payment has answered, or once seat inventory
+     * rejected the booking (no payment event is published in that case).
+     */
+    public boolean isTerminal() {
+        return paymentNanos != 0 || (seatReservedNanos != 0 && !seatReserved);
+    }
+
+    public boolean isSucceeded() {
+        return paymentNanos != 0 && paymentCompleted;
+    }
+
+    public long getTerminalNanos() {
+        return paymentNanos != 0 ? paymentNanos : seatReservedNanos;
+    }
+
+    /**
+     * End-to-end latency measured from the <b>intended</b> send time so that queueing
+     * inside the driver is charged to the saga (no coordinated omission).
+     */
+    public long getEndToEndNanos() {
+        return getTerminalNanos() - intendedStartNanos;
+    }
+
+    public long getHttpNanos() {
+        return httpCompletedNanos - intendedStartNanos;
+    }
+
+    public long getIntendedStartNanos() {
+        return intendedStartNanos;
+    }
+
+    public long getBookingCreatedNanos() {
+        return bookingCreatedNanos;
+    }
+
+    public long getSeatReservedNanos() {
+        return seatReservedNanos;
+    }
+
+    public long getPaymentNanos() {
+        return paymentNanos;
+    }
+}
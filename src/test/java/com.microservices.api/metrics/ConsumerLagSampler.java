@@ -0,0 +1,181 @@
+package com.microservices.api.metrics;
+
+import com.microservices.api.util.KafkaTestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsSpec;
+import org.apache.kafka.clients.admin.ListConsumerGroupsOptions;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.apache.kafka.common.TopicPartition;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically samples the lag of the consumer groups that have committed offsets on the given
+ * topics (the saga services' listeners), using one AdminClient and a few batched admin calls
+ * per sample: list and describe the groups, list their committed offsets, list the end offsets.
+ * <p>
+ * By default only live groups count: Stable, with at least one member. Groups left behind by earlier
+ * runs (old test groups, random Kafka Streams application ids) keep their committed offsets while
+ * traffic moves on, so their lag would grow forever. Groups that commit without joining, like the
+ * simulator's {@code saga-sim-*} pumps, are never Stable; sample those by passing them explicitly.
+ * <p>
+ * Lag per group and topic is exposed as the {@code kafka.consumer.lag} gauge (tags group, topic)
+ * and the maximum seen during the run is kept for the report.
+ */
+public class ConsumerLagSampler implements AutoCloseable {
+
+    private final Set<String> topics;
+    private final MeterRegistry registry;
+    private final AdminClient admin;
+    private final Set<String> groups;
+    private final ConcurrentMap<String, AtomicLong> currentLag = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> maxLag = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public ConsumerLagSampler(Collection<String> topics, MeterRegistry registry) {
+        this(topics, registry, null);
+    }
+
+    /**
+     * @param groups exactly these groups, whatever their state; null or empty for every live group
+     */
+    public ConsumerLagSampler(Collection<String> topics, MeterRegistry registry, Collection<String> groups) {
+        this.topics = Set.copyOf(topics);
+        this.registry = registry;
+        this.groups = groups == null ? Set.of() : Set.copyOf(groups);
+        this.admin = KafkaTestUtils.createAdminClient();
+    }
+
+    /**
+     * Samples every {@code interval} on a daemon thread until {@link #close()}.
+     */
+    public ConsumerLagSampler start(Duration interval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "consumer-lag-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sample();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | RuntimeException e) {
+                System.out.println("Consumer lag sample failed: " + e.getMessage());
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    public void sample() throws ExecutionException, InterruptedException {
+        Map<String, ListConsumerGroupOffsetsSpec> specs = new HashMap<>();
+        for (String group : groups.isEmpty() ? liveGroups() : groups) {
+            specs.put(group, new ListConsumerGroupOffsetsSpec());
+        }
+        if (specs.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<TopicPartition, OffsetAndMetadata>> committed = admin.listConsumerGroupOffsets(specs).all().get();
+        Set<TopicPartition> partitions = new HashSet<>();
+        committed.values().forEach(offsets -> offsets.keySet().stream()
+                .filter(tp -> topics.contains(tp.topic()))
+                .forEach(partitions::add));
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+        partitions.forEach(tp -> request.put(tp, OffsetSpec.latest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = admin.listOffsets(request).all().get();
+
+        Map<String, Long> lagByGroupTopic = new HashMap<>();
+        committed.forEach((group, offsets) -> offsets.forEach((tp, offset) -> {
+            ListOffsetsResult.ListOffsetsResultInfo end = endOffsets.get(tp);
+            if (end != null && offset != null) {
+                lagByGroupTopic.merge(group + '|' + tp.topic(), Math.max(0, end.offset() - offset.offset()), Long::sum);
+            }
+        }));
+
+        lagByGroupTopic.forEach((key, lag) -> {
+            gauge(key).set(lag);
+            maxLag.merge(key, lag, Math::max);
+        });
+    }
+
+    private Set<String> liveGroups() throws ExecutionException, InterruptedException {
+        Set<String> stable = new HashSet<>();
+        ListConsumerGroupsOptions options = new ListConsumerGroupsOptions().inStates(Set.of(ConsumerGroupState.STABLE));
+        for (ConsumerGroupListing group : admin.listConsumerGroups(options).all().get()) {
+            stable.add(group.groupId());
+        }
+        if (stable.isEmpty()) {
+            return stable;
+        }
+        Set<String> live = new HashSet<>();
+        admin.describeConsumerGroups(stable).all().get().forEach((group, description) -> {
+            if (description.state() == ConsumerGroupState.STABLE && !description.members().isEmpty()) {
+                live.add(group);
+            }
+        });
+        return live;
+    }
+
+    private AtomicLong gauge(String groupAndTopic) {
+        return currentLag.computeIfAbsent(groupAndTopic, key -> {
+            int separator = key.indexOf('|');
+            return registry.gauge("kafka.consumer.lag",
+                    Tags.of("group", key.substring(0, separator), "topic", key.substring(separator + 1)),
+                    new AtomicLong());
+        });
+    }
+
+    /** Latest sampled lag, keyed {@code group|topic}. */
+    public Map<String, Long> currentLag() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        currentLag.forEach((key, lag) -> snapshot.put(key, lag.get()));
+        return snapshot;
+    }
+
+    /** Highest lag seen since the sampler was created, keyed {@code group|topic}. */
+    public Map<String, Long> maxLag() {
+        return new TreeMap<>(maxLag);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        admin.close(Duration.ofSeconds(5));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Consumer lag (max / last):\n");
+        Map<String, Long> last = currentLag();
+        maxLag().forEach((key, max) -> sb.append("  ").append(key).append(": ")
+                .append(max).append(" / ").append(last.get(key)).append('\n'));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.microservices.api.metrics;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Headers the harness stamps on every record it publishes, so a consumer can tell which saga the
+ * record belongs to and how long it took from {@code send()} to delivery.
+ */
+public final class SagaHeaders {
+
+    public static final String CORRELATION_ID = "saga-correlation-id";
+    /** Wall-clock millis at which the harness handed the record to the producer (8 bytes, big-endian). */
+    public static final String PUBLISHED_AT = "saga-published-at";
+
+    private SagaHeaders() {
+    }
+
+    public static Headers stamp(String correlationId) {
+        RecordHeaders headers = new RecordHeaders();
+        if (correlationId != null) {
+            headers.add(CORRELATION_ID, correlationId.getBytes(StandardCharsets.UTF_8));
+        }
+        headers.add(PUBLISHED_AT, ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis()).array());
+        return headers;
+    }
+
+    public static String correlationId(Headers headers) {
+        Header header = headers.lastHeader(CORRELATION_ID);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the publish time in epoch millis, or -1 if the record was not published by the harness
+     */
+    public static long publishedAtMillis(Headers headers) {
+        Header header = headers.lastHeader(PUBLISHED_AT);
+        if (header == null || header.value() == null || header.value().length != Long.BYTES) {
+            return -1;
+        }
+        return ByteBuffer.wrap(header.value()).getLong();
+    }
+}
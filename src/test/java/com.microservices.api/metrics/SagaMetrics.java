@@ -0,0 +1,153 @@
+package com.microservices.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import main.java.com.microservices.api.core.LatencyRecorder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage latency of the booking saga, recorded both into {@link LatencyRecorder}s named after the
+ * stage's meter (for exact percentiles, the run report and .hlog files) and into a Micrometer registry
+ * (for anything that already speaks Micrometer).
+ * <p>
+ * Stage boundaries are Kafka record timestamps (producer CreateTime), so a stage measures the
+ * services, not how quickly the harness happened to poll. {@link #shared()} is the JVM-wide instance
+ * fed by the event index and the load driver.
+ */
+public class SagaMetrics {
+
+    private static volatile SagaMetrics shared;
+
+    private final MeterRegistry registry;
+    private final Map<SagaStage, LatencyRecorder> recorders = new EnumMap<>(SagaStage.class);
+    private final Map<SagaStage, Timer> timers = new EnumMap<>(SagaStage.class);
+
+    public SagaMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (SagaStage stage : SagaStage.values()) {
+            recorders.put(stage, LatencyRecorder.of(stage.getMeterName()));
+            timers.put(stage, Timer.builder(stage.getMeterName())
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .register(registry));
+        }
+    }
+
+    public static SagaMetrics shared() {
+        SagaMetrics metrics = shared;
+        if (metrics != null) {
+            return metrics;
+        }
+        synchronized (SagaMetrics.class) {
+            if (shared == null) {
+                shared = new SagaMetrics(new SimpleMeterRegistry());
+            }
+            return shared;
+        }
+    }
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * Records one stage; negative values (clock skew between hosts) are counted as 0.
+     */
+    public void record(SagaStage stage, long millis) {
+        long value = Math.max(0, millis);
+        recorders.get(stage).recordMillis(value);
+        timers.get(stage).record(value, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records every stage of one saga from its wall-clock timestamps (epoch millis).
+     * A timestamp of 0 means that point was not observed; stages touching it are skipped.
+     */
+    public void recordSaga(long requestSentMillis, long bookingCreatedMillis, long seatReservedMillis,
+                           long paymentMillis, long dbConfirmedMillis) {
+        recordBetween(SagaStage.REQUEST_TO_BOOKING_CREATED, requestSentMillis, bookingCreatedMillis);
+        recordBetween(SagaStage.BOOKING_CREATED_TO_SEAT_RESERVED, bookingCreatedMillis, seatReservedMillis);
+        recordBetween(SagaStage.SEAT_RESERVED_TO_PAYMENT, seatReservedMillis, paymentMillis);
+        recordBetween(SagaStage.PAYMENT_TO_DB_CONFIRMED, paymentMillis, dbConfirmedMillis);
+
+        long last = Math.max(Math.max(bookingCreatedMillis, seatReservedMillis), Math.max(paymentMillis, dbConfirmedMillis));
+        recordBetween(SagaStage.END_TO_END, requestSentMillis, last);
+    }
+
+    /**
+     * Publish-to-consume latency of a record the harness published itself; other records are ignored.
+     */
+    public void recordDelivery(ConsumerRecord<?, ?> record) {
+        long publishedAt = SagaHeaders.publishedAtMillis(record.headers());
+        if (publishedAt > 0) {
+            record(SagaStage.PUBLISH_TO_CONSUME, System.currentTimeMillis() - publishedAt);
+        }
+    }
+
+    private void recordBetween(SagaStage stage, long fromMillis, long toMillis) {
+        if (fromMillis > 0 && toMillis > 0) {
+            record(stage, toMillis - fromMillis);
+        }
+    }
+
+    /** Copy of the stage histogram up to the last interval boundary, values in microseconds. */
+    public Histogram histogram(SagaStage stage) {
+        return recorders.get(stage).totalHistogram();
+    }
+
+    public void reset() {
+        recorders.values().forEach(LatencyRecorder::reset);
+    }
+
+    /**
+     * Writes one HdrHistogram log per stage into {@code directory} ({@code <meter name>.hlog},
+     * values in microseconds).
+     */
+    public void writeHistogramLogs(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<SagaStage, LatencyRecorder> entry : recorders.entrySet()) {
+            entry.getValue().sampleInterval();
+            Histogram histogram = entry.getValue().totalHistogram();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Path file = directory.resolve(entry.getKey().getMeterName() + ".hlog");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                HistogramLogWriter writer = new HistogramLogWriter(out);
+                writer.outputLogFormatVersion();
+                writer.outputLegend();
+                writer.outputIntervalHistogram(histogram);
+            }
+        }
+        System.out.println("Saga stage histograms written to " + directory.toAbsolutePath());
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder("Saga stage latency ms:\n");
+        for (SagaStage stage : SagaStage.values()) {
+            LatencyRecorder recorder = recorders.get(stage);
+            recorder.sampleInterval();
+            Histogram h = recorder.totalHistogram();
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            sb.append(String.format("  %-34s n=%-7d p50=%-6d p99=%-6d p99.9=%-6d max=%d%n",
+                    stage, h.getTotalCount(),
+                    TimeUnit.MICROSECONDS.toMillis(h.getValueAtPercentile(50)),
+                    TimeUnit.MICROSECONDS.toMillis(h.getValueAtPercentile(99)),
+                    TimeUnit.MICROSECONDS.toMillis(h.getValueAtPercentile(99.9)),
+                    TimeUnit.MICROSECONDS.toMillis(h.getMaxValue())));
+        }
+        return sb.toString();
+    }
+}
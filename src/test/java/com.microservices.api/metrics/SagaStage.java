@@ -0,0 +1,30 @@
+package com.microservices.api.metrics;
+
+/**
+ * Hops of the booking saga that {@link SagaMetrics} times separately.
+ */
+public enum SagaStage {
+
+    /** bookSeat request sent until the BookingCreatedEvent record was written. */
+    REQUEST_TO_BOOKING_CREATED("saga.stage.request.to.booking.created"),
+    /** BookingCreatedEvent record until the SeatReservedEvent record. */
+    BOOKING_CREATED_TO_SEAT_RESERVED("saga.stage.booking.created.to.seat.reserved"),
+    /** SeatReservedEvent record until the BookingPaymentEvent record. */
+    SEAT_RESERVED_TO_PAYMENT("saga.stage.seat.reserved.to.payment"),
+    /** BookingPaymentEvent record until the booking was seen CONFIRMED in the database. */
+    PAYMENT_TO_DB_CONFIRMED("saga.stage.payment.to.db.confirmed"),
+    /** bookSeat request sent until the last stage that was observed. */
+    END_TO_END("saga.end.to.end"),
+    /** Harness send() until a harness consumer received the record (needs the {@link SagaHeaders#PUBLISHED_AT} header). */
+    PUBLISH_TO_CONSUME("saga.event.publish.to.consume");
+
+    private final String meterName;
+
+    SagaStage(String meterName) {
+        this.meterName = meterName;
+    }
+
+    public String getMeterName() {
+        return meterName;
+    }
+}
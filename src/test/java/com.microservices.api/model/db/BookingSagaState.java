@@ -0,0 +1,77 @@
+package com.microservices.api.model.db;
+
+import java.util.List;
+
+/**
+ * A Booking row joined with its Booking_seatIds and the matching seat_inventory rows.
+ */
+public class BookingSagaState {
+
+    private final long id;
+    private final String bookingCode;
+    private final String status;
+    private final long amount;
+    private final String userId;
+    private final String showId;
+    private final List<SeatState> seats;
+
+    public BookingSagaState(long id, String bookingCode, String status, long amount, String userId,
+                            String showId, List<SeatState> seats) {
+        this.id = id;
+        this.bookingCode = bookingCode;
+        this.status = status;
+        this.amount = amount;
+        this.userId = userId;
+        this.showId = showId;
+        this.seats = seats;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getBookingCode() {
+        return bookingCode;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getShowId() {
+        return showId;
+    }
+
+    public List<SeatState> getSeats() {
+        return seats;
+    }
+
+    /**
+     * The seat service may record either the booking code or the numeric Booking id as holder.
+     */
+    public boolean isHeldByThisBooking(SeatState seat) {
+        String holder = seat.getCurrentBookingId();
+        return holder != null && (holder.equals(bookingCode) || holder.equals(String.valueOf(id)));
+    }
+
+    @Override
+    public String toString() {
+        return "BookingSagaState{" +
+                "id=" + id +
+                ", bookingCode='" + bookingCode + '\'' +
+                ", status='" + status + '\'' +
+                ", amount=" + amount +
+                ", userId='" + userId + '\'' +
+                ", showId='" + showId + '\'' +
+                ", seats=" + seats +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.microservices.api.model.db;
+
+/**
+ * One seat_inventory row as seen through a booking's Booking_seatIds entry.
+ * {@code status} is null when the booking references a seat that has no inventory row.
+ */
+public class SeatState {
+
+    private final String seatNumber;
+    private final String status;
+    private final String currentBookingId;
+
+    public SeatState(String seatNumber, String status, String currentBookingId) {
+        this.seatNumber = seatNumber;
+        this.status = status;
+        this.currentBookingId = currentBookingId;
+    }
+
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getCurrentBookingId() {
+        return currentBookingId;
+    }
+
+    public boolean isLocked() {
+        return "LOCKED".equalsIgnoreCase(status);
+    }
+
+    @Override
+    public String toString() {
+        return "SeatState{" +
+                "seatNumber='" + seatNumber + '\'' +
+                ", status='" + status + '\'' +
+                ", currentBookingId='" + currentBookingId + '\'' +
+                '}';
+    }
+}
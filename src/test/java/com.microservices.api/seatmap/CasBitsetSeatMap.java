@@ -0,0 +1,154 @@
+package com.microservices.api.seatmap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free seat map: one bit per seat in an {@link AtomicLongArray}, claimed with compare-and-set.
+ * <p>
+ * Seat numbers are interned to dense indices the first time a show sees them. A reservation claims
+ * its words in ascending order with one CAS per word, and rolls back the words it already took as
+ * soon as one of them conflicts. The holder is recorded right after the bits are set, so
+ * {@link #holder} may briefly return {@code null} for a seat that is being reserved.
+ */
+public class CasBitsetSeatMap implements SeatMap {
+
+    private final int seatsPerShow;
+    private final ConcurrentMap<String, Show> shows = new ConcurrentHashMap<>();
+
+    public CasBitsetSeatMap(int seatsPerShow) {
+        this.seatsPerShow = seatsPerShow;
+    }
+
+    @Override
+    public boolean tryReserveAll(String showId, List<String> seats, String bookingId) {
+        Show show = show(showId);
+        int[] indices = show.indicesOf(seats);
+        int[] words = wordsOf(indices);
+        long[] masks = masksOf(indices, words);
+
+        // seats this booking already holds (redelivery) are not claimed again
+        for (int w = 0; w < words.length; w++) {
+            for (int index : indices) {
+                if (index >>> 6 == words[w] && bookingId.equals(show.holders.get(index))) {
+                    masks[w] &= ~(1L << index);
+                }
+            }
+        }
+
+        for (int w = 0; w < words.length; w++) {
+            if (masks[w] != 0 && !claim(show.bits, words[w], masks[w])) {
+                for (int undo = 0; undo < w; undo++) {
+                    clear(show.bits, words[undo], masks[undo]);
+                }
+                return false;
+            }
+        }
+        for (int index : indices) {
+            show.holders.set(index, bookingId);
+        }
+        return true;
+    }
+
+    @Override
+    public void releaseAll(String showId, List<String> seats, String bookingId) {
+        Show show = shows.get(showId);
+        if (show == null) {
+            return;
+        }
+        for (String seat : seats) {
+            Integer index = show.index.get(seat);
+            if (index != null && show.holders.compareAndSet(index, bookingId, null)) {
+                clear(show.bits, index >>> 6, 1L << index);
+            }
+        }
+    }
+
+    @Override
+    public void forceLock(String showId, String seat, String bookingId) {
+        Show show = show(showId);
+        int index = show.indexOf(seat);
+        show.bits.getAndUpdate(index >>> 6, word -> word | (1L << index));
+        show.holders.set(index, bookingId);
+    }
+
+    @Override
+    public String holder(String showId, String seat) {
+        Show show = shows.get(showId);
+        if (show == null) {
+            return null;
+        }
+        Integer index = show.index.get(seat);
+        return index == null ? null : show.holders.get(index);
+    }
+
+    private static boolean claim(AtomicLongArray bits, int word, long mask) {
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private static void clear(AtomicLongArray bits, int word, long mask) {
+        bits.getAndUpdate(word, current -> current & ~mask);
+    }
+
+    private static int[] wordsOf(int[] indices) {
+        return Arrays.stream(indices).map(index -> index >>> 6).distinct().sorted().toArray();
+    }
+
+    private static long[] masksOf(int[] indices, int[] words) {
+        long[] masks = new long[words.length];
+        for (int index : indices) {
+            masks[Arrays.binarySearch(words, index >>> 6)] |= 1L << index;
+        }
+        return masks;
+    }
+
+    private Show show(String showId) {
+        return shows.computeIfAbsent(showId, id -> new Show(id, seatsPerShow));
+    }
+
+    private static final class Show {
+        private final String showId;
+        private final ConcurrentMap<String, Integer> index = new ConcurrentHashMap<>();
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicLongArray bits;
+        private final AtomicReferenceArray<String> holders;
+
+        Show(String showId, int capacity) {
+            this.showId = showId;
+            this.bits = new AtomicLongArray((capacity + 63) >>> 6);
+            this.holders = new AtomicReferenceArray<>(capacity);
+        }
+
+        int[] indicesOf(List<String> seats) {
+            int[] indices = new int[seats.size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = indexOf(seats.get(i));
+            }
+            return indices;
+        }
+
+        int indexOf(String seat) {
+            return index.computeIfAbsent(seat, s -> {
+                int next = nextIndex.getAndIncrement();
+                if (next >= holders.length()) {
+                    throw new IllegalStateException(
+                            "Show " + showId + " has more than " + holders.length() + " seats");
+                }
+                return next;
+            });
+        }
+    }
+}
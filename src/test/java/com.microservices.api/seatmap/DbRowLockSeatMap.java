@@ -0,0 +1,129 @@
+package com.microservices.api.seatmap;
+
+import com.microservices.api.util.DbTestUtils;
+import com.microservices.api.util.TestDataSeeder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Seat map backed by {@code seat_inventory}: the seats are read with {@code SELECT ... FOR UPDATE}
+ * in seat-number order and locked in the same transaction, the way the seat-inventory service
+ * resolves contention. Seats must be seeded first ({@code TestDataSeeder.seedSeatInventory}).
+ */
+public class DbRowLockSeatMap implements SeatMap {
+
+    @Override
+    public boolean tryReserveAll(String showId, List<String> seats, String bookingId) {
+        TreeSet<String> ordered = new TreeSet<>(seats);
+        String select =
+                "SELECT seatNumber, status, currentBookingId FROM seat_inventory " +
+                        "WHERE showId = ? AND seatNumber IN (" + placeholders(ordered.size()) + ") " +
+                        "ORDER BY seatNumber FOR UPDATE";
+        String update =
+                "UPDATE seat_inventory " +
+                        "SET status = 'LOCKED', currentBookingId = ?, lastUpdated = ? " +
+                        "WHERE showId = ? AND seatNumber = ?";
+
+        try (Connection con = DbTestUtils.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                int available = 0;
+                try (PreparedStatement ps = con.prepareStatement(select)) {
+                    ps.setString(1, showId);
+                    int i = 2;
+                    for (String seat : ordered) {
+                        ps.setString(i++, seat);
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            if ("AVAILABLE".equals(rs.getString("status"))
+                                    || bookingId.equals(rs.getString("currentBookingId"))) {
+                                available++;
+                            }
+                        }
+                    }
+                }
+                if (available != ordered.size()) {
+                    con.rollback();
+                    return false;
+                }
+                try (PreparedStatement ps = con.prepareStatement(update)) {
+                    Timestamp now = new Timestamp(System.currentTimeMillis());
+                    for (String seat : ordered) {
+                        ps.setString(1, bookingId);
+                        ps.setTimestamp(2, now);
+                        ps.setString(3, showId);
+                        ps.setString(4, seat);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                con.commit();
+                return true;
+            } catch (SQLException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to reserve seats " + seats + " of " + showId, e);
+        }
+    }
+
+    @Override
+    public void releaseAll(String showId, List<String> seats, String bookingId) {
+        String sql =
+                "UPDATE seat_inventory " +
+                        "SET status = 'AVAILABLE', currentBookingId = NULL " +
+                        "WHERE showId = ? AND seatNumber = ? AND currentBookingId = ?";
+
+        try (Connection con = DbTestUtils.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            for (String seat : seats) {
+                ps.setString(1, showId);
+                ps.setString(2, seat);
+                ps.setString(3, bookingId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to release seats " + seats + " of " + showId, e);
+        }
+    }
+
+    @Override
+    public void forceLock(String showId, String seat, String bookingId) {
+        try {
+            TestDataSeeder.lockSeat(showId, seat, bookingId);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public String holder(String showId, String seat) {
+        String sql = "SELECT currentBookingId FROM seat_inventory WHERE showId = ? AND seatNumber = ? AND status = 'LOCKED'";
+        try (Connection con = DbTestUtils.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, showId);
+            ps.setString(2, seat);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
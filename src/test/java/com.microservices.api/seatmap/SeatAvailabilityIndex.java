@@ -0,0 +1,238 @@
+package com.microservices.api.seatmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compact availability model of one show: seat numbers are interned to dense indices in seating
+ * order (row, then position) and availability is one bit per seat in a {@code long[]}.
+ * <p>
+ * A few hundred seats take a handful of words instead of a map entry per seat, and snapshots can
+ * be compared word by word, which makes it cheap enough to hold the expected state of a whole load
+ * run and diff it against {@code seat_inventory} ({@code DBHelper.loadSeatAvailability}).
+ * Not thread-safe; build it on one thread and hand it over.
+ */
+public class SeatAvailabilityIndex {
+
+    /** Row prefix first, then the numeric position, so {@code A2} sorts before {@code A10}. */
+    public static final Comparator<String> SEATING_ORDER =
+            Comparator.comparing(SeatRows::rowOf)
+                    .thenComparingLong(SeatAvailabilityIndex::positionOf)
+                    .thenComparing(Comparator.naturalOrder());
+
+    private final String showId;
+    private final String[] seats;
+    private final Map<String, Integer> indices;
+    private final long[] rowStarts;
+    private final long[] available;
+
+    private SeatAvailabilityIndex(String showId, String[] seats, Map<String, Integer> indices, long[] rowStarts) {
+        this.showId = showId;
+        this.seats = seats;
+        this.indices = indices;
+        this.rowStarts = rowStarts;
+        this.available = new long[rowStarts.length];
+    }
+
+    /**
+     * Index over {@code seatNumbers} with every seat available.
+     */
+    public static SeatAvailabilityIndex allAvailable(String showId, Collection<String> seatNumbers) {
+        TreeSet<String> ordered = new TreeSet<>(SEATING_ORDER);
+        ordered.addAll(seatNumbers);
+
+        String[] seats = ordered.toArray(new String[0]);
+        Map<String, Integer> indices = new HashMap<>(seats.length * 4 / 3 + 1);
+        long[] rowStarts = new long[(seats.length + 63) >>> 6];
+        String previousRow = null;
+        for (int i = 0; i < seats.length; i++) {
+            indices.put(seats[i], i);
+            String row = SeatRows.rowOf(seats[i]);
+            if (!row.equals(previousRow)) {
+                rowStarts[i >>> 6] |= 1L << i;
+                previousRow = row;
+            }
+        }
+
+        SeatAvailabilityIndex index = new SeatAvailabilityIndex(showId, seats, Collections.unmodifiableMap(indices), rowStarts);
+        for (int i = 0; i < seats.length; i++) {
+            index.available[i >>> 6] |= 1L << i;
+        }
+        return index;
+    }
+
+    /**
+     * Same seats as this index, all available; the starting point of an expected-state model.
+     */
+    public SeatAvailabilityIndex emptyCopy() {
+        SeatAvailabilityIndex copy = new SeatAvailabilityIndex(showId, seats, indices, rowStarts);
+        for (int i = 0; i < seats.length; i++) {
+            copy.available[i >>> 6] |= 1L << i;
+        }
+        return copy;
+    }
+
+    public String getShowId() {
+        return showId;
+    }
+
+    public int size() {
+        return seats.length;
+    }
+
+    public boolean contains(String seat) {
+        return indices.containsKey(seat);
+    }
+
+    public boolean isAvailable(String seat) {
+        int i = indexOf(seat);
+        return (available[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Marks every seat unavailable, or none of them if any is already taken.
+     */
+    public boolean reserve(Collection<String> seatNumbers) {
+        long[] mask = maskOf(seatNumbers);
+        for (int w = 0; w < mask.length; w++) {
+            if ((available[w] & mask[w]) != mask[w]) {
+                return false;
+            }
+        }
+        for (int w = 0; w < mask.length; w++) {
+            available[w] &= ~mask[w];
+        }
+        return true;
+    }
+
+    /** Marks the seats unavailable regardless of their current state. */
+    public void lock(Collection<String> seatNumbers) {
+        long[] mask = maskOf(seatNumbers);
+        for (int w = 0; w < mask.length; w++) {
+            available[w] &= ~mask[w];
+        }
+    }
+
+    public void release(Collection<String> seatNumbers) {
+        long[] mask = maskOf(seatNumbers);
+        for (int w = 0; w < mask.length; w++) {
+            available[w] |= mask[w];
+        }
+    }
+
+    public int countAvailable() {
+        int count = 0;
+        for (long word : available) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * First {@code n} adjacent available seats in one row, in seating order, or an empty list if no row
+     * has such a gap.
+     */
+    public List<String> firstContiguous(int n) {
+        if (n <= 0) {
+            return List.of();
+        }
+        int runStart = -1;
+        int previous = -2;
+        for (int i = nextAvailable(0); i >= 0; i = nextAvailable(i + 1)) {
+            if (i != previous + 1 || isRowStart(i)) {
+                runStart = i;
+            }
+            if (i - runStart + 1 == n) {
+                return seatsBetween(runStart, i);
+            }
+            previous = i;
+        }
+        return List.of();
+    }
+
+    /**
+     * Seats whose availability differs between the two indexes, in seating order. Both must have been
+     * built over the same seats (see {@link #emptyCopy()}).
+     */
+    public List<String> diff(SeatAvailabilityIndex other) {
+        if (other.seats != seats && !Arrays.equals(other.seats, seats)) {
+            throw new IllegalArgumentException("Seat layouts of " + showId + " and " + other.showId + " differ");
+        }
+        List<String> different = new ArrayList<>();
+        for (int w = 0; w < available.length; w++) {
+            long bits = available[w] ^ other.available[w];
+            while (bits != 0) {
+                different.add(seats[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+                bits &= bits - 1;
+            }
+        }
+        return different;
+    }
+
+    private boolean isRowStart(int i) {
+        return (rowStarts[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private int nextAvailable(int from) {
+        if (from >= seats.length) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = available[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                return i < seats.length ? i : -1;
+            }
+            if (++w == available.length) {
+                return -1;
+            }
+            word = available[w];
+        }
+    }
+
+    private List<String> seatsBetween(int first, int last) {
+        List<String> result = new ArrayList<>(last - first + 1);
+        for (int i = first; i <= last; i++) {
+            result.add(seats[i]);
+        }
+        return result;
+    }
+
+    private long[] maskOf(Collection<String> seatNumbers) {
+        long[] mask = new long[available.length];
+        for (String seat : seatNumbers) {
+            int i = indexOf(seat);
+            mask[i >>> 6] |= 1L << i;
+        }
+        return mask;
+    }
+
+    private int indexOf(String seat) {
+        Integer index = indices.get(seat);
+        if (index == null) {
+            throw new IllegalArgumentException("Seat " + seat + " is not part of show " + showId);
+        }
+        return index;
+    }
+
+    private static long positionOf(String seat) {
+        String digits = seat.substring(SeatRows.rowOf(seat).length());
+        if (digits.isEmpty() || digits.length() > 18 || !digits.chars().allMatch(Character::isDigit)) {
+            return -1;
+        }
+        return Long.parseLong(digits);
+    }
+
+    @Override
+    public String toString() {
+        return "SeatAvailabilityIndex{" + showId + ": " + countAvailable() + "/" + seats.length + " available}";
+    }
+}
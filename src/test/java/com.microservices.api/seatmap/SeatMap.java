@@ -0,0 +1,30 @@
+package com.microservices.api.seatmap;
+
+import java.util.List;
+
+/**
+ * Seat holders per show with all-or-nothing multi-seat reservation, as requested by the
+ * {@code seatIds} of a {@code BookingCreatedEvent}. A seat without a holder is available.
+ * <p>
+ * Implementations differ only in how they resolve contention, so they can be compared under the
+ * same load (see {@code SeatContentionBenchmark}).
+ */
+public interface SeatMap {
+
+    /**
+     * Reserves every seat for {@code bookingId}, or none of them if any seat is held by another booking.
+     * Seats already held by {@code bookingId} count as reserved, so redelivered bookings succeed.
+     */
+    boolean tryReserveAll(String showId, List<String> seats, String bookingId);
+
+    /**
+     * Frees the seats still held by {@code bookingId}; seats held by other bookings are left alone.
+     */
+    void releaseAll(String showId, List<String> seats, String bookingId);
+
+    /** Unconditional lock, the counterpart of {@code TestDataSeeder.lockSeat}. */
+    void forceLock(String showId, String seat, String bookingId);
+
+    /** Current holder of the seat, or {@code null} when it is available. */
+    String holder(String showId, String seat);
+}
@@ -0,0 +1,19 @@
+package com.microservices.api.seatmap;
+
+/**
+ * Seat numbers are a row prefix followed by the seat position ({@code A12}, {@code S3}).
+ */
+final class SeatRows {
+
+    private SeatRows() {
+    }
+
+    /** Leading non-digit part of the seat number; empty for purely numeric seats. */
+    static String rowOf(String seat) {
+        int end = 0;
+        while (end < seat.length() && !Character.isDigit(seat.charAt(end))) {
+            end++;
+        }
+        return seat.substring(0, end);
+    }
+}
@@ -0,0 +1,121 @@
+package com.microservices.api.seatmap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Seat map guarded by per-row lock stripes within each show.
+ * <p>
+ * A reservation locks the stripes of all its rows in ascending stripe order, so two bookings that
+ * overlap on several rows can never deadlock. Bookings in other rows or other shows do not
+ * contend. Holders live in a concurrent map, so {@link #holder} never takes a lock.
+ */
+public class StripedLockSeatMap implements SeatMap {
+
+    private final int stripesPerShow;
+    private final ConcurrentMap<String, Show> shows = new ConcurrentHashMap<>();
+
+    public StripedLockSeatMap(int stripesPerShow) {
+        this.stripesPerShow = stripesPerShow;
+    }
+
+    @Override
+    public boolean tryReserveAll(String showId, List<String> seats, String bookingId) {
+        Show show = show(showId);
+        int[] order = show.stripeOrder(seats);
+        show.lock(order);
+        try {
+            for (String seat : seats) {
+                String current = show.holders.get(seat);
+                if (current != null && !current.equals(bookingId)) {
+                    return false;
+                }
+            }
+            for (String seat : seats) {
+                show.holders.put(seat, bookingId);
+            }
+            return true;
+        } finally {
+            show.unlock(order);
+        }
+    }
+
+    @Override
+    public void releaseAll(String showId, List<String> seats, String bookingId) {
+        Show show = shows.get(showId);
+        if (show == null) {
+            return;
+        }
+        int[] order = show.stripeOrder(seats);
+        show.lock(order);
+        try {
+            for (String seat : seats) {
+                show.holders.remove(seat, bookingId);
+            }
+        } finally {
+            show.unlock(order);
+        }
+    }
+
+    @Override
+    public void forceLock(String showId, String seat, String bookingId) {
+        Show show = show(showId);
+        int[] order = show.stripeOrder(List.of(seat));
+        show.lock(order);
+        try {
+            show.holders.put(seat, bookingId);
+        } finally {
+            show.unlock(order);
+        }
+    }
+
+    @Override
+    public String holder(String showId, String seat) {
+        Show show = shows.get(showId);
+        return show == null ? null : show.holders.get(seat);
+    }
+
+    private Show show(String showId) {
+        return shows.computeIfAbsent(showId, id -> new Show(stripesPerShow));
+    }
+
+    private static final class Show {
+        private final ReentrantLock[] stripes;
+        private final ConcurrentMap<String, String> holders = new ConcurrentHashMap<>();
+
+        Show(int stripeCount) {
+            this.stripes = new ReentrantLock[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new ReentrantLock();
+            }
+        }
+
+        int[] stripeOrder(List<String> seats) {
+            int[] order = new int[seats.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = Math.floorMod(SeatRows.rowOf(seats.get(i)).hashCode(), stripes.length);
+            }
+            Arrays.sort(order);
+            return order;
+        }
+
+        void lock(int[] order) {
+            for (int i = 0; i < order.length; i++) {
+                if (i == 0 || order[i] != order[i - 1]) {
+                    stripes[order[i]].lock();
+                }
+            }
+        }
+
+        void unlock(int[] order) {
+            for (int i = order.length - 1; i >= 0; i--) {
+                if (i == 0 || order[i] != order[i - 1]) {
+                    stripes[order[i]].unlock();
+                }
+            }
+        }
+    }
+}
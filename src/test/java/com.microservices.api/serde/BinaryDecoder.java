@@ -0,0 +1,102 @@
+package com.microservices.api.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cursor over a saga binary payload; the counterpart of {@link BinaryEncoder}.
+ */
+final class BinaryDecoder {
+
+    private final byte[] buf;
+    private int pos;
+
+    BinaryDecoder(byte[] buf, int offset) {
+        this.buf = buf;
+        this.pos = offset;
+    }
+
+    int readByte() {
+        if (pos >= buf.length) {
+            throw new SerializationException("Truncated saga binary payload at byte " + pos);
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint at byte " + pos);
+    }
+
+    long readVarLong() {
+        long raw = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            raw |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (raw >>> 1) ^ -(raw & 1);
+            }
+        }
+        throw new SerializationException("Malformed varlong at byte " + pos);
+    }
+
+    String readString() {
+        int tag = readVarInt();
+        if (tag == BinaryEncoder.NULL_STRING) {
+            return null;
+        }
+        if (tag == BinaryEncoder.UUID_STRING) {
+            return new UUID(readLong(), readLong()).toString();
+        }
+        int length = tag - BinaryEncoder.UTF8_OFFSET;
+        if (length < 0 || length > buf.length - pos) {
+            throw new SerializationException("Invalid string length " + length + " at byte " + pos);
+        }
+        String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return value;
+    }
+
+    /**
+     * The count comes off the wire, so it is checked before sizing the list: every element takes at least
+     * one byte, and a corrupt count fails here instead of allocating a huge (or negative) array.
+     */
+    List<String> readStringList() {
+        int tag = readVarInt();
+        if (tag == 0) {
+            return null;
+        }
+        int count = tag - 1;
+        if (count < 0 || count > buf.length - pos) {
+            throw new SerializationException("Invalid list length " + count + " at byte " + pos);
+        }
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    private long readLong() {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,122 @@
+package com.microservices.api.serde;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Append-only buffer with the primitive encodings of the saga binary format.
+ */
+final class BinaryEncoder {
+
+    // string tags: 0 = null, 1 = canonical UUID as 16 raw bytes, n + 2 = UTF-8 string of n bytes
+    static final int NULL_STRING = 0;
+    static final int UUID_STRING = 1;
+    static final int UTF8_OFFSET = 2;
+
+    private byte[] buf;
+    private int pos;
+
+    BinaryEncoder(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    BinaryEncoder writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte) b;
+        return this;
+    }
+
+    BinaryEncoder writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    BinaryEncoder writeVarInt(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+        return this;
+    }
+
+    /** Zig-zag encoded so small negative values stay small. */
+    BinaryEncoder writeVarLong(long value) {
+        long v = (value << 1) ^ (value >> 63);
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return this;
+    }
+
+    BinaryEncoder writeString(String value) {
+        if (value == null) {
+            return writeVarInt(NULL_STRING);
+        }
+        if (isCanonicalUuid(value)) {
+            UUID uuid = UUID.fromString(value);
+            writeVarInt(UUID_STRING);
+            writeLong(uuid.getMostSignificantBits());
+            writeLong(uuid.getLeastSignificantBits());
+            return this;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + UTF8_OFFSET);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+        return this;
+    }
+
+    /** 0 for null, otherwise element count + 1 followed by the elements. */
+    BinaryEncoder writeStringList(List<String> values) {
+        if (values == null) {
+            return writeVarInt(0);
+        }
+        writeVarInt(values.size() + 1);
+        for (String value : values) {
+            writeString(value);
+        }
+        return this;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, pos);
+    }
+
+    private void writeLong(long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buf[pos++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void ensure(int extra) {
+        if (pos + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+        }
+    }
+
+    /**
+     * Only lower-case canonical form round-trips exactly through {@link UUID#toString()}.
+     */
+    static boolean isCanonicalUuid(String s) {
+        if (s.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = s.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
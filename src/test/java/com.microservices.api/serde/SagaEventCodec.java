@@ -0,0 +1,107 @@
+package com.microservices.api.serde;
+
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * Schema-based binary encoding of the three saga events.
+ * <pre>
+ * payload  := MAGIC schemaId:varint fields...
+ * string   := 0 (null) | 1 uuid:16 bytes | (n + 2):varint utf8:n bytes
+ * list     := 0 (null) | (n + 1):varint string*n
+ * long     := zig-zag varint
+ * boolean  := 1 byte
+ * </pre>
+ * Field order is fixed per schema id; a new field means a new schema id so old readers fail
+ * loudly instead of misreading. JSON payloads always start with '{' or whitespace, so the
+ * leading {@link #MAGIC} byte is enough to tell the two formats apart on a mixed topic.
+ */
+public final class SagaEventCodec {
+
+    public static final byte MAGIC = 0x00;
+
+    static final int BOOKING_CREATED_V1 = 1;
+    static final int SEAT_RESERVED_V1 = 2;
+    static final int BOOKING_PAYMENT_V1 = 3;
+
+    private SagaEventCodec() {}
+
+    public static boolean supports(Class<?> type) {
+        return type == BookingCreatedEvent.class
+                || type == SeatReservedEvent.class
+                || type == BookingPaymentEvent.class;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object event) {
+        if (event instanceof BookingCreatedEvent) {
+            BookingCreatedEvent e = (BookingCreatedEvent) event;
+            int seats = e.getSeatIds() == null ? 0 : e.getSeatIds().size();
+            return new BinaryEncoder(64 + seats * 4)
+                    .writeByte(MAGIC)
+                    .writeVarInt(BOOKING_CREATED_V1)
+                    .writeString(e.getBookingId())
+                    .writeString(e.getUserId())
+                    .writeString(e.getShowId())
+                    .writeStringList(e.getSeatIds())
+                    .writeVarLong(e.getAmount())
+                    .toByteArray();
+        }
+        if (event instanceof SeatReservedEvent) {
+            SeatReservedEvent e = (SeatReservedEvent) event;
+            return new BinaryEncoder(32)
+                    .writeByte(MAGIC)
+                    .writeVarInt(SEAT_RESERVED_V1)
+                    .writeString(e.getBookingId())
+                    .writeBoolean(e.isReserved())
+                    .writeVarLong(e.getAmount())
+                    .toByteArray();
+        }
+        if (event instanceof BookingPaymentEvent) {
+            BookingPaymentEvent e = (BookingPaymentEvent) event;
+            return new BinaryEncoder(32)
+                    .writeByte(MAGIC)
+                    .writeVarInt(BOOKING_PAYMENT_V1)
+                    .writeString(e.getBookingId())
+                    .writeBoolean(e.isPaymentCompleted())
+                    .writeVarLong(e.getAmount())
+                    .toByteArray();
+        }
+        throw new SerializationException("No binary schema for " + (event == null ? "null" : event.getClass().getName()));
+    }
+
+    public static Object decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new SerializationException("Not a saga binary payload");
+        }
+        BinaryDecoder in = new BinaryDecoder(data, 1);
+        int schemaId = in.readVarInt();
+        switch (schemaId) {
+            case BOOKING_CREATED_V1:
+                return new BookingCreatedEvent(
+                        in.readString(),
+                        in.readString(),
+                        in.readString(),
+                        in.readStringList(),
+                        in.readVarLong()
+                );
+            case SEAT_RESERVED_V1: {
+                String bookingId = in.readString();
+                boolean reserved = in.readBoolean();
+                return new SeatReservedEvent(bookingId, reserved, in.readVarLong());
+            }
+            case BOOKING_PAYMENT_V1: {
+                String bookingId = in.readString();
+                boolean completed = in.readBoolean();
+                return new BookingPaymentEvent(bookingId, completed, in.readVarLong());
+            }
+            default:
+                throw new SerializationException("Unknown saga binary schema id " + schemaId);
+        }
+    }
+}
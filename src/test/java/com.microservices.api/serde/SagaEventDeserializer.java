@@ -0,0 +1,67 @@
+package com.microservices.api.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads saga events written in either {@link WireFormat}, so a topic may carry a mix of both
+ * (e.g. while services are migrated one by one). Payloads starting with {@link SagaEventCodec#MAGIC}
+ * are decoded as binary, everything else is handed to Spring's {@link JsonDeserializer}.
+ */
+public class SagaEventDeserializer<T> implements Deserializer<T> {
+
+    private final Class<T> targetType;
+    private final JsonDeserializer<T> json;
+
+    public SagaEventDeserializer(Class<T> targetType) {
+        this(targetType, true);
+    }
+
+    /**
+     * @param useTypeHeaders whether JSON payloads may pick their type from {@code __TypeId__} headers
+     */
+    public SagaEventDeserializer(Class<T> targetType, boolean useTypeHeaders) {
+        this.targetType = targetType;
+        this.json = new JsonDeserializer<>(targetType, useTypeHeaders);
+        this.json.addTrustedPackages("*");
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        // the JSON delegate is fully set up by the constructor (type and trusted packages)
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (SagaEventCodec.isBinary(data)) {
+            return decodeBinary(data);
+        }
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (SagaEventCodec.isBinary(data)) {
+            return decodeBinary(data);
+        }
+        return json.deserialize(topic, headers, data);
+    }
+
+    private T decodeBinary(byte[] data) {
+        Object event = SagaEventCodec.decode(data);
+        if (!targetType.isInstance(event)) {
+            throw new SerializationException(
+                    "Binary payload holds " + event.getClass().getSimpleName() + ", expected " + targetType.getSimpleName());
+        }
+        return targetType.cast(event);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,66 @@
+package com.microservices.api.serde;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes saga events in the configured {@link WireFormat}.
+ * <p>
+ * In {@code BINARY} mode the three saga events are encoded by {@link SagaEventCodec}; anything else
+ * (and everything in {@code JSON} mode) goes through Spring's {@link JsonSerializer} with type-info
+ * headers, exactly as before.
+ */
+public class SagaEventSerializer implements Serializer<Object> {
+
+    /** Producer config key; defaults to {@link WireFormat#fromSystemProperty()}. */
+    public static final String WIRE_FORMAT_CONFIG = "saga.wire.format";
+
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+    private WireFormat format = WireFormat.fromSystemProperty();
+
+    public SagaEventSerializer() {
+        json.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, true), false);
+    }
+
+    public SagaEventSerializer(WireFormat format) {
+        this();
+        this.format = format;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Map<String, Object> jsonConfigs = new HashMap<>(configs);
+        jsonConfigs.putIfAbsent(JsonSerializer.ADD_TYPE_INFO_HEADERS, true);
+        json.configure(jsonConfigs, isKey);
+        Object configured = configs.get(WIRE_FORMAT_CONFIG);
+        if (configured != null) {
+            format = configured instanceof WireFormat ? (WireFormat) configured : WireFormat.parse(configured.toString());
+        }
+    }
+
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data != null && format == WireFormat.BINARY && SagaEventCodec.supports(data.getClass())) {
+            return SagaEventCodec.encode(data);
+        }
+        return headers == null ? json.serialize(topic, data) : json.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
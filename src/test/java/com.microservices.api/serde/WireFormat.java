@@ -0,0 +1,18 @@
+package com.microservices.api.serde;
+
+/**
+ * Value encoding used by the harness when it publishes saga events.
+ * Selected with {@code -Dkafka.wire.format=json|binary} (default json); reading always accepts both.
+ */
+public enum WireFormat {
+    JSON,
+    BINARY;
+
+    public static WireFormat fromSystemProperty() {
+        return parse(System.getProperty("kafka.wire.format", "json"));
+    }
+
+    public static WireFormat parse(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
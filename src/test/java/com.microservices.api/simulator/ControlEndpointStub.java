@@ -0,0 +1,181 @@
+package com.microservices.api.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.api.model.request.BookingRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline stand-in for the services' HTTP endpoints, backed by a {@link LocalSagaEngine}.
+ * <p>
+ * The control server ({@link #getBaseUrl()}) answers
+ * <ul>
+ *     <li>{@code POST /kafka/pause/{listener}} and {@code POST /kafka/resume/{listener}}</li>
+ *     <li>{@code POST /internal/test/seat-inventory/timeout/enable} and {@code .../disable}</li>
+ * </ul>
+ * with 200, or 404 for unknown paths and listeners. The booking server ({@link #getBookingBaseUrl()})
+ * answers {@code POST /booking-service/bookSeat}, so a load run can be pointed at the stub too. They are
+ * separate servers with separate threads, so a saturated bookSeat queue never delays a fault.
+ * Port 0 picks a free port; that is the default, so the stub never collides with (or stands in for)
+ * real services on 9191/9292.
+ */
+public class ControlEndpointStub implements AutoCloseable {
+
+    private static final String PAUSE = "/kafka/pause/";
+    private static final String RESUME = "/kafka/resume/";
+    private static final String SEAT_TIMEOUT = "/internal/test/seat-inventory/timeout/";
+    private static final String BOOK_SEAT = "/booking-service/bookSeat";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LocalSagaEngine engine;
+    private final HttpServer control;
+    private final HttpServer booking;
+    private final ExecutorService controlThreads;
+    private final ExecutorService bookingThreads;
+
+    private ControlEndpointStub(LocalSagaEngine engine, int controlPort, int bookingPort, int bookingThreadCount)
+            throws IOException {
+        this.engine = engine;
+        this.controlThreads = newHandlerPool("control-stub-", 2);
+        this.bookingThreads = newHandlerPool("booking-stub-", bookingThreadCount);
+        this.control = startServer(controlPort, controlThreads, this::handleControl);
+        this.booking = startServer(bookingPort, bookingThreads, this::handleBooking);
+        System.out.println("Control endpoint stub listening on " + getBaseUrl() + " for " + engine.getListeners()
+                + ", bookSeat on " + getBookingBaseUrl());
+    }
+
+    public static ControlEndpointStub start(LocalSagaEngine engine, int controlPort, int bookingPort) throws IOException {
+        return new ControlEndpointStub(engine, controlPort, bookingPort, Integer.getInteger("chaos.stub.threads", 16));
+    }
+
+    /** {@code chaos.stub.port} and {@code chaos.stub.booking.port}, both default 0 (a free port). */
+    public static ControlEndpointStub fromSystemProperties(LocalSagaEngine engine) throws IOException {
+        return start(engine, Integer.getInteger("chaos.stub.port", 0), Integer.getInteger("chaos.stub.booking.port", 0));
+    }
+
+    /** Base URL of the control endpoints. */
+    public String getBaseUrl() {
+        return "http://localhost:" + control.getAddress().getPort();
+    }
+
+    public String getBookingBaseUrl() {
+        return "http://localhost:" + booking.getAddress().getPort();
+    }
+
+    private void handleControl(HttpExchange exchange, String path) throws IOException {
+        if (path.startsWith(PAUSE)) {
+            String listener = path.substring(PAUSE.length());
+            respond(exchange, engine.pauseListener(listener) ? 200 : 404, "paused " + listener);
+        } else if (path.startsWith(RESUME)) {
+            String listener = path.substring(RESUME.length());
+            respond(exchange, engine.resumeListener(listener) ? 200 : 404, "resumed " + listener);
+        } else if (path.equals(SEAT_TIMEOUT + "enable")) {
+            engine.setSeatTimeout(true);
+            respond(exchange, 200, "seat-inventory timeout enabled");
+        } else if (path.equals(SEAT_TIMEOUT + "disable")) {
+            engine.setSeatTimeout(false);
+            respond(exchange, 200, "seat-inventory timeout disabled");
+        } else {
+            respond(exchange, 404, "no such endpoint: " + path);
+        }
+    }
+
+    private void handleBooking(HttpExchange exchange, String path) throws IOException {
+        if (!path.equals(BOOK_SEAT)) {
+            respond(exchange, 404, "no such endpoint: " + path);
+            return;
+        }
+        BookingRequest request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = bookingRequest(MAPPER.readTree(body));
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        respond(exchange, 200, MAPPER.writeValueAsString(engine.book(request)));
+    }
+
+    /**
+     * Only the fields the saga needs; the timestamp is left out, its JSON shape depends on the client's mapper.
+     */
+    private static BookingRequest bookingRequest(JsonNode json) {
+        List<String> seats = new ArrayList<>();
+        json.path("seatIds").forEach(seat -> seats.add(seat.asText()));
+        return new BookingRequest(
+                json.path("reservationId").asText(null),
+                json.path("showId").asText(null),
+                seats,
+                json.path("userId").asText(null),
+                null,
+                json.path("amount").asLong());
+    }
+
+    private static HttpServer startServer(int port, ExecutorService threads, Route route) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(threads);
+        server.createContext("/", handler(route));
+        server.start();
+        return server;
+    }
+
+    private static HttpHandler handler(Route route) {
+        return exchange -> {
+            try {
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    route.handle(exchange, exchange.getRequestURI().getPath());
+                } else {
+                    respond(exchange, 405, "POST only");
+                }
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Control endpoint stub failed on " + exchange.getRequestURI() + ": " + e.getMessage());
+                if (exchange.getResponseCode() < 0) {
+                    respond(exchange, 500, String.valueOf(e.getMessage()));
+                }
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static ExecutorService newHandlerPool(String prefix, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void close() {
+        control.stop(0);
+        booking.stop(0);
+        controlThreads.shutdownNow();
+        bookingThreads.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        void handle(HttpExchange exchange, String path) throws IOException;
+    }
+}
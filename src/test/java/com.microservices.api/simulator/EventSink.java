@@ -0,0 +1,9 @@
+package com.microservices.api.simulator;
+
+/**
+ * Where simulated participants publish their events; Kafka in the engine, anything in benchmarks.
+ */
+@FunctionalInterface
+public interface EventSink {
+    void emit(String topic, String key, Object event);
+}
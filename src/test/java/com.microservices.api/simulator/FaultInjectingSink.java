@@ -0,0 +1,45 @@
+package com.microservices.api.simulator;
+
+import com.microservices.api.constants.KafkaTestConstants;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delays every emitted event by the configured latency and publishes some of them twice.
+ */
+class FaultInjectingSink implements EventSink {
+
+    private final EventSink target;
+    private final SagaFaults faults;
+    private final ScheduledExecutorService scheduler;
+
+    FaultInjectingSink(EventSink target, SagaFaults faults, ScheduledExecutorService scheduler) {
+        this.target = target;
+        this.faults = faults;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void emit(String topic, String key, Object event) {
+        int step = stepOf(topic);
+        int copies = faults.duplicates(key, step) ? 2 : 1;
+        long delay = faults.delayMillis(key, step);
+        Runnable publish = () -> {
+            for (int i = 0; i < copies; i++) {
+                target.emit(topic, key, event);
+            }
+        };
+        if (delay > 0) {
+            scheduler.schedule(publish, delay, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler.execute(publish);
+        }
+    }
+
+    private static int stepOf(String topic) {
+        if (KafkaTestConstants.SEAT_RESERVED_TOPIC.equals(topic)) return SagaFaults.SEAT_STEP;
+        if (KafkaTestConstants.PAYMENT_EVENTS_TOPIC.equals(topic)) return SagaFaults.PAYMENT_STEP;
+        return SagaFaults.BOOKING_STEP;
+    }
+}
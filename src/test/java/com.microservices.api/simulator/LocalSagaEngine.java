@@ -0,0 +1,259 @@
+package com.microservices.api.simulator;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import com.microservices.api.model.request.BookingRequest;
+import com.microservices.api.model.response.BookingResponse;
+import com.microservices.api.seatmap.SeatMap;
+import com.microservices.api.seatmap.StripedLockSeatMap;
+import com.microservices.api.util.KafkaEventPublisher;
+import com.microservices.api.util.SeatInventoryListener;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the booking, seat-inventory and payment services.
+ * <p>
+ * {@link #overKafka(SimulatorConfig)} consumes {@code movie-booking-events}, {@code seat-reserved-topic}
+ * and {@code payment-events} and publishes back to them, so the harness (SagaEventIndex, DLT
+ * checks, load driver) sees the same traffic as with the real services on 9191/9292.
+ * {@link #inMemory(SimulatorConfig)} routes the events directly between participants, for measuring
+ * the harness without a broker.
+ * <p>
+ * Latency, failure rate and duplicate rate come from {@link SimulatorConfig}; outcomes are seeded per
+ * booking and booking ids follow the seed, so a run with the same seed and the same sequence of bookSeat
+ * requests behaves the same way.
+ * <p>
+ * Over Kafka each topic is consumed by one pump named after the real listener
+ * ({@link #SEAT_BOOKING_CREATED_LISTENER}, {@link #PAYMENT_SEAT_RESERVED_LISTENER},
+ * {@link #SEAT_PAYMENT_STATUS_LISTENER}), which can be paused and resumed like the services' listener
+ * containers; {@link #setSeatTimeout(boolean)} makes seat inventory dead-letter every booking. Both are
+ * what the 9292 control endpoints do, see {@link ControlEndpointStub}.
+ */
+public class LocalSagaEngine implements AutoCloseable {
+
+    public static final String SEAT_BOOKING_CREATED_LISTENER = "seat-booking-created-listener";
+    public static final String PAYMENT_SEAT_RESERVED_LISTENER = "payment-seat-reserved-listener";
+    public static final String SEAT_PAYMENT_STATUS_LISTENER = "seat-payment-status-listener";
+
+    private static final String DLT_SUFFIX = "-dlt";
+    private static final Set<String> LISTENED_TOPICS = Set.of(KafkaTestConstants.BOOKING_EVENTS_TOPIC,
+            KafkaTestConstants.SEAT_RESERVED_TOPIC, KafkaTestConstants.PAYMENT_EVENTS_TOPIC);
+    private static final String SEAT_TIMEOUT_EXCEPTION = "java.util.concurrent.TimeoutException";
+
+    private final SimulatorConfig config;
+    private final ScheduledExecutorService scheduler;
+    private final SeatMap seats;
+    private final SimulatedBookingService booking;
+    private final SimulatedSeatInventory seatInventory;
+    private final SeatInventoryListener seatInventoryListener;
+    private final SimulatedPaymentService payment;
+    private final Map<String, TopicPump<?>> pumps = new LinkedHashMap<>();
+
+    private LocalSagaEngine(SimulatorConfig config, SeatMap seats, boolean overKafka) {
+        this.config = config;
+        this.scheduler = newScheduler(config.getWorkerThreads());
+        this.seats = seats;
+
+        SagaFaults faults = new SagaFaults(config);
+        EventSink transport = overKafka ? LocalSagaEngine::publish : (topic, key, event) -> dispatch(topic, event);
+        EventSink sink = new FaultInjectingSink(transport, faults, scheduler);
+
+        this.booking = new SimulatedBookingService(sink, config.getSeed());
+        this.seatInventory = new SimulatedSeatInventory(seats, faults, sink);
+        this.seatInventoryListener = new SeatInventoryListener(seatInventory);
+        this.payment = new SimulatedPaymentService(config, faults, sink);
+
+        if (overKafka) {
+            addPump(new TopicPump<>(SEAT_BOOKING_CREATED_LISTENER, KafkaTestConstants.BOOKING_EVENTS_TOPIC,
+                    BookingCreatedEvent.class, (key, event) -> dispatch(KafkaTestConstants.BOOKING_EVENTS_TOPIC, event)));
+            addPump(new TopicPump<>(PAYMENT_SEAT_RESERVED_LISTENER, KafkaTestConstants.SEAT_RESERVED_TOPIC,
+                    SeatReservedEvent.class, (key, event) -> dispatch(KafkaTestConstants.SEAT_RESERVED_TOPIC, event)));
+            addPump(new TopicPump<>(SEAT_PAYMENT_STATUS_LISTENER, KafkaTestConstants.PAYMENT_EVENTS_TOPIC,
+                    BookingPaymentEvent.class, (key, event) -> dispatch(KafkaTestConstants.PAYMENT_EVENTS_TOPIC, event)));
+        }
+        System.out.println("Local saga engine started (" + (overKafka ? "kafka" : "in-memory") + "): " + config);
+    }
+
+    public static LocalSagaEngine overKafka(SimulatorConfig config) {
+        return overKafka(config, new StripedLockSeatMap(config.getSeatLockStripes()));
+    }
+
+    public static LocalSagaEngine overKafka(SimulatorConfig config, SeatMap seats) {
+        return new LocalSagaEngine(config, seats, true);
+    }
+
+    public static LocalSagaEngine inMemory(SimulatorConfig config) {
+        return inMemory(config, new StripedLockSeatMap(config.getSeatLockStripes()));
+    }
+
+    /**
+     * @param seats seat state of the seat-inventory participant, e.g. a {@code CasBitsetSeatMap}
+     *              or a {@code DbRowLockSeatMap} to compare contention strategies end to end
+     */
+    public static LocalSagaEngine inMemory(SimulatorConfig config, SeatMap seats) {
+        return new LocalSagaEngine(config, seats, false);
+    }
+
+    /**
+     * The bookSeat endpoint: registers a PENDING booking and publishes its BookingCreatedEvent.
+     */
+    public BookingResponse book(BookingRequest request) {
+        return booking.book(request);
+    }
+
+    public String getBookingStatus(String bookingId) {
+        return booking.getStatus(bookingId);
+    }
+
+    public String getSeatHolder(String showId, String seat) {
+        return seats.holder(showId, seat);
+    }
+
+    /** Pre-locks a seat for another booking, like {@code TestDataSeeder.lockSeat}. */
+    public void lockSeat(String showId, String seat, String holder) {
+        seats.forceLock(showId, seat, holder);
+    }
+
+    public SimulatorConfig getConfig() {
+        return config;
+    }
+
+    /** Names of the listeners that can be paused; empty for an in-memory engine. */
+    public Set<String> getListeners() {
+        return Collections.unmodifiableSet(pumps.keySet());
+    }
+
+    /**
+     * Groups the pumps commit under; they never join them, so pass these to a lag sampler explicitly.
+     */
+    public Set<String> getConsumerGroups() {
+        Set<String> groups = new LinkedHashSet<>();
+        pumps.values().forEach(pump -> groups.add(pump.getGroupId()));
+        return groups;
+    }
+
+    /**
+     * Stops consuming for one listener; its topic builds up lag until {@link #resumeListener(String)}.
+     *
+     * @return false if there is no such listener
+     */
+    public boolean pauseListener(String listener) {
+        TopicPump<?> pump = pumps.get(listener);
+        if (pump == null) {
+            return false;
+        }
+        pump.pause();
+        System.out.println("Saga simulator paused " + listener);
+        return true;
+    }
+
+    public boolean resumeListener(String listener) {
+        TopicPump<?> pump = pumps.get(listener);
+        if (pump == null) {
+            return false;
+        }
+        pump.resume();
+        System.out.println("Saga simulator resumed " + listener);
+        return true;
+    }
+
+    public boolean isListenerPaused(String listener) {
+        TopicPump<?> pump = pumps.get(listener);
+        return pump != null && pump.isPaused();
+    }
+
+    /** Seat-inventory timeout simulation: while on, every new booking goes to the DLT instead of reserving. */
+    public void setSeatTimeout(boolean enabled) {
+        seatInventory.setTimeouts(enabled);
+        System.out.println("Saga simulator seat-inventory timeout " + (enabled ? "enabled" : "disabled"));
+    }
+
+    public boolean isSeatTimeout() {
+        return seatInventory.isTimeouts();
+    }
+
+    private void addPump(TopicPump<?> pump) {
+        pumps.put(pump.getListener(), pump);
+    }
+
+    /**
+     * Delivers {@code event} to the participants listening on {@code topic}. Nothing listens on the DLTs:
+     * a dead-lettered BookingCreatedEvent must not reach seat inventory again.
+     */
+    private void dispatch(String topic, Object event) {
+        if (!LISTENED_TOPICS.contains(topic)) {
+            if (!topic.endsWith(DLT_SUFFIX)) {
+                System.out.println("Saga simulator ignored " + event + " from " + topic);
+            }
+            return;
+        }
+        if (event instanceof BookingCreatedEvent) {
+            seatInventoryListener.consume((BookingCreatedEvent) event);
+        } else if (event instanceof SeatReservedEvent) {
+            SeatReservedEvent seatEvent = (SeatReservedEvent) event;
+            payment.handleSeatReserved(seatEvent);
+            booking.onSeatReserved(seatEvent);
+        } else if (event instanceof BookingPaymentEvent) {
+            BookingPaymentEvent paymentEvent = (BookingPaymentEvent) event;
+            seatInventory.handlePayment(paymentEvent);
+            booking.onPayment(paymentEvent);
+        } else {
+            System.out.println("Saga simulator ignored " + event + " from " + topic);
+        }
+    }
+
+    private static void publish(String topic, String key, Object event) {
+        Headers headers = topic.endsWith(DLT_SUFFIX) ? deadLetterHeaders(topic) : null;
+        KafkaEventPublisher.shared().publishAsync(topic, key, event, headers).whenComplete((metadata, e) -> {
+            if (e != null) {
+                System.out.println("Saga simulator failed to publish to " + topic + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * The headers DeadLetterPublishingRecoverer adds, so the DLT inspector sees simulated timeouts like real ones.
+     */
+    private static Headers deadLetterHeaders(String dltTopic) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(KafkaHeaders.DLT_ORIGINAL_TOPIC,
+                dltTopic.substring(0, dltTopic.length() - DLT_SUFFIX.length()).getBytes(StandardCharsets.UTF_8));
+        headers.add(KafkaHeaders.DLT_EXCEPTION_FQCN, SEAT_TIMEOUT_EXCEPTION.getBytes(StandardCharsets.UTF_8));
+        headers.add(KafkaHeaders.DLT_EXCEPTION_MESSAGE,
+                "Seat inventory timed out (simulated)".getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+
+    private static ScheduledExecutorService newScheduler(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newScheduledThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "saga-sim-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (TopicPump<?> pump : pumps.values()) {
+            pump.close();
+        }
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
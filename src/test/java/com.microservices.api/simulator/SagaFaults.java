@@ -0,0 +1,45 @@
+package com.microservices.api.simulator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seeded fault decisions.
+ * <p>
+ * Each decision is derived from (seed, bookingId, step) instead of a shared {@code Random}, so the
+ * same booking gets the same latency, failure and duplicate outcome on every run no matter how the
+ * participant threads interleave.
+ */
+class SagaFaults {
+
+    static final int SEAT_STEP = 1;
+    static final int PAYMENT_STEP = 2;
+    static final int BOOKING_STEP = 3;
+
+    private final SimulatorConfig config;
+
+    SagaFaults(SimulatorConfig config) {
+        this.config = config;
+    }
+
+    boolean fails(String bookingId, int step) {
+        return config.getFailureRate() > 0 && random(bookingId, step, 1).nextDouble() < config.getFailureRate();
+    }
+
+    boolean duplicates(String bookingId, int step) {
+        return config.getDuplicateRate() > 0 && random(bookingId, step, 2).nextDouble() < config.getDuplicateRate();
+    }
+
+    long delayMillis(String bookingId, int step) {
+        long jitter = config.getLatencyJitter().toMillis();
+        long extra = jitter > 0 ? random(bookingId, step, 3).nextLong(jitter) : 0;
+        return config.getLatency().toMillis() + extra;
+    }
+
+    private SplittableRandom random(String bookingId, int step, int purpose) {
+        long mixed = config.getSeed() * 0x9E3779B97F4A7C15L
+                + (bookingId == null ? 0 : bookingId.hashCode()) * 31L
+                + step * 1_000_003L
+                + purpose;
+        return new SplittableRandom(mixed);
+    }
+}
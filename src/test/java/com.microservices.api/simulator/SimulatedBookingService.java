@@ -0,0 +1,65 @@
+package com.microservices.api.simulator;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import com.microservices.api.model.request.BookingRequest;
+import com.microservices.api.model.response.BookingResponse;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking participant: accepts bookSeat requests, starts the saga and follows it to
+ * CONFIRMED or FAILED from the seat and payment events.
+ * <p>
+ * Booking ids are derived from the simulator seed and a request counter, so the n-th booking of a run
+ * gets the same id (and therefore the same seeded faults) every time the run is repeated.
+ */
+public class SimulatedBookingService {
+
+    static final String PENDING = "PENDING";
+    static final String CONFIRMED = "CONFIRMED";
+    static final String FAILED = "FAILED";
+
+    private final EventSink sink;
+    private final long seed;
+    private final AtomicLong requests = new AtomicLong();
+    private final ConcurrentMap<String, String> statuses = new ConcurrentHashMap<>();
+
+    SimulatedBookingService(EventSink sink, long seed) {
+        this.sink = sink;
+        this.seed = seed;
+    }
+
+    public BookingResponse book(BookingRequest request) {
+        String bookingId = new UUID(seed, requests.incrementAndGet()).toString();
+        statuses.put(bookingId, PENDING);
+        sink.emit(KafkaTestConstants.BOOKING_EVENTS_TOPIC, bookingId, new BookingCreatedEvent(
+                bookingId,
+                request.getUserId(),
+                request.getShowId(),
+                request.getSeatIds(),
+                request.getAmount()
+        ));
+        return new BookingResponse(bookingId, PENDING);
+    }
+
+    public void onSeatReserved(SeatReservedEvent event) {
+        if (!event.isReserved()) {
+            statuses.computeIfPresent(event.getBookingId(), (id, status) -> CONFIRMED.equals(status) ? status : FAILED);
+        }
+    }
+
+    public void onPayment(BookingPaymentEvent event) {
+        statuses.computeIfPresent(event.getBookingId(),
+                (id, status) -> PENDING.equals(status) ? (event.isPaymentCompleted() ? CONFIRMED : FAILED) : status);
+    }
+
+    public String getStatus(String bookingId) {
+        return statuses.get(bookingId);
+    }
+}
@@ -0,0 +1,37 @@
+package com.microservices.api.simulator;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Payment participant: charges bookings whose seats were reserved. Amounts above the configured
+ * limit are declined, as in the real payment service. Each booking is charged at most once.
+ */
+public class SimulatedPaymentService {
+
+    private final SimulatorConfig config;
+    private final SagaFaults faults;
+    private final EventSink sink;
+    private final Set<String> charged = ConcurrentHashMap.newKeySet();
+
+    SimulatedPaymentService(SimulatorConfig config, SagaFaults faults, EventSink sink) {
+        this.config = config;
+        this.faults = faults;
+        this.sink = sink;
+    }
+
+    public void handleSeatReserved(SeatReservedEvent event) {
+        if (!event.isReserved() || !charged.add(event.getBookingId())) {
+            return;
+        }
+        String bookingId = event.getBookingId();
+        boolean completed = event.getAmount() <= config.getPaymentLimit()
+                && !faults.fails(bookingId, SagaFaults.PAYMENT_STEP);
+        sink.emit(KafkaTestConstants.PAYMENT_EVENTS_TOPIC, bookingId,
+                new BookingPaymentEvent(bookingId, completed, event.getAmount()));
+    }
+}
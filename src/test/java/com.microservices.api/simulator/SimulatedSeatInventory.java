@@ -0,0 +1,79 @@
+package com.microservices.api.simulator;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import com.microservices.api.seatmap.SeatMap;
+import com.microservices.api.util.SeatInventoryService;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Seat-inventory participant: locks all requested seats or none, and releases them again when
+ * payment fails. Duplicate deliveries of the same booking are ignored.
+ * <p>
+ * With {@link #setTimeouts(boolean) timeouts} on, every booking fails like the real service's
+ * {@code /internal/test/seat-inventory/timeout} mode once its retries are exhausted: nothing is
+ * reserved and the BookingCreatedEvent is dead-lettered to {@code movie-booking-events-dlt}.
+ */
+public class SimulatedSeatInventory implements SeatInventoryService {
+
+    private final SeatMap seats;
+    private final SagaFaults faults;
+    private final EventSink sink;
+    private final ConcurrentMap<String, BookingCreatedEvent> reservations = new ConcurrentHashMap<>();
+    private final Set<String> settled = ConcurrentHashMap.newKeySet();
+    private volatile boolean timeouts;
+
+    SimulatedSeatInventory(SeatMap seats, SagaFaults faults, EventSink sink) {
+        this.seats = seats;
+        this.faults = faults;
+        this.sink = sink;
+    }
+
+    @Override
+    public void handleBooking(BookingCreatedEvent event) {
+        String bookingId = event.getBookingId();
+        if (timeouts) {
+            sink.emit(KafkaTestConstants.BOOKING_EVENTS_DLT, bookingId, event);
+            return;
+        }
+        if (reservations.putIfAbsent(bookingId, event) != null) {
+            return;
+        }
+        boolean reserved = !faults.fails(bookingId, SagaFaults.SEAT_STEP)
+                && seats.tryReserveAll(event.getShowId(), event.getSeatIds(), bookingId);
+        if (!reserved) {
+            settled.add(bookingId);
+        }
+        sink.emit(KafkaTestConstants.SEAT_RESERVED_TOPIC, bookingId,
+                new SeatReservedEvent(bookingId, reserved, event.getAmount()));
+    }
+
+    public void setTimeouts(boolean timeouts) {
+        this.timeouts = timeouts;
+    }
+
+    public boolean isTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Compensation: a declined payment releases the seats and announces it with {@code reserved=false}.
+     */
+    public void handlePayment(BookingPaymentEvent event) {
+        String bookingId = event.getBookingId();
+        BookingCreatedEvent reservation = reservations.get(bookingId);
+        if (reservation == null || !settled.add(bookingId)) {
+            return;
+        }
+        if (!event.isPaymentCompleted()) {
+            seats.releaseAll(reservation.getShowId(), reservation.getSeatIds(), bookingId);
+            sink.emit(KafkaTestConstants.SEAT_RESERVED_TOPIC, bookingId,
+                    new SeatReservedEvent(bookingId, false, event.getAmount()));
+        }
+    }
+}
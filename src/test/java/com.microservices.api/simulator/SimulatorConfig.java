@@ -0,0 +1,107 @@
+package com.microservices.api.simulator;
+
+import java.time.Duration;
+
+/**
+ * Behaviour of the {@link LocalSagaEngine} participants.
+ * Every value can be overridden with a -D system property, e.g.
+ * {@code -Dsim.latency.ms=20 -Dsim.failure.rate=0.05 -Dsim.duplicate.rate=0.1}
+ */
+public class SimulatorConfig {
+
+    private final Duration latency;
+    private final Duration latencyJitter;
+    private final double failureRate;
+    private final double duplicateRate;
+    private final long paymentLimit;
+    private final long seed;
+    private final int seatLockStripes;
+    private final int workerThreads;
+
+    public SimulatorConfig(
+            Duration latency,
+            Duration latencyJitter,
+            double failureRate,
+            double duplicateRate,
+            long paymentLimit,
+            long seed,
+            int seatLockStripes,
+            int workerThreads
+    ) {
+        if (failureRate < 0 || failureRate > 1 || duplicateRate < 0 || duplicateRate > 1) {
+            throw new IllegalArgumentException("failureRate and duplicateRate must be within [0, 1]");
+        }
+        this.latency = latency;
+        this.latencyJitter = latencyJitter;
+        this.failureRate = failureRate;
+        this.duplicateRate = duplicateRate;
+        this.paymentLimit = paymentLimit;
+        this.seed = seed;
+        this.seatLockStripes = seatLockStripes;
+        this.workerThreads = workerThreads;
+    }
+
+    public static SimulatorConfig fromSystemProperties() {
+        return new SimulatorConfig(
+                Duration.ofMillis(Long.getLong("sim.latency.ms", 0L)),
+                Duration.ofMillis(Long.getLong("sim.latency.jitter.ms", 0L)),
+                Double.parseDouble(System.getProperty("sim.failure.rate", "0")),
+                Double.parseDouble(System.getProperty("sim.duplicate.rate", "0")),
+                Long.getLong("sim.payment.limit", 3000L),
+                Long.getLong("sim.seed", 42L),
+                Integer.getInteger("sim.seat.lock.stripes", 64),
+                Integer.getInteger("sim.worker.threads", 4)
+        );
+    }
+
+    /** Fixed delay added before every event a participant emits. */
+    public Duration getLatency() {
+        return latency;
+    }
+
+    /** Extra random delay in [0, jitter) on top of {@link #getLatency()}. */
+    public Duration getLatencyJitter() {
+        return latencyJitter;
+    }
+
+    /** Probability that a participant rejects a step that would otherwise succeed. */
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    /** Probability that an emitted event is published twice. */
+    public double getDuplicateRate() {
+        return duplicateRate;
+    }
+
+    /** Payments above this amount are declined, like the real payment service. */
+    public long getPaymentLimit() {
+        return paymentLimit;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSeatLockStripes() {
+        return seatLockStripes;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatorConfig{" +
+                "latency=" + latency +
+                ", latencyJitter=" + latencyJitter +
+                ", failureRate=" + failureRate +
+                ", duplicateRate=" + duplicateRate +
+                ", paymentLimit=" + paymentLimit +
+                ", seed=" + seed +
+                ", seatLockStripes=" + seatLockStripes +
+                ", workerThreads=" + workerThreads +
+                '}';
+    }
+}
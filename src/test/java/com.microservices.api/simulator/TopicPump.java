@@ -0,0 +1,106 @@
+package com.microservices.api.simulator;
+
+import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RecordDeserializationException;
+import org.apache.kafka.common.errors.WakeupException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Background consumer that hands every record of one topic to a participant, in partition order.
+ * <p>
+ * Each pump stands in for one listener of the real services: it commits its position under the group
+ * {@code saga-sim-<listener>} (so consumer lag shows up like the services' own) and can be paused
+ * and resumed like a listener container.
+ */
+class TopicPump<T> implements AutoCloseable {
+
+    private final String listener;
+    private final String groupId;
+    private final Consumer<String, T> consumer;
+    private final Thread poller;
+    private volatile boolean running = true;
+    private volatile boolean paused;
+
+    TopicPump(String listener, String topic, Class<T> valueType, BiConsumer<String, T> handler) {
+        this.listener = listener;
+        this.groupId = "saga-sim-" + listener;
+        this.consumer = BaseKafkaIntegrationTest.createAssignedConsumer(valueType, topic, groupId);
+        // replaces whatever an earlier run left committed, so the group's lag starts at 0
+        Map<TopicPartition, OffsetAndMetadata> positions = new HashMap<>();
+        consumer.assignment().forEach(tp -> positions.put(tp, new OffsetAndMetadata(consumer.position(tp))));
+        consumer.commitSync(positions);
+        this.poller = new Thread(() -> pollLoop(handler), "saga-sim-" + topic);
+        this.poller.setDaemon(true);
+        this.poller.start();
+    }
+
+    String getListener() {
+        return listener;
+    }
+
+    String getGroupId() {
+        return groupId;
+    }
+
+    /** Stops fetching (records pile up as lag) until {@link #resume()}; takes effect on the next poll. */
+    void pause() {
+        paused = true;
+    }
+
+    void resume() {
+        paused = false;
+    }
+
+    boolean isPaused() {
+        return paused;
+    }
+
+    private void pollLoop(BiConsumer<String, T> handler) {
+        boolean pausedNow = false;
+        try {
+            while (running) {
+                if (paused != pausedNow) {
+                    pausedNow = paused;
+                    if (pausedNow) {
+                        consumer.pause(consumer.assignment());
+                    } else {
+                        consumer.resume(consumer.assignment());
+                    }
+                }
+                try {
+                    ConsumerRecords<String, T> records = consumer.poll(Duration.ofMillis(100));
+                    for (ConsumerRecord<String, T> record : records) {
+                        if (record.value() != null) {
+                            handler.accept(record.key(), record.value());
+                        }
+                    }
+                    if (!records.isEmpty()) {
+                        consumer.commitAsync();
+                    }
+                } catch (RecordDeserializationException e) {
+                    consumer.seek(e.topicPartition(), e.offset() + 1);
+                }
+            }
+        } catch (WakeupException e) {
+            // closing
+        } finally {
+            consumer.close();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        consumer.wakeup();
+        poller.join(5_000);
+    }
+}
@@ -0,0 +1,269 @@
+package com.microservices.api.streams;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.model.events.BookingCreatedEvent;
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import com.microservices.api.serde.SagaEventDeserializer;
+import com.microservices.api.util.DeliveryMode;
+import com.microservices.api.util.KafkaBootstrap;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.utils.Utils;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.LogAndContinueExceptionHandler;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Continuously checks that every BookingCreatedEvent is followed by exactly one terminal outcome - a
+ * SeatReservedEvent with {@code reserved=false} or a BookingPaymentEvent - while the traffic is running.
+ * A {@code reserved=false} after the seat was reserved is the release compensating a failed payment,
+ * not a second outcome.
+ * <p>
+ * A Kafka Streams topology (Processor API) reads the three saga topics of {@link KafkaTestConstants} into
+ * one in-memory state store keyed by bookingId; a wall-clock punctuator expires each saga one saga
+ * timeout after its last event, which is the window the store keeps. Orphaned, duplicated and
+ * out-of-order sagas are reported as {@link SagaViolation}s the moment they are detected: to listeners
+ * registered with {@link #onViolation(Consumer)}, in the per-type counts and in the first
+ * {@value #MAX_LISTED} violations kept verbatim.
+ * <p>
+ * Only events with a record timestamp after {@link #start()} are checked, so start the checker before
+ * the traffic it should watch. The store is not backed by a changelog topic: the checker is a test
+ * observer and is started fresh for every run. Tunable with {@code -Dstreams.check.timeout.seconds}
+ * (default 30), {@code -Dstreams.check.threads} (default 3, one per partition of the embedded broker) and
+ * {@code -Dstreams.check.punctuate.ms} (default 1000). Processing lag is recorded as {@code saga.check.lag}.
+ */
+public class SagaInvariantChecker implements AutoCloseable {
+
+    static final String STORE = "saga-state";
+    static final int MAX_LISTED = 1000;
+
+    private final Duration sagaTimeout;
+    private final Duration punctuateInterval;
+    private final int threads;
+    private final Map<SagaViolation.Type, LongAdder> counts = new EnumMap<>(SagaViolation.Type.class);
+    private final List<SagaViolation> listed = Collections.synchronizedList(new ArrayList<>());
+    private final List<Consumer<SagaViolation>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong processed = new AtomicLong();
+    private KafkaStreams streams;
+    private Path stateDir;
+
+    public SagaInvariantChecker(Duration sagaTimeout, Duration punctuateInterval, int threads) {
+        this.sagaTimeout = sagaTimeout;
+        this.punctuateInterval = punctuateInterval;
+        this.threads = threads;
+        for (SagaViolation.Type type : SagaViolation.Type.values()) {
+            counts.put(type, new LongAdder());
+        }
+    }
+
+    public static SagaInvariantChecker fromSystemProperties() {
+        return new SagaInvariantChecker(
+                Duration.ofSeconds(Long.getLong("streams.check.timeout.seconds", 30)),
+                Duration.ofMillis(Long.getLong("streams.check.punctuate.ms", 1000)),
+                Integer.getInteger("streams.check.threads", 3));
+    }
+
+    /**
+     * The checking topology; events older than {@code sinceMillis} are ignored.
+     */
+    public static Topology topology(Duration sagaTimeout, Duration punctuateInterval, long sinceMillis,
+                                    Consumer<SagaViolation> violations, AtomicLong processed) {
+        Topology topology = new Topology();
+        topology.addSource("booking-created", new StringDeserializer(),
+                new SagaEventDeserializer<>(BookingCreatedEvent.class, false), KafkaTestConstants.BOOKING_EVENTS_TOPIC);
+        topology.addSource("seat-reserved", new StringDeserializer(),
+                new SagaEventDeserializer<>(SeatReservedEvent.class, false), KafkaTestConstants.SEAT_RESERVED_TOPIC);
+        topology.addSource("payment", new StringDeserializer(),
+                new SagaEventDeserializer<>(BookingPaymentEvent.class, false), KafkaTestConstants.PAYMENT_EVENTS_TOPIC);
+
+        topology.addProcessor("check-booking-created", () -> new SagaInvariantProcessor<BookingCreatedEvent>(
+                SagaInvariantProcessor.Source.BOOKING_CREATED, sagaTimeout, punctuateInterval, sinceMillis, violations, processed),
+                "booking-created");
+        topology.addProcessor("check-seat-reserved", () -> new SagaInvariantProcessor<SeatReservedEvent>(
+                SagaInvariantProcessor.Source.SEAT_RESERVED, sagaTimeout, punctuateInterval, sinceMillis, violations, processed),
+                "seat-reserved");
+        topology.addProcessor("check-payment", () -> new SagaInvariantProcessor<BookingPaymentEvent>(
+                SagaInvariantProcessor.Source.PAYMENT, sagaTimeout, punctuateInterval, sinceMillis, violations, processed),
+                "payment");
+
+        topology.addStateStore(
+                Stores.keyValueStoreBuilder(Stores.inMemoryKeyValueStore(STORE), Serdes.String(), SagaState.SERDE)
+                        .withLoggingDisabled(),
+                "check-booking-created", "check-seat-reserved", "check-payment");
+        return topology;
+    }
+
+    /**
+     * Starts the topology and blocks until it is running; events from now on are checked.
+     */
+    public synchronized SagaInvariantChecker start() throws InterruptedException {
+        if (streams != null) {
+            throw new IllegalStateException("Saga invariant checker already started");
+        }
+        try {
+            stateDir = Files.createTempDirectory("saga-invariant-checker");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long since = System.currentTimeMillis();
+        streams = new KafkaStreams(topology(sagaTimeout, punctuateInterval, since, this::report, processed), streamsProperties());
+
+        CountDownLatch running = new CountDownLatch(1);
+        streams.setStateListener((newState, oldState) -> {
+            if (newState == KafkaStreams.State.RUNNING || newState == KafkaStreams.State.ERROR) {
+                running.countDown();
+            }
+        });
+        streams.start();
+        if (!running.await(60, TimeUnit.SECONDS) || streams.state() != KafkaStreams.State.RUNNING) {
+            throw new IllegalStateException("Saga invariant checker did not start: " + streams.state());
+        }
+        System.out.println("Saga invariant checker running (timeout " + sagaTimeout.toSeconds() + "s, "
+                + threads + " threads)");
+        return this;
+    }
+
+    private Properties streamsProperties() {
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "saga-invariant-checker-" + UUID.randomUUID().toString().substring(0, 8));
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaBootstrap.servers());
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, threads);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, 1000);
+        props.put(StreamsConfig.DEFAULT_DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG, LogAndContinueExceptionHandler.class);
+        // a fresh application id has no committed offsets; older records are skipped by timestamp
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG), "earliest");
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.ISOLATION_LEVEL_CONFIG),
+                DeliveryMode.fromSystemProperty().isolationLevel());
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.MAX_POLL_RECORDS_CONFIG), 5_000);
+        return props;
+    }
+
+    public Duration getSagaTimeout() {
+        return sagaTimeout;
+    }
+
+    /** Called for every violation as soon as it is detected, on a stream thread. */
+    public SagaInvariantChecker onViolation(Consumer<SagaViolation> listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    private void report(SagaViolation violation) {
+        counts.get(violation.getType()).increment();
+        if (listed.size() < MAX_LISTED) {
+            listed.add(violation);
+        }
+        for (Consumer<SagaViolation> listener : listeners) {
+            listener.accept(violation);
+        }
+    }
+
+    /** Events checked so far. */
+    public long processed() {
+        return processed.get();
+    }
+
+    public long count(SagaViolation.Type type) {
+        return counts.get(type).sum();
+    }
+
+    public long violationCount() {
+        return counts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /** The first {@value #MAX_LISTED} violations, in detection order. */
+    public List<SagaViolation> violations() {
+        synchronized (listed) {
+            return List.copyOf(listed);
+        }
+    }
+
+    public boolean isClean() {
+        return violationCount() == 0;
+    }
+
+    /**
+     * Sagas in the store that have not reached a terminal outcome yet (interactive query).
+     */
+    public long pendingSagas() {
+        ReadOnlyKeyValueStore<String, SagaState> store =
+                streams.store(StoreQueryParameters.fromNameAndType(STORE, QueryableStoreTypes.keyValueStore()));
+        long pending = 0;
+        try (KeyValueIterator<String, SagaState> it = store.all()) {
+            while (it.hasNext()) {
+                if (!it.next().value.isTerminal()) {
+                    pending++;
+                }
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Waits until every checked saga has reached its outcome or has been reported as orphaned, which
+     * takes at most one saga timeout (plus a punctuation interval) after the last event.
+     *
+     * @return whether nothing was pending any more before {@code maxWait} ran out
+     */
+    public boolean awaitSettled(Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (pendingSagas() == 0) {
+                return true;
+            }
+            Thread.sleep(punctuateInterval.toMillis());
+        }
+        return pendingSagas() == 0;
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder("Saga invariant checker: " + processed() + " events checked");
+        counts.forEach((type, count) -> sb.append(", ").append(type).append('=').append(count.sum()));
+        synchronized (listed) {
+            listed.stream().limit(20).forEach(v -> sb.append("\n  ").append(v));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (streams == null) {
+            return;
+        }
+        streams.close(Duration.ofSeconds(10));
+        streams = null;
+        try {
+            Utils.delete(stateDir.toFile());
+        } catch (IOException e) {
+            System.out.println("Could not delete " + stateDir + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.microservices.api.streams;
+
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.events.SeatReservedEvent;
+import main.java.com.microservices.api.core.LatencyRecorder;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Applies one saga topic to the shared {@code saga-state} store. The three topics are co-partitioned by
+ * bookingId, so all events of a saga meet in the same task; their order is judged by record timestamp.
+ * <p>
+ * The processor of the booking topic also owns the wall-clock punctuator that expires state: a saga
+ * that has seen no event for the saga timeout is dropped, and reported as orphaned if it never reached a
+ * terminal outcome. Finished sagas therefore stay around for one timeout to catch late duplicates.
+ */
+final class SagaInvariantProcessor<V> implements Processor<String, V, Void, Void> {
+
+    enum Source { BOOKING_CREATED, SEAT_RESERVED, PAYMENT }
+
+    private final Source source;
+    private final Duration sagaTimeout;
+    private final Duration punctuateInterval;
+    private final long sinceMillis;
+    private final Consumer<SagaViolation> violations;
+    private final AtomicLong processed;
+    private final LatencyRecorder lag = LatencyRecorder.of("saga.check.lag");
+    private KeyValueStore<String, SagaState> store;
+
+    SagaInvariantProcessor(Source source, Duration sagaTimeout, Duration punctuateInterval, long sinceMillis,
+                           Consumer<SagaViolation> violations, AtomicLong processed) {
+        this.source = source;
+        this.sagaTimeout = sagaTimeout;
+        this.punctuateInterval = punctuateInterval;
+        this.sinceMillis = sinceMillis;
+        this.violations = violations;
+        this.processed = processed;
+    }
+
+    @Override
+    public void init(ProcessorContext<Void, Void> context) {
+        this.store = context.getStateStore(SagaInvariantChecker.STORE);
+        if (source == Source.BOOKING_CREATED) {
+            context.schedule(punctuateInterval, PunctuationType.WALL_CLOCK_TIME, this::expire);
+        }
+    }
+
+    @Override
+    public void process(Record<String, V> record) {
+        String bookingId = record.key();
+        long timestamp = record.timestamp();
+        if (bookingId == null || record.value() == null || timestamp < sinceMillis) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lag.recordMillis(now - timestamp);
+        processed.incrementAndGet();
+
+        SagaState state = store.get(bookingId);
+        if (state == null) {
+            state = new SagaState();
+        }
+        switch (source) {
+            case BOOKING_CREATED:
+                if (state.isCreated()) {
+                    flag(SagaViolation.Type.DUPLICATED, bookingId, "BookingCreatedEvent seen again", timestamp);
+                    break;
+                }
+                state.createdAt = timestamp;
+                checkOrder(bookingId, state.createdAt, state.seatReservedAt, "seat reservation", timestamp);
+                checkOrder(bookingId, state.createdAt, state.outcomeAt, "saga outcome", timestamp);
+                break;
+            case SEAT_RESERVED:
+                if (((SeatReservedEvent) record.value()).isReserved()) {
+                    if (state.seatReservedAt == 0) {
+                        state.seatReservedAt = timestamp;
+                        checkOrder(bookingId, state.createdAt, state.seatReservedAt, "seat reservation", timestamp);
+                        checkOrder(bookingId, state.seatReservedAt, state.paymentAt, "payment", timestamp);
+                    }
+                } else if (state.seatReservedAt == 0) {
+                    outcome(bookingId, state, timestamp, "seat reservation rejected");
+                }
+                // otherwise it is the seat release that compensates a failed payment, not an outcome of its own
+                break;
+            case PAYMENT:
+                if (state.paymentAt == 0) {
+                    state.paymentAt = timestamp;
+                    checkOrder(bookingId, state.seatReservedAt, state.paymentAt, "payment", timestamp);
+                }
+                outcome(bookingId, state, timestamp,
+                        ((BookingPaymentEvent) record.value()).isPaymentCompleted() ? "payment completed" : "payment failed");
+                break;
+        }
+        state.updatedWallClock = now;
+        store.put(bookingId, state);
+    }
+
+    /**
+     * Flags {@code later} when both events are known and its record timestamp is before {@code earlier}'s.
+     * Called when the second of the two arrives, so each pair is judged once; the arrival order itself
+     * does not matter, Kafka Streams interleaves the three topics as their fetches come in.
+     */
+    private void checkOrder(String bookingId, long earlierAt, long laterAt, String later, long timestamp) {
+        if (earlierAt != 0 && laterAt != 0 && laterAt < earlierAt) {
+            flag(SagaViolation.Type.OUT_OF_ORDER, bookingId,
+                    later + " " + (earlierAt - laterAt) + " ms before the event it must follow", timestamp);
+        }
+    }
+
+    private void outcome(String bookingId, SagaState state, long timestamp, String what) {
+        state.outcomes++;
+        if (state.outcomes == 1) {
+            state.outcomeAt = timestamp;
+            checkOrder(bookingId, state.createdAt, state.outcomeAt, "saga outcome", timestamp);
+        } else {
+            flag(SagaViolation.Type.DUPLICATED, bookingId,
+                    "terminal outcome #" + state.outcomes + " (" + what + ")", timestamp);
+        }
+    }
+
+    private void expire(long now) {
+        long timeout = sagaTimeout.toMillis();
+        List<String> expired = new ArrayList<>();
+        try (KeyValueIterator<String, SagaState> it = store.all()) {
+            while (it.hasNext()) {
+                KeyValue<String, SagaState> entry = it.next();
+                SagaState state = entry.value;
+                long idle = now - state.updatedWallClock;
+                if (idle < timeout) {
+                    continue;
+                }
+                if (!state.isCreated()) {
+                    flag(SagaViolation.Type.ORPHANED, entry.key, "saga events without a BookingCreatedEvent", now);
+                } else if (!state.isTerminal()) {
+                    flag(SagaViolation.Type.ORPHANED, entry.key,
+                            "no terminal outcome within " + sagaTimeout.toSeconds() + "s", now);
+                }
+                expired.add(entry.key);
+            }
+        }
+        expired.forEach(store::delete);
+    }
+
+    private void flag(SagaViolation.Type type, String bookingId, String detail, long timestamp) {
+        violations.accept(new SagaViolation(type, bookingId, detail, timestamp));
+    }
+}
@@ -0,0 +1,69 @@
+package com.microservices.api.streams;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * What the checker knows about one saga: record timestamps of the events seen so far (0 = not seen),
+ * the number of terminal outcomes and the wall-clock time of the last update, which drives expiry.
+ * Stored as a fixed 44-byte value.
+ */
+final class SagaState {
+
+    static final Serde<SagaState> SERDE = Serdes.serdeFrom(new StateSerializer(), new StateDeserializer());
+    private static final int SIZE = 5 * Long.BYTES + Integer.BYTES;
+
+    long createdAt;
+    long seatReservedAt;
+    long paymentAt;
+    long outcomeAt;
+    int outcomes;
+    long updatedWallClock;
+
+    boolean isCreated() {
+        return createdAt != 0;
+    }
+
+    boolean isTerminal() {
+        return outcomes > 0;
+    }
+
+    private static final class StateSerializer implements Serializer<SagaState> {
+        @Override
+        public byte[] serialize(String topic, SagaState state) {
+            if (state == null) {
+                return null;
+            }
+            return ByteBuffer.allocate(SIZE)
+                    .putLong(state.createdAt)
+                    .putLong(state.seatReservedAt)
+                    .putLong(state.paymentAt)
+                    .putLong(state.outcomeAt)
+                    .putInt(state.outcomes)
+                    .putLong(state.updatedWallClock)
+                    .array();
+        }
+    }
+
+    private static final class StateDeserializer implements Deserializer<SagaState> {
+        @Override
+        public SagaState deserialize(String topic, byte[] data) {
+            if (data == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            SagaState state = new SagaState();
+            state.createdAt = buffer.getLong();
+            state.seatReservedAt = buffer.getLong();
+            state.paymentAt = buffer.getLong();
+            state.outcomeAt = buffer.getLong();
+            state.outcomes = buffer.getInt();
+            state.updatedWallClock = buffer.getLong();
+            return state;
+        }
+    }
+}
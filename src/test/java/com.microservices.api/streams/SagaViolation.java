@@ -0,0 +1,52 @@
+package com.microservices.api.streams;
+
+import java.time.Instant;
+
+/**
+ * One broken saga invariant, as flagged by {@link SagaInvariantChecker}.
+ */
+public class SagaViolation {
+
+    public enum Type {
+        /** BookingCreatedEvent without a terminal outcome within the saga timeout, or an outcome without a booking. */
+        ORPHANED,
+        /** A second BookingCreatedEvent, or a second terminal outcome for the same booking. */
+        DUPLICATED,
+        /** An event that may only follow another one arrived first, e.g. a payment before the seat reservation. */
+        OUT_OF_ORDER
+    }
+
+    private final Type type;
+    private final String bookingId;
+    private final String detail;
+    private final long eventTimestamp;
+
+    SagaViolation(Type type, String bookingId, String detail, long eventTimestamp) {
+        this.type = type;
+        this.bookingId = bookingId;
+        this.detail = detail;
+        this.eventTimestamp = eventTimestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    /** Record timestamp of the event that exposed the violation (wall clock for orphans). */
+    public long getEventTimestamp() {
+        return eventTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + bookingId + " at " + Instant.ofEpochMilli(eventTimestamp) + ": " + detail;
+    }
+}
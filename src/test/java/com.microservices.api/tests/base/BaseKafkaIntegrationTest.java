@@ -1,67 +1,134 @@
 package com.microservices.api.tests.base;
 
 
+import com.microservices.api.consumers.ConsumerLeaseListener;
+import com.microservices.api.consumers.KafkaConsumerRegistry;
+import com.microservices.api.consumers.SagaEventIndex;
+import com.microservices.api.consumers.SagaEventIndexListener;
+import com.microservices.api.serde.SagaEventDeserializer;
 import com.microservices.api.util.DBHelper;
+import com.microservices.api.util.DeliveryMode;
+import com.microservices.api.util.EmbeddedKafkaSuiteListener;
+import com.microservices.api.util.KafkaBootstrap;
+import com.microservices.api.util.KafkaEventPublisher;
+import com.microservices.api.util.TestDataPartition;
+import com.microservices.api.util.TestDataPartitionListener;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
-import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.testng.annotations.Listeners;
 
 import java.sql.SQLException;
 import java.time.Duration;
 import java.util.List;
 import java.util.Properties;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Listeners({EmbeddedKafkaSuiteListener.class, SagaEventIndexListener.class, TestDataPartitionListener.class,
+        ConsumerLeaseListener.class})
 public abstract class BaseKafkaIntegrationTest {
 
-    protected static final String BOOTSTRAP_SERVERS =
-            System.getProperty("kafka.bootstrap", "localhost:9092");
-
+    /**
+     * @deprecated builds a new producer (and TCP connections) per call; inject events through
+     * {@link #publisher()} instead.
+     */
+    @Deprecated
     protected <T> KafkaProducer<String, T> createProducer() {
+        return new KafkaProducer<>(KafkaEventPublisher.producerProperties());
+    }
 
-        Properties props = new Properties();
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        props.put(ProducerConfig.ACKS_CONFIG, "all");
-
-        return new KafkaProducer<>(props);
+    /**
+     * Shared, thread-safe async publisher for injecting events into the saga topics.
+     */
+    protected static KafkaEventPublisher publisher() {
+        return KafkaEventPublisher.shared();
     }
 
+    /**
+     * @deprecated joins a new consumer group and replays the topic from the earliest offset; lease a warm
+     * consumer from {@link #consumers()} instead.
+     */
+    @Deprecated
     public static <T> Consumer<String, T> createConsumer(
             String groupId,
             Class<T> valueType,
             String topic
     ) {
-        Properties props = new Properties();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
+        Properties props = consumerProperties(valueType);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, valueType.getName());
 
         KafkaConsumer<String, T> consumer =
                 new KafkaConsumer<>(
                         props,
                         new StringDeserializer(),
-                        new JsonDeserializer<>(valueType, false)
+                        new SagaEventDeserializer<>(valueType, false)
                 );
         consumer.subscribe(List.of(topic));
         return consumer;
     }
 
+    /**
+     * Consumer without a group, manually assigned to every partition of the topic and
+     * positioned at the current end. No group join or rebalance is involved, so it is
+     * ready as soon as this method returns.
+     */
+    public static <T> Consumer<String, T> createAssignedConsumer(
+            Class<T> valueType,
+            String topic
+    ) {
+        return createAssignedConsumer(valueType, topic, null);
+    }
+
+    /**
+     * Same as {@link #createAssignedConsumer(Class, String)}, but able to commit its positions under
+     * {@code groupId} (still without joining the group), so its lag is visible to admin tools.
+     */
+    public static <T> Consumer<String, T> createAssignedConsumer(
+            Class<T> valueType,
+            String topic,
+            String groupId
+    ) {
+        Properties props = consumerProperties(valueType);
+        if (groupId != null) {
+            props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        }
+        KafkaConsumer<String, T> consumer =
+                new KafkaConsumer<>(
+                        props,
+                        new StringDeserializer(),
+                        new SagaEventDeserializer<>(valueType, false)
+                );
+        List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                .map(p -> new TopicPartition(topic, p.partition()))
+                .collect(Collectors.toList());
+        consumer.assign(partitions);
+        consumer.seekToEnd(partitions);
+        // seekToEnd is lazy; resolve now so records published after this call are not missed
+        partitions.forEach(consumer::position);
+        return consumer;
+    }
+
+    private static Properties consumerProperties(Class<?> valueType) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaBootstrap.servers());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // read_committed in exactly-once runs: records of aborted or open transactions are never returned
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, DeliveryMode.fromSystemProperty().isolationLevel());
+
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, valueType.getName());
+        return props;
+    }
+
     public static <T> T pollSingleRecord(
             Consumer<String, T> consumer,
             String topic,
@@ -116,6 +183,37 @@ public abstract class BaseKafkaIntegrationTest {
         );
     }
 
+    /**
+     * Shared bookingId index over the saga topics, started with the suite by {@link SagaEventIndexListener};
+     * prefer this over {@link #pollForBookingEvent} when several tests or threads wait for events at the
+     * same time.
+     */
+    public static SagaEventIndex sagaEvents() {
+        return SagaEventIndex.shared();
+    }
+
+    /**
+     * Warm, group-less consumers shared by the suite; see {@link KafkaConsumerRegistry}.
+     */
+    public static KafkaConsumerRegistry consumers() {
+        return KafkaConsumerRegistry.shared();
+    }
+
+    /**
+     * Show and seats owned by the running test method; see {@link TestDataPartitionListener}.
+     */
+    protected static TestDataPartition data() {
+        return TestDataPartition.current();
+    }
+
+    /**
+     * Whether {@link TestDataPartitionListener} seeds a partition for each test method of this class;
+     * classes that never call {@link #data()} return false.
+     */
+    public boolean usesTestDataPartition() {
+        return true;
+    }
+
     public static String getBookingStatus(String bookingId) throws SQLException {
         return DBHelper.getBookingStatus(bookingId);
     }
@@ -0,0 +1,93 @@
+package com.microservices.api.tests.failures.idempotency;
+
+import com.microservices.api.model.events.BookingPaymentEvent;
+import com.microservices.api.model.request.BookingRequest;
+import com.microservices.api.model.response.BookingResponse;
+import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
+import com.microservices.api.util.DeliveryMode;
+import com.microservices.api.util.ExactlyOnceVerifier;
+import com.microservices.api.util.SagaInvariantReport;
+import com.microservices.api.util.TransactionalEventPublisher;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.microservices.api.constants.KafkaTestConstants.PAYMENT_EVENTS_TOPIC;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Exactly-once mode: events are injected through transactional producers and read with read_committed.
+ * Run with {@code -Dkafka.delivery=exactly_once}; skipped otherwise.
+ */
+public class ExactlyOnceDeliveryTest extends BaseKafkaIntegrationTest {
+
+    private static final Duration SETTLE = Duration.ofSeconds(3);
+
+    @BeforeClass
+    void requireExactlyOnce() {
+        if (DeliveryMode.fromSystemProperty() != DeliveryMode.EXACTLY_ONCE) {
+            throw new SkipException("Exactly-once tests need -Dkafka.delivery=exactly_once");
+        }
+    }
+
+    /**
+     * A payment event of an aborted transaction must never reach a read_committed consumer.
+     */
+    @Test
+    public void aborted_payment_event_should_not_be_visible() {
+        String bookingId = UUID.randomUUID().toString();
+
+        TransactionalEventPublisher.shared()
+                .publishAborted(PAYMENT_EVENTS_TOPIC, bookingId, new BookingPaymentEvent(bookingId, false, 500));
+        TransactionalEventPublisher.shared()
+                .publishInTransaction(PAYMENT_EVENTS_TOPIC, bookingId, new BookingPaymentEvent(bookingId, true, 500));
+
+        BookingPaymentEvent seen = sagaEvents().awaitPayment(bookingId, Duration.ofSeconds(10));
+        assertTrue(seen.isPaymentCompleted(), "read_committed consumer saw the aborted event");
+        assertEquals(sagaEvents().payments().count(bookingId), 1);
+    }
+
+    /**
+     * Committed duplicate payment events: each booking still gets exactly one Booking row and exactly one
+     * BookingCreated, SeatReserved and payment event from the services.
+     */
+    @Test
+    public void committed_duplicates_should_cause_one_state_transition_per_booking() throws Exception {
+        List<String> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String bookingId = UUID.randomUUID().toString();
+            createBooking(bookingId, data().takeSeats(1));
+            bookingIds.add(bookingId);
+        }
+        for (String bookingId : bookingIds) {
+            sagaEvents().awaitPayment(bookingId, Duration.ofSeconds(10));
+            TransactionalEventPublisher.shared()
+                    .publishDuplicates(PAYMENT_EVENTS_TOPIC, bookingId, new BookingPaymentEvent(bookingId, true, 500), 3);
+        }
+
+        SagaInvariantReport report = ExactlyOnceVerifier.verify(bookingIds, sagaEvents(), SETTLE);
+        assertTrue(report.isClean(), report.toString());
+        assertEquals(report.getInFlight(), 0, report.toString());
+    }
+
+    private void createBooking(String bookingId, List<String> seats) {
+        BookingRequest request = new BookingRequest(UUID.randomUUID().toString(), data().getShowId(), seats, bookingId, Instant.now(), 500);
+        BookingResponse response = RestAssured.given()
+                .contentType(ContentType.JSON)
+                .body(request)
+                .post("http://localhost:9191/booking-service/bookSeat")
+                .then().statusCode(200)
+                .extract().as(BookingResponse.class);
+
+        assertEquals(response.getReservationId(), bookingId);
+    }
+}
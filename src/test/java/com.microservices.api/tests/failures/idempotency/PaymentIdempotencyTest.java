@@ -6,15 +6,10 @@ import com.microservices.api.model.response.BookingResponse;
 import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
 import com.microservices.api.util.KafkaTestAssertions;
 import com.microservices.api.util.KafkaTestUtils;
-import com.microservices.api.util.TestDataCleaner;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
-import org.apache.kafka.clients.consumer.Consumer;
-import org.testng.annotations.AfterClass;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import java.sql.SQLException;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -25,29 +20,20 @@ import static org.testng.Assert.assertEquals;
 
 public class PaymentIdempotencyTest extends BaseKafkaIntegrationTest {
 
-    private Consumer<String, BookingPaymentEvent> paymentConsumer;
     private static final String PAYMENT_TOPIC = "payment-events";
 
-    @BeforeClass
-    void setup() throws Exception {
-        paymentConsumer = createConsumer("payment-idempotency-group", BookingPaymentEvent.class, PAYMENT_TOPIC);
-        KafkaTestUtils.deleteTopicRecords("localhost:9092", PAYMENT_TOPIC);
-    }
-
     /**
      * 1️⃣ Simple duplicate payment event
      */
     @Test
     public void payment_event_should_be_idempotent() throws Exception {
         String bookingId = UUID.randomUUID().toString();
-        createBooking(bookingId, List.of("D1"));
+        createBooking(bookingId, data().takeSeats(1));
 
         KafkaTestAssertions.assertIdempotentEvent(
-                paymentConsumer,
-                PAYMENT_TOPIC,
+                sagaEvents().payments(),
                 bookingId,
                 3,
-                event -> event.getBookingId(), // lambda fixes the "non-static" error
                 () -> assertPaymentStatus(bookingId, "CONFIRMED"),
                 "CONFIRMED"
         );
@@ -59,14 +45,12 @@ public class PaymentIdempotencyTest extends BaseKafkaIntegrationTest {
     @Test
     public void partial_payment_event_should_be_idempotent() throws Exception {
         String bookingId = UUID.randomUUID().toString();
-        createBooking(bookingId, List.of("D2", "D3"));
+        createBooking(bookingId, data().takeSeats(2));
 
         KafkaTestAssertions.assertIdempotentEvent(
-                paymentConsumer,
-                PAYMENT_TOPIC,
+                sagaEvents().payments(),
                 bookingId,
                 2,
-                event -> event.getBookingId(),
                 () -> assertPaymentStatus(bookingId, "CONFIRMED"),
                 "CONFIRMED"
         );
@@ -84,14 +68,12 @@ public class PaymentIdempotencyTest extends BaseKafkaIntegrationTest {
        // KafkaTestUtils.publishEvent("localhost:9092", PAYMENT_TOPIC, bookingId, preEvent);
         KafkaTestUtils.publishEvent( PAYMENT_TOPIC, bookingId, preEvent);
 
-        createBooking(bookingId, List.of("D4"));
+        createBooking(bookingId, data().takeSeats(1));
 
         KafkaTestAssertions.assertIdempotentEvent(
-                paymentConsumer,
-                PAYMENT_TOPIC,
+                sagaEvents().payments(),
                 bookingId,
                 0,
-                event -> event.getBookingId(),
                 () -> assertPaymentStatus(bookingId, "CONFIRMED"),
                 "CONFIRMED"
         );
@@ -103,14 +85,12 @@ public class PaymentIdempotencyTest extends BaseKafkaIntegrationTest {
     @Test
     public void payment_event_multiple_duplicates_should_be_idempotent() throws Exception {
         String bookingId = UUID.randomUUID().toString();
-        createBooking(bookingId, List.of("D5"));
+        createBooking(bookingId, data().takeSeats(1));
 
         KafkaTestAssertions.assertIdempotentEvent(
-                paymentConsumer,
-                PAYMENT_TOPIC,
+                sagaEvents().payments(),
                 bookingId,
                 5,
-                event -> event.getBookingId(),
                 () -> assertPaymentStatus(bookingId, "CONFIRMED"),
                 "CONFIRMED"
         );
@@ -127,7 +107,7 @@ public class PaymentIdempotencyTest extends BaseKafkaIntegrationTest {
         KafkaTestUtils.publishEvent(PAYMENT_TOPIC, fakeBookingId, fakeEvent);
 
         // Poll consumer; should timeout gracefully
-        BookingPaymentEvent seatEvent = pollForBookingEvent(paymentConsumer, PAYMENT_TOPIC, java.time.Duration.ofSeconds(5), fakeBookingId, BookingPaymentEvent::getBookingId);
+        BookingPaymentEvent seatEvent = sagaEvents().awaitPayment(fakeBookingId, java.time.Duration.ofSeconds(5));
 
         // Ensure no payment record exists
         assertPaymentStatus(fakeBookingId, null);
@@ -139,31 +119,23 @@ public class PaymentIdempotencyTest extends BaseKafkaIntegrationTest {
     @Test
     public void payment_rollback_event_should_be_idempotent() throws Exception {
         String bookingId = UUID.randomUUID().toString();
-        createBooking(bookingId, List.of("D6"));
+        createBooking(bookingId, data().takeSeats(1));
 
         // Simulate failed payment events multiple times
         KafkaTestAssertions.assertIdempotentEvent(
-                paymentConsumer,
-                PAYMENT_TOPIC,
+                sagaEvents().payments(),
                 bookingId,
                 3,
-                event -> event.getBookingId(),
                 () -> assertPaymentStatus(bookingId, "FAILED"),
                 "FAILED"
         );
     }
 
-    @AfterClass
-    void tearDown() throws SQLException {
-        paymentConsumer.close();
-        TestDataCleaner.releaseAllSeatsForShow("SHOW_1");
-    }
-
     /**
      * Helper to create a booking with payment
      */
     private void createBooking(String bookingId, List<String> seats) {
-        BookingRequest request = new BookingRequest(UUID.randomUUID().toString(), "SHOW_1", seats, bookingId, Instant.now(), 500);
+        BookingRequest request = new BookingRequest(UUID.randomUUID().toString(), data().getShowId(), seats, bookingId, Instant.now(), 500);
         BookingResponse response = RestAssured.given()
                 .contentType(ContentType.JSON)
                 .body(request)
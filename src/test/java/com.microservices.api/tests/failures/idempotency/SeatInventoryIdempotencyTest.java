@@ -6,13 +6,9 @@ import com.microservices.api.model.response.BookingResponse;
 import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
 import com.microservices.api.util.KafkaTestAssertions;
 import com.microservices.api.util.KafkaTestUtils;
-import com.microservices.api.util.TestDataCleaner;
 import com.microservices.api.util.TestDataSeeder;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
-import org.apache.kafka.clients.consumer.Consumer;
-import org.testng.annotations.AfterClass;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.sql.SQLException;
@@ -33,36 +29,26 @@ import static org.testng.AssertJUnit.assertEquals;
 
 public class SeatInventoryIdempotencyTest extends BaseKafkaIntegrationTest {
 
-    private Consumer<String, SeatReservedEvent> seatConsumer;
     private static final String SEAT_TOPIC = "seat-reserved-topic";
-    private String reservationId;
-
-    @BeforeClass
-    void setup() throws Exception {
-        seatConsumer = createConsumer("seat-idempotency-group", SeatReservedEvent.class, SEAT_TOPIC);
-        KafkaTestUtils.deleteTopicRecords("localhost:9092", SEAT_TOPIC);
-    }
 
     /**
      * 1️⃣ Simple idempotency for a failed booking
      */
     @Test(enabled = false)
     public void seat_reserved_event_should_be_idempotent() throws Exception {
-        List<String> seats = List.of("B1");
+        List<String> seats = data().takeSeats(1);
         String bookingId = UUID.randomUUID().toString();
-        TestDataSeeder.lockSeat("SHOW_1", "B1", "OTHER_BOOKING");
+        TestDataSeeder.lockSeat(data().getShowId(), seats.get(0), "OTHER_BOOKING");
 
-        createBooking(bookingId, seats);
+        String reservationId = createBooking(bookingId, seats);
 
         KafkaTestAssertions.assertIdempotentEvent(
-                seatConsumer,
-                SEAT_TOPIC,
+                sagaEvents().seatReserved(),
                 reservationId,
                 3, // simulate 3 duplicates
-                SeatReservedEvent::getBookingId,
                 () -> {
                     try {
-                        assertSeatLocked("SHOW_1", "B1", "OTHER_BOOKING");
+                        assertSeatLocked(data().getShowId(), seats.get(0), "OTHER_BOOKING");
                     } catch (SQLException e) {
                         throw new RuntimeException(e);
                     }
@@ -76,27 +62,25 @@ public class SeatInventoryIdempotencyTest extends BaseKafkaIntegrationTest {
      */
     @Test(enabled = false)
     public void partial_seat_reserved_event_should_be_idempotent() throws Exception {
-        List<String> seats = List.of("B2", "B3");
+        List<String> seats = data().takeSeats(2);
         String bookingId = UUID.randomUUID().toString();
 
-        TestDataSeeder.lockSeat("SHOW_1", "B2", "OTHER_BOOKING");
+        TestDataSeeder.lockSeat(data().getShowId(), seats.get(0), "OTHER_BOOKING");
 
-        createBooking(bookingId, seats);
+        String reservationId = createBooking(bookingId, seats);
 
         KafkaTestAssertions.assertIdempotentEvent(
-                seatConsumer,
-                SEAT_TOPIC,
+                sagaEvents().seatReserved(),
                 reservationId,
                 2,
-                SeatReservedEvent::getBookingId,
                 () -> {
                     try {
-                        assertSeatLocked("SHOW_1", "B2", "OTHER_BOOKING");
+                        assertSeatLocked(data().getShowId(), seats.get(0), "OTHER_BOOKING");
                     } catch (SQLException e) {
                         throw new RuntimeException(e);
                     }
                     try {
-                        assertSeatAvailable("SHOW_1", "B3");
+                        assertSeatAvailable(data().getShowId(), seats.get(1));
                     } catch (SQLException e) {
                         throw new RuntimeException(e);
                     }
@@ -110,11 +94,11 @@ public class SeatInventoryIdempotencyTest extends BaseKafkaIntegrationTest {
      */
     @Test(enabled = false)
     public void seat_reserved_event_out_of_order_should_be_handled_safely() throws Exception {
-        List<String> seats = List.of("B4");
+        List<String> seats = data().takeSeats(1);
         String bookingId = UUID.randomUUID().toString();
 
         // 1️⃣ Create the booking first — DB now has the record and seat is locked
-        createBooking(bookingId, seats);
+        String reservationId = createBooking(bookingId, seats);
 
         // 2️⃣ Publish an "out-of-order" SeatReservedEvent for the same booking
         SeatReservedEvent outOfOrderEvent = new SeatReservedEvent(bookingId, true, 500);
@@ -126,14 +110,12 @@ public class SeatInventoryIdempotencyTest extends BaseKafkaIntegrationTest {
 
         // 3️⃣ Poll consumer and assert idempotency — no side-effects should occur
         KafkaTestAssertions.assertNoSideEffectsAfterDuplicateEvents(
-                seatConsumer,
-                SEAT_TOPIC,
+                sagaEvents().seatReserved(),
                 reservationId,
-                SeatReservedEvent::getBookingId,
                 () -> {
                     try {
                         // ✅ Seat should remain locked by this booking
-                        assertSeatLocked("SHOW_1", "B4", bookingId);
+                        assertSeatLocked(data().getShowId(), seats.get(0), bookingId);
                     } catch (SQLException e) {
                         throw new RuntimeException(e);
                     }
@@ -149,33 +131,25 @@ public class SeatInventoryIdempotencyTest extends BaseKafkaIntegrationTest {
      */
     @Test(enabled = false)
     public void seat_reserved_event_multiple_duplicates_should_be_idempotent() throws Exception {
-        List<String> seats = List.of("B5");
+        List<String> seats = data().takeSeats(1);
         String bookingId = UUID.randomUUID().toString();
 
-        TestDataSeeder.lockSeat("SHOW_1", "B5", "OTHER_BOOKING");
+        TestDataSeeder.lockSeat(data().getShowId(), seats.get(0), "OTHER_BOOKING");
 
-        createBooking(bookingId, seats);
+        String reservationId = createBooking(bookingId, seats);
 
         // ✅ Explicit duplicate events
         SeatReservedEvent duplicateEvent = new SeatReservedEvent(bookingId, false, 500);
 
-        for (int i = 0; i < 3; i++) {
-            KafkaTestUtils.publishEvent(
-                    SEAT_TOPIC,
-                    reservationId,
-                    duplicateEvent
-            );
-        }
+        KafkaTestUtils.publishDuplicates(SEAT_TOPIC, reservationId, duplicateEvent, 3);
 
         // ✅ Assert idempotency
         KafkaTestAssertions.assertNoSideEffectsAfterDuplicateEvents(
-                seatConsumer,
-                SEAT_TOPIC,
+                sagaEvents().seatReserved(),
                 reservationId,
-                SeatReservedEvent::getBookingId,
                 () -> {
                     try {
-                        assertSeatLocked("SHOW_1", "B5", "OTHER_BOOKING");
+                        assertSeatLocked(data().getShowId(), seats.get(0), "OTHER_BOOKING");
                     } catch (SQLException e) {
                         throw new RuntimeException(e);
                     }
@@ -190,16 +164,16 @@ public class SeatInventoryIdempotencyTest extends BaseKafkaIntegrationTest {
      */
     @Test(enabled = false)
     public void seat_reserved_event_without_booking_should_be_ignored() throws Exception {
-        List<String> seats = List.of("B6");
+        List<String> seats = data().takeSeats(1);
         String fakeBookingId = UUID.randomUUID().toString();
 
         SeatReservedEvent fakeEvent = new SeatReservedEvent(fakeBookingId, true, 500);
        // KafkaTestUtils.publishEvent("localhost:9092", SEAT_TOPIC, fakeBookingId, fakeEvent);
         KafkaTestUtils.publishEvent( SEAT_TOPIC, fakeBookingId, fakeEvent);
         // Poll consumer; should eventually timeout without errors
-        SeatReservedEvent seatEvent = pollForBookingEvent(seatConsumer, SEAT_TOPIC, Duration.ofSeconds(5), fakeBookingId, SeatReservedEvent::getBookingId);
+        SeatReservedEvent seatEvent = sagaEvents().awaitSeatReserved(fakeBookingId, Duration.ofSeconds(5));
 
-        assertSeatAvailable("SHOW_1", "B6");
+        assertSeatAvailable(data().getShowId(), seats.get(0));
     }
 
     /**
@@ -207,22 +181,20 @@ public class SeatInventoryIdempotencyTest extends BaseKafkaIntegrationTest {
      */
     @Test(enabled = false)
     public void seat_release_event_should_be_idempotent() throws Exception {
-        List<String> seats = List.of("B7");
+        List<String> seats = data().takeSeats(1);
         String bookingId = UUID.randomUUID().toString();
 
-        TestDataSeeder.lockSeat("SHOW_1", "B7", "OTHER_BOOKING");
+        TestDataSeeder.lockSeat(data().getShowId(), seats.get(0), "OTHER_BOOKING");
 
-        createBooking(bookingId, seats);
+        String reservationId = createBooking(bookingId, seats);
 
         KafkaTestAssertions.assertIdempotentEvent(
-                seatConsumer,
-                SEAT_TOPIC,
+                sagaEvents().seatReserved(),
                 reservationId,
                 3, // simulate 3 release duplicates
-                SeatReservedEvent::getBookingId,
                 () -> {
                     try {
-                        assertSeatAvailable("SHOW_1", "B7");
+                        assertSeatAvailable(data().getShowId(), seats.get(0));
                     } catch (SQLException e) {
                         throw new RuntimeException(e);
                     }
@@ -231,18 +203,11 @@ public class SeatInventoryIdempotencyTest extends BaseKafkaIntegrationTest {
         );
     }
 
-    @AfterClass
-    void tearDown() throws SQLException {
-        TestDataCleaner.releaseAllSeatsForShow("SHOW_1");
-        seatConsumer.close();
-        KafkaTestUtils.shutdown();
-    }
-
     /**
      * Helper method to create a booking
      */
-    private void createBooking(String bookingId, List<String> seats) {
-        BookingRequest request = new BookingRequest(UUID.randomUUID().toString(), "SHOW_1", seats, bookingId, Instant.now(), 500);
+    private String createBooking(String bookingId, List<String> seats) {
+        BookingRequest request = new BookingRequest(UUID.randomUUID().toString(), data().getShowId(), seats, bookingId, Instant.now(), 500);
         BookingResponse response=RestAssured.given()
                 .contentType(ContentType.JSON)
                 .body(request)
@@ -250,6 +215,6 @@ public class SeatInventoryIdempotencyTest extends BaseKafkaIntegrationTest {
                 .then().statusCode(200).extract()
                 .as(BookingResponse.class);
 
-        reservationId = response.getReservationId();;
+        return response.getReservationId();
     }
 }
@@ -1,43 +1,38 @@
 package com.microservices.api.tests.failures.resiliency;
 
+import com.microservices.api.chaos.ChaosControlClient;
+import com.microservices.api.consumers.KafkaConsumerRegistry;
 import com.microservices.api.model.common.KafkaConfigProperties;
 import com.microservices.api.model.events.BookingCreatedEvent;
 import com.microservices.api.model.request.BookingRequest;
 import com.microservices.api.model.response.BookingResponse;
 import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
 import com.microservices.api.util.KafkaTestUtils;
-import com.microservices.api.util.TestDataCleaner;
+import com.microservices.api.util.TestDataSeeder;
 import exception.NonRecoverableBusinessException;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.support.KafkaHeaders;
-import org.testng.annotations.AfterClass;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.nio.charset.StandardCharsets;
-import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 import static com.microservices.api.util.DBHelper.assertSeatAvailable;
-import static com.microservices.api.util.DBHelper.assertSeatLocked;
+import static com.microservices.api.util.DBHelper.awaitBookingStatus;
+import static com.microservices.api.util.DBHelper.awaitSeatLocked;
 import static org.mockito.ArgumentMatchers.any;
 import static org.testng.Assert.*;
 
 
 public class BookingEventResilienceTest extends BaseKafkaIntegrationTest {
 
-    private String reservationId;
-    @BeforeClass
-    void setup() throws Exception {
-        // Clean seats for consistent state
-        TestDataCleaner.releaseAllSeatsForShow("SHOW_1");
-    }
+    private final ChaosControlClient control = ChaosControlClient.fromSystemProperties();
 
     /**
      * Scenario: Seat Inventory Service is DOWN
@@ -45,23 +40,22 @@ public class BookingEventResilienceTest extends BaseKafkaIntegrationTest {
      */
     @Test(enabled = false)
     public void booking_should_fail_if_seat_service_down() throws Exception {
-        List<String> seats = List.of("B10");
+        String showId = data().getShowId();
+        List<String> seats = data().takeSeats(1);
         String bookingId = UUID.randomUUID().toString();
 
         // 1️⃣ Pause Seat Inventory Listener via control endpoint
-        RestAssured.given().log().all()
-                .post("http://localhost:9292/kafka/pause/seat-booking-created-listener")
-                .then().log().all().statusCode(200);
+        control.pauseListener("seat-booking-created-listener");
 
         // 2️⃣ Create a booking
-        BookingRequest request = new BookingRequest(UUID.randomUUID().toString(), "SHOW_1", seats, bookingId, Instant.now(), 500);
+        BookingRequest request = new BookingRequest(UUID.randomUUID().toString(), showId, seats, bookingId, Instant.now(), 500);
         BookingResponse response = RestAssured.given().log().all()
                 .contentType(ContentType.JSON)
                 .body(request)
                 .post("http://localhost:9191/booking-service/bookSeat")
                 .then().log().all().statusCode(200)
                 .extract().as(BookingResponse.class);
-        reservationId = response.getReservationId();;
+        String reservationId = response.getReservationId();
 
 
         // 3️⃣ Wait a few seconds for async processing (which won't happen since listener is paused)
@@ -73,29 +67,26 @@ public class BookingEventResilienceTest extends BaseKafkaIntegrationTest {
 
 
         // 5️⃣ Assert seat is still AVAILABLE
-        assertSeatAvailable("SHOW_1", "B10");
+        assertSeatAvailable(showId, seats.get(0));
 
         // 6️⃣ Resume Seat Inventory Listener for cleanup
-        RestAssured.given().log().all()
-                .post("http://localhost:9292/kafka/resume/seat-booking-created-listener")
-                .then().log().all().statusCode(200);
+        control.resumeListener("seat-booking-created-listener");
     }
 
     @Test(enabled = false)
     public void booking_should_remain_pending_if_payment_service_down() throws Exception {
 
-        List<String> seats = List.of("B11");
+        String showId = data().getShowId();
+        List<String> seats = data().takeSeats(1);
         String bookingId = UUID.randomUUID().toString();
 
         // 1️⃣ Pause Payment Service listener
-        RestAssured.given().log().all()
-                .post("http://localhost:9292/kafka/pause/seat-payment-status-listener")
-                .then().log().all().statusCode(200);
+        control.pauseListener("seat-payment-status-listener");
 
         // 2️⃣ Create booking
         BookingRequest request = new BookingRequest(
                 UUID.randomUUID().toString(),
-                "SHOW_1",
+                showId,
                 seats,
                 bookingId,
                 Instant.now(),
@@ -109,40 +100,32 @@ public class BookingEventResilienceTest extends BaseKafkaIntegrationTest {
                 .then().log().all().statusCode(200)
                 .extract().as(BookingResponse.class);
 
-        reservationId = response.getReservationId();
-
-        // 3️⃣ Wait for async flow (seat will lock, payment won't happen)
-        Thread.sleep(5000);
+        String reservationId = response.getReservationId();
 
-        // 4️⃣ Booking should be PENDING (seat reserved, payment missing)
-        String bookingStatus = getBookingStatus(reservationId);
-        assertEquals("PENDING", bookingStatus);
+        // 3️⃣ + 4️⃣ Booking should become PENDING (seat reserved, payment missing)
+        awaitBookingStatus(reservationId, "PENDING", Duration.ofSeconds(10));
 
         // 5️⃣ Seat should remain LOCKED
-        assertSeatLocked("SHOW_1", "B11", reservationId);
+        awaitSeatLocked(showId, seats.get(0), reservationId, Duration.ofSeconds(10));
 
         // 6️⃣ Resume Payment listener for cleanup
-        RestAssured.given().log().all()
-                .post("http://localhost:9292/kafka/resume/seat-payment-status-listener")
-                .then().log().all().statusCode(200);
+        control.resumeListener("seat-payment-status-listener");
     }
 
     @Test(enabled = false)
     public void booking_should_retry_and_go_to_dlt_on_seat_service_timeout() throws Exception {
 
-        List<String> seats = List.of("B10");
+        String showId = data().getShowId();
+        List<String> seats = data().takeSeats(1);
         String bookingId = UUID.randomUUID().toString();
 
         // 1️⃣ Enable timeout simulation in seat-inventory-service
-        RestAssured.given()
-                .post("http://localhost:9292/internal/test/seat-inventory/timeout/enable")
-                .then()
-                .statusCode(200);
+        control.enableSeatTimeout();
 
         // 2️⃣ Create booking (publishes BookingCreatedEvent)
         BookingRequest request = new BookingRequest(
                 UUID.randomUUID().toString(),
-                "SHOW_1",
+                showId,
                 seats,
                 bookingId,
                 Instant.now(),
@@ -165,17 +148,14 @@ public class BookingEventResilienceTest extends BaseKafkaIntegrationTest {
 
         // 4️⃣ Validate DLT payload
         assertNotNull(dltEvent, "Message should land in DLT");
-        assertEquals("SHOW_1", dltEvent.getShowId());
+        assertEquals(showId, dltEvent.getShowId());
 
         // 5️⃣ Business assertions
         assertNull(getBookingStatus(reservationId));
-        assertSeatAvailable("SHOW_1", "B10");
+        assertSeatAvailable(showId, seats.get(0));
 
         // 6️⃣ Disable timeout simulation (cleanup)
-        RestAssured.given()
-                .post("http://localhost:9292/internal/test/seat-inventory/timeout/disable")
-                .then()
-                .statusCode(200);
+        control.disableSeatTimeout();
     }
 
     @Test
@@ -183,12 +163,15 @@ public class BookingEventResilienceTest extends BaseKafkaIntegrationTest {
         // 🔹 Arrange
         String bookingId = UUID.randomUUID().toString();
         String userId = UUID.randomUUID().toString();
+        String showId = data().getShowId();
+        String seat = data().takeSeat();
+        TestDataSeeder.lockSeat(showId, seat, "OTHER_BOOKING");
 
         BookingCreatedEvent event = new BookingCreatedEvent(
                 bookingId,
                 userId,
-                "SHOW_1",
-                List.of("B10"),
+                showId,
+                List.of(seat),
                 500
         );
 
@@ -207,13 +190,15 @@ public class BookingEventResilienceTest extends BaseKafkaIntegrationTest {
         assertEquals(bookingId, dltEvent.getBookingId());
 
         // 🔹 Assert original topic header
-        ConsumerRecord<String, String> dltRecordWithHeaders =
-                BaseKafkaIntegrationTest.createConsumer(
-                                "dlt-test-group",
-                                String.class,
-                                "movie-booking-events-dlt"
-                        ).poll(Duration.ofSeconds(5))
-                        .iterator().next(); // Get the record just for headers
+        ConsumerRecord<String, String> dltRecordWithHeaders;
+        try (KafkaConsumerRegistry.Lease<String> dlt = KafkaConsumerRegistry.shared()
+                .lease(String.class, "movie-booking-events-dlt")
+                .seekToTestStart()) {
+            dltRecordWithHeaders = dlt.pollUntil(
+                    record -> bookingId.equals(record.key()) || String.valueOf(record.value()).contains(bookingId),
+                    Duration.ofSeconds(5));
+        }
+        assertNotNull(dltRecordWithHeaders, "DLT record of " + bookingId + " should be readable for its headers");
 
         Header originalTopicHeader = dltRecordWithHeaders.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC);
         assertNotNull(originalTopicHeader);
@@ -238,11 +223,4 @@ public class BookingEventResilienceTest extends BaseKafkaIntegrationTest {
                         .contains("Seat already locked")
         );
     }
-
-
-    @AfterClass
-    void tearDown() throws SQLException {
-        TestDataCleaner.releaseAllSeatsForShow("SHOW_1");
-    }
 }
-
@@ -0,0 +1,57 @@
+package com.microservices.api.tests.failures.resiliency;
+
+import com.microservices.api.model.request.BookingRequest;
+import com.microservices.api.model.response.BookingResponse;
+import com.microservices.api.simulator.LocalSagaEngine;
+import com.microservices.api.simulator.SimulatorConfig;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Seat-inventory timeout fault on the in-memory {@link LocalSagaEngine}: a dead-lettered booking stays
+ * dead-lettered, it is neither retried while the fault is on nor processed once it is lifted.
+ * No broker or services needed.
+ */
+public class InMemorySeatTimeoutTest {
+
+    private static final String SHOW_ID = "SHOW_TIMEOUT";
+    private static final String SEAT = "T1";
+
+    private LocalSagaEngine engine;
+
+    @BeforeClass
+    void startEngine() {
+        engine = LocalSagaEngine.inMemory(new SimulatorConfig(
+                Duration.ZERO, Duration.ZERO, 0, 0, 3000L, 42L, 64, 2));
+    }
+
+    @Test
+    public void dead_lettered_booking_should_not_reach_seat_inventory_again() throws Exception {
+        engine.setSeatTimeout(true);
+        BookingResponse response = engine.book(new BookingRequest(
+                "BKG_TIMEOUT", SHOW_ID, List.of(SEAT), UUID.randomUUID().toString(), null, 500));
+        Thread.sleep(500);
+
+        engine.setSeatTimeout(false);
+        Thread.sleep(500);
+
+        assertEquals(engine.getBookingStatus(response.getReservationId()), "PENDING",
+                "dead-lettered booking was processed again");
+        assertNull(engine.getSeatHolder(SHOW_ID, SEAT), "seat reserved for a dead-lettered booking");
+    }
+
+    @AfterClass(alwaysRun = true)
+    void stopEngine() throws InterruptedException {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.microservices.api.tests.load;
+
+import com.microservices.api.load.SagaLoadConfig;
+import com.microservices.api.load.SagaLoadDriver;
+import com.microservices.api.load.SagaLoadReport;
+import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
+import com.microservices.api.util.DBHelper;
+import com.microservices.api.util.TestDataCleaner;
+import facade.BookingSagaDbFacade;
+import facade.impl.BookingSagaDbFacadeImpl;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.sql.SQLException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Drives bookSeat at a fixed rate and checks that the saga keeps up.
+ * Tune with -Dload.rate, -Dload.duration.seconds, -Dload.max.inflight (see {@link SagaLoadConfig}).
+ */
+public class BookingSagaLoadTest extends BaseKafkaIntegrationTest {
+
+    private final SagaLoadConfig config = SagaLoadConfig.fromSystemProperties();
+    private final BookingSagaDbFacade bookingSagaDbFacade = new BookingSagaDbFacadeImpl(new DBHelper());
+
+    @Override
+    public boolean usesTestDataPartition() {
+        return false;
+    }
+
+    @Test
+    public void booking_saga_should_sustain_target_rate() throws Exception {
+        SagaLoadReport report = new SagaLoadDriver(config).run();
+
+        double minCompletion = Double.parseDouble(System.getProperty("load.min.completion", "0.99"));
+        assertTrue(report.getCompletionRatio() >= minCompletion,
+                "Only " + report.getCompleted() + " of " + report.getScheduled() + " sagas completed");
+
+        assertTrue(report.getSeatMismatches().isEmpty(),
+                "seat_inventory disagrees with saga outcomes for " + report.getSeatMismatches());
+        assertEquals(report.getInvariantViolationCount(), 0,
+                "Saga invariants broken: " + report.getInvariantViolations());
+        bookingSagaDbFacade.assertSagaInvariants(report.getBookingIds());
+    }
+
+    @AfterClass
+    void tearDown() throws SQLException {
+        TestDataCleaner.releaseAllSeatsForShow(config.getShowId());
+    }
+}
@@ -0,0 +1,122 @@
+package com.microservices.api.tests.load;
+
+import com.microservices.api.chaos.ChaosControlClient;
+import com.microservices.api.chaos.ChaosFault;
+import com.microservices.api.chaos.ChaosScenario;
+import com.microservices.api.chaos.ChaosScheduler;
+import com.microservices.api.chaos.FaultImpact;
+import com.microservices.api.load.SagaLoadConfig;
+import com.microservices.api.load.SagaLoadDriver;
+import com.microservices.api.simulator.ControlEndpointStub;
+import com.microservices.api.simulator.LocalSagaEngine;
+import com.microservices.api.simulator.SimulatorConfig;
+import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
+import com.microservices.api.util.EmbeddedKafkaSupport;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Runs a load with a chaos scenario (-Dchaos.scenario, see {@link ChaosScenario}) and checks that the saga
+ * recovers from every fault.
+ * <p>
+ * With {@code -Dchaos.stub=true} the services are the in-process {@link LocalSagaEngine} behind a
+ * {@link ControlEndpointStub}, so only Kafka is needed; with {@code -Dchaos.stub=false} the load goes to
+ * {@code booking.base.url} and the faults to {@code chaos.control.url}. The stub is the default only with
+ * {@code -Dkafka.embedded=true}: on a shared broker the engine would process the real services' saga
+ * topics a second time.
+ */
+public class ChaosScenarioLoadTest extends BaseKafkaIntegrationTest {
+
+    private static final boolean STUB = Boolean.parseBoolean(
+            System.getProperty("chaos.stub", String.valueOf(EmbeddedKafkaSupport.isEnabled())));
+    private static final String DEFAULT_SCENARIO =
+            "pause:" + LocalSagaEngine.SEAT_BOOKING_CREATED_LISTENER + "@5s+5s;"
+                    + "seat-timeout@14s+3s;"
+                    + "pause:" + LocalSagaEngine.SEAT_PAYMENT_STATUS_LISTENER + "@20s+4s";
+
+    private LocalSagaEngine engine;
+    private ControlEndpointStub stub;
+
+    @Override
+    public boolean usesTestDataPartition() {
+        return false;
+    }
+
+    @BeforeClass
+    void startStub() throws IOException {
+        if (STUB) {
+            engine = LocalSagaEngine.overKafka(SimulatorConfig.fromSystemProperties());
+            stub = ControlEndpointStub.fromSystemProperties(engine);
+        }
+    }
+
+    @Test
+    public void saga_should_recover_from_every_scheduled_fault() throws Exception {
+        ChaosScenario scenario = ChaosScenario.fromSystemProperties();
+        if (scenario.isEmpty()) {
+            scenario = ChaosScenario.parse(DEFAULT_SCENARIO);
+        }
+        ChaosControlClient control = STUB
+                ? new ChaosControlClient(stub.getBaseUrl())
+                : ChaosControlClient.fromSystemProperties();
+        ChaosScheduler chaos = ChaosScheduler.fromSystemProperties(scenario, control);
+
+        SagaLoadDriver driver = new SagaLoadDriver(loadConfig()).withChaos(chaos);
+        if (STUB) {
+            driver.withLagGroups(engine.getConsumerGroups());
+        }
+        driver.run();
+
+        for (FaultImpact impact : chaos.results()) {
+            assertNull(impact.getError(), impact.toString());
+            assertTrue(impact.isRecovered(), "Saga did not recover from " + impact);
+            if (impact.getFault().getType() == ChaosFault.Type.SEAT_TIMEOUT) {
+                assertTrue(impact.getDltRecords() > 0, "Seat timeouts dead-lettered nothing: " + impact);
+            }
+        }
+        assertFalse(chaos.results().isEmpty());
+    }
+
+    /**
+     * Against the stub there is no database: seats are not seeded and CONFIRMED is not polled.
+     */
+    private SagaLoadConfig loadConfig() {
+        SagaLoadConfig config = SagaLoadConfig.fromSystemProperties();
+        if (!STUB) {
+            return config;
+        }
+        return new SagaLoadConfig(
+                stub.getBookingBaseUrl(),
+                config.getTargetRatePerSecond(),
+                config.getDuration(),
+                config.getDrainTimeout(),
+                config.getMaxInFlight(),
+                config.getShowId(),
+                config.getSeatsPerBooking(),
+                config.getAmount(),
+                false,
+                false,
+                config.getLagSampleInterval(),
+                config.getMetricsDir(),
+                config.getLatencyBaseline(),
+                config.getHttpClientMode()
+        );
+    }
+
+    @AfterClass(alwaysRun = true)
+    void stopStub() throws InterruptedException {
+        if (stub != null) {
+            stub.close();
+        }
+        if (engine != null) {
+            engine.close();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.microservices.api.tests.load;
+
+import com.microservices.api.load.DeliveryModeComparison;
+import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Publishes the same saga traffic at-least-once and exactly-once, to throwaway copies of the saga topics,
+ * and reports what transactions cost.
+ * Tune with -Deos.compare.sagas, -Deos.compare.tx.size, -Deos.compare.threads (see {@link DeliveryModeComparison}).
+ */
+public class DeliveryModeThroughputTest extends BaseKafkaIntegrationTest {
+
+    @Override
+    public boolean usesTestDataPartition() {
+        return false;
+    }
+
+    @Test
+    public void exactly_once_throughput_cost_should_be_measured() throws Exception {
+        List<DeliveryModeComparison.ModeResult> results = DeliveryModeComparison.fromSystemProperties().run();
+
+        assertEquals(results.size(), 2);
+        for (DeliveryModeComparison.ModeResult result : results) {
+            assertTrue(result.getVisibleRate() > 0, result.getMode() + " delivered nothing");
+        }
+        assertTrue(results.get(1).getCommits() > 0, "exactly-once run committed no transactions");
+    }
+}
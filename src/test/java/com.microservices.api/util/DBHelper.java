@@ -1,7 +1,14 @@
 package com.microservices.api.util;
 
+import com.microservices.api.model.db.BookingSagaState;
+import com.microservices.api.model.db.SeatState;
+import com.microservices.api.seatmap.SeatAvailabilityIndex;
+import main.java.com.microservices.api.core.LatencyRecorder;
+
 import java.sql.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static com.microservices.api.util.DbTestUtils.getConnection;
 import static org.testng.AssertJUnit.assertEquals;
@@ -81,6 +88,42 @@ public class DBHelper {
         assertEquals(actualStatus.trim().toUpperCase(), expectedStatus.trim().toUpperCase());
     }
 
+    /**
+     * Polls until the booking reaches the expected status (see {@link Eventually}).
+     */
+    public static Duration awaitBookingStatus(String bookingCode, String expectedStatus, Duration timeout) {
+        return converged("db.await booking.status", Eventually.eventually(
+                "booking-status",
+                "booking " + bookingCode + " is " + expectedStatus,
+                timeout,
+                () -> assertBookingStatus(bookingCode, expectedStatus)
+        ));
+    }
+
+    public static Duration awaitSeatLocked(String showId, String seatNumber, String expectedBookingId, Duration timeout) {
+        return converged("db.await seat.locked", Eventually.eventually(
+                "seat-locked",
+                "seat " + showId + "/" + seatNumber + " is LOCKED by " + expectedBookingId,
+                timeout,
+                () -> assertSeatLocked(showId, seatNumber, expectedBookingId)
+        ));
+    }
+
+    public static Duration awaitSeatAvailable(String showId, String seatNumber, Duration timeout) {
+        return converged("db.await seat.available", Eventually.eventually(
+                "seat-available",
+                "seat " + showId + "/" + seatNumber + " is AVAILABLE",
+                timeout,
+                () -> assertSeatAvailable(showId, seatNumber)
+        ));
+    }
+
+    /** Records how long a DB assertion took to converge; see {@link LatencyRecorder}. */
+    private static Duration converged(String recorder, Duration timeToConsistency) {
+        LatencyRecorder.of(recorder).record(timeToConsistency);
+        return timeToConsistency;
+    }
+
     public static Map<String, Map<String, String>> fetchSeatStates(String showId, List<String> seats) throws SQLException {
 
         String placeholders = String.join(
@@ -117,6 +160,140 @@ public class DBHelper {
         return result;
     }
 
+    /**
+     * Snapshot of every seat of the show as a {@link SeatAvailabilityIndex}; any status other than
+     * AVAILABLE counts as taken. Use {@link SeatAvailabilityIndex#emptyCopy()} to build the expected state.
+     */
+    public static SeatAvailabilityIndex loadSeatAvailability(String showId) throws SQLException {
+        List<String> seats = new ArrayList<>();
+        List<String> taken = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT seatNumber, status FROM seat_inventory WHERE showId = ?")) {
+            ps.setString(1, showId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String seat = rs.getString(1);
+                    seats.add(seat);
+                    if (!"AVAILABLE".equals(rs.getString(2))) {
+                        taken.add(seat);
+                    }
+                }
+            }
+        }
+
+        SeatAvailabilityIndex index = SeatAvailabilityIndex.allAvailable(showId, seats);
+        index.lock(taken);
+        return index;
+    }
+
+    /**
+     * Loads Booking, Booking_seatIds and seat_inventory for many bookings with one joined query per
+     * chunk of booking codes ({@code db.bulk.chunk.size}, default 500) and hands each booking to
+     * {@code sink} as soon as its rows are read, so large verifications never hold everything in memory.
+     *
+     * @return the booking codes that have no Booking row
+     */
+    public static Set<String> forEachBookingState(
+            Collection<String> bookingCodes,
+            Consumer<BookingSagaState> sink
+    ) throws SQLException {
+        int chunkSize = Integer.getInteger("db.bulk.chunk.size", 500);
+        Set<String> missing = new HashSet<>(bookingCodes);
+        List<String> codes = new ArrayList<>(missing);
+
+        try (Connection conn = getConnection()) {
+            for (int from = 0; from < codes.size(); from += chunkSize) {
+                List<String> chunk = codes.subList(from, Math.min(codes.size(), from + chunkSize));
+                String sql =
+                        "SELECT b.id, b.bookingCode, b.status, b.amount, b.userId, b.showId, " +
+                                "bs.seatIds, si.status AS seatStatus, si.currentBookingId " +
+                                "FROM Booking b " +
+                                "LEFT JOIN Booking_seatIds bs ON bs.Booking_id = b.id " +
+                                "LEFT JOIN seat_inventory si ON si.showId = b.showId AND si.seatNumber = bs.seatIds " +
+                                "WHERE b.bookingCode IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ") " +
+                                "ORDER BY b.id";
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        readBookingStates(rs, state -> {
+                            missing.remove(state.getBookingCode());
+                            sink.accept(state);
+                        });
+                    }
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Status of every Booking row of the given codes, one list entry per row, so a code that was applied
+     * twice shows up with two entries. Queried in chunks of {@code db.bulk.chunk.size} (default 500).
+     */
+    public static Map<String, List<String>> fetchBookingStatuses(Collection<String> bookingCodes) throws SQLException {
+        int chunkSize = Integer.getInteger("db.bulk.chunk.size", 500);
+        List<String> codes = new ArrayList<>(new HashSet<>(bookingCodes));
+        Map<String, List<String>> statuses = new HashMap<>(codes.size() * 4 / 3 + 1);
+
+        try (Connection conn = getConnection()) {
+            for (int from = 0; from < codes.size(); from += chunkSize) {
+                List<String> chunk = codes.subList(from, Math.min(codes.size(), from + chunkSize));
+                String sql = "SELECT bookingCode, status FROM Booking WHERE bookingCode IN ("
+                        + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            statuses.computeIfAbsent(rs.getString("bookingCode"), code -> new ArrayList<>(1))
+                                    .add(rs.getString("status"));
+                        }
+                    }
+                }
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Rows arrive ordered by Booking id, one row per seat; a booking is complete when the id changes.
+     */
+    private static void readBookingStates(ResultSet rs, Consumer<BookingSagaState> sink) throws SQLException {
+        long currentId = -1;
+        String code = null, status = null, userId = null, showId = null;
+        long amount = 0;
+        List<SeatState> seats = new ArrayList<>();
+
+        while (rs.next()) {
+            long id = rs.getLong("id");
+            if (id != currentId) {
+                if (currentId != -1) {
+                    sink.accept(new BookingSagaState(currentId, code, status, amount, userId, showId, seats));
+                    seats = new ArrayList<>();
+                }
+                currentId = id;
+                code = rs.getString("bookingCode");
+                status = rs.getString("status");
+                amount = rs.getLong("amount");
+                userId = rs.getString("userId");
+                showId = rs.getString("showId");
+            }
+            String seatNumber = rs.getString("seatIds");
+            if (seatNumber != null) {
+                seats.add(new SeatState(seatNumber, rs.getString("seatStatus"), rs.getString("currentBookingId")));
+            }
+        }
+        if (currentId != -1) {
+            sink.accept(new BookingSagaState(currentId, code, status, amount, userId, showId, seats));
+        }
+    }
+
     public static void assertSeatLocked(String showId, String seatNumber, String expectedBookingId) throws SQLException {
 
         Map<String, Object> seat =
@@ -0,0 +1,60 @@
+package com.microservices.api.util;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects connection-acquire wait times and timeouts from the Hikari pool behind {@link DbTestUtils}.
+ */
+public class DbPoolMetrics implements MetricsTrackerFactory {
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanosTotal = new LongAdder();
+    private final AtomicLong acquireNanosMax = new AtomicLong();
+    private final LongAdder usageMillisTotal = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireCount.increment();
+                acquireNanosTotal.add(elapsedAcquiredNanos);
+                acquireNanosMax.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageMillisTotal.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public DbPoolStats snapshot() {
+        PoolStats stats = poolStats;
+        long count = acquireCount.sum();
+        return new DbPoolStats(
+                stats == null ? 0 : stats.getActiveConnections(),
+                stats == null ? 0 : stats.getIdleConnections(),
+                stats == null ? 0 : stats.getTotalConnections(),
+                stats == null ? 0 : stats.getPendingThreads(),
+                count,
+                count == 0 ? 0 : acquireNanosTotal.sum() / count,
+                acquireNanosMax.get(),
+                count == 0 ? 0 : usageMillisTotal.sum() / count,
+                timeouts.sum()
+        );
+    }
+}
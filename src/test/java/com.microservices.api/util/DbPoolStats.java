@@ -0,0 +1,85 @@
+package com.microservices.api.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time view of the test connection pool. A steadily non-zero {@code pendingThreads}
+ * or a growing {@code maxAcquireNanos} means the pool is too small for the test parallelism.
+ */
+public class DbPoolStats {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int pendingThreads;
+    private final long acquireCount;
+    private final long avgAcquireNanos;
+    private final long maxAcquireNanos;
+    private final long avgUsageMillis;
+    private final long timeouts;
+
+    public DbPoolStats(int activeConnections, int idleConnections, int totalConnections, int pendingThreads,
+                       long acquireCount, long avgAcquireNanos, long maxAcquireNanos, long avgUsageMillis,
+                       long timeouts) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.totalConnections = totalConnections;
+        this.pendingThreads = pendingThreads;
+        this.acquireCount = acquireCount;
+        this.avgAcquireNanos = avgAcquireNanos;
+        this.maxAcquireNanos = maxAcquireNanos;
+        this.avgUsageMillis = avgUsageMillis;
+        this.timeouts = timeouts;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getPendingThreads() {
+        return pendingThreads;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public long getAvgAcquireNanos() {
+        return avgAcquireNanos;
+    }
+
+    public long getMaxAcquireNanos() {
+        return maxAcquireNanos;
+    }
+
+    public long getAvgUsageMillis() {
+        return avgUsageMillis;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    @Override
+    public String toString() {
+        return "DbPoolStats{" +
+                "active=" + activeConnections +
+                ", idle=" + idleConnections +
+                ", total=" + totalConnections +
+                ", pendingThreads=" + pendingThreads +
+                ", acquires=" + acquireCount +
+                ", avgWaitMicros=" + TimeUnit.NANOSECONDS.toMicros(avgAcquireNanos) +
+                ", maxWaitMicros=" + TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos) +
+                ", avgUsageMillis=" + avgUsageMillis +
+                ", timeouts=" + timeouts +
+                '}';
+    }
+}
@@ -1,15 +1,97 @@
 package com.microservices.api.util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+/**
+ * Pooled access to the saga database.
+ * <p>
+ * Connections come from a bounded HikariCP pool instead of a fresh {@code DriverManager} handshake
+ * per call, and the MySQL driver caches server-side prepared statements per connection.
+ * Sizing is taken from system properties:
+ * <ul>
+ *     <li>{@code db.url}, {@code db.user}, {@code db.password}</li>
+ *     <li>{@code db.pool.max.size} (default 10), {@code db.pool.min.idle} (default 2)</li>
+ *     <li>{@code db.pool.connection.timeout.ms} (default 10000)</li>
+ *     <li>{@code db.prep.stmt.cache.size} (default 250), {@code db.prep.stmt.cache.sql.limit} (default 2048)</li>
+ * </ul>
+ */
 public class DbTestUtils {
-    private static final String JDBC_URL = "jdbc:mysql://127.0.0.1:3306/javatechie";
-    private static final String USER = "root";
-    private static final String PASSWORD = "root";
+    private static final String JDBC_URL = System.getProperty("db.url", "jdbc:mysql://127.0.0.1:3306/javatechie");
+    private static final String USER = System.getProperty("db.user", "root");
+    private static final String PASSWORD = System.getProperty("db.password", "root");
+
+    private static final DbPoolMetrics METRICS = new DbPoolMetrics();
+    private static volatile HikariDataSource dataSource;
+    private static boolean shutDown;
 
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(JDBC_URL, USER, PASSWORD);
+        return dataSource().getConnection();
+    }
+
+    public static DataSource dataSource() {
+        HikariDataSource ds = dataSource;
+        if (ds != null) {
+            return ds;
+        }
+        synchronized (DbTestUtils.class) {
+            if (shutDown) {
+                throw new IllegalStateException("DB pool has been shut down");
+            }
+            if (dataSource == null) {
+                dataSource = createDataSource();
+                Runtime.getRuntime().addShutdownHook(new Thread(DbTestUtils::shutdown, "db-pool-shutdown"));
+            }
+            return dataSource;
+        }
+    }
+
+    /**
+     * Active/idle connections, threads waiting for a connection and acquire wait times.
+     */
+    public static DbPoolStats poolStats() {
+        return METRICS.snapshot();
+    }
+
+    /**
+     * Closes the pool for good: {@link #dataSource()} throws {@link IllegalStateException} afterwards
+     * instead of quietly building a new pool.
+     */
+    public static synchronized void shutdown() {
+        shutDown = true;
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+    }
+
+    private static HikariDataSource createDataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("saga-test-db");
+        config.setJdbcUrl(JDBC_URL);
+        config.setUsername(USER);
+        config.setPassword(PASSWORD);
+        config.setMaximumPoolSize(Integer.getInteger("db.pool.max.size", 10));
+        config.setMinimumIdle(Integer.getInteger("db.pool.min.idle", 2));
+        config.setConnectionTimeout(Long.getLong("db.pool.connection.timeout.ms", 10_000L));
+        config.setMetricsTrackerFactory(METRICS);
+
+        // MySQL Connector/J statement caching (server-side prepared statements, cached per connection)
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", Integer.getInteger("db.prep.stmt.cache.size", 250));
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", Integer.getInteger("db.prep.stmt.cache.sql.limit", 2048));
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        config.addDataSourceProperty("cacheResultSetMetadata", "true");
+        config.addDataSourceProperty("cacheServerConfiguration", "true");
+        config.addDataSourceProperty("useLocalSessionState", "true");
+        config.addDataSourceProperty("elideSetAutoCommits", "true");
+        config.addDataSourceProperty("maintainTimeStats", "false");
+
+        return new HikariDataSource(config);
     }
 }
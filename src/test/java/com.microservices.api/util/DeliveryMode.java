@@ -0,0 +1,32 @@
+package com.microservices.api.util;
+
+import org.apache.kafka.common.IsolationLevel;
+
+import java.util.Locale;
+
+/**
+ * Delivery guarantee the harness publishes and consumes with.
+ * Selected with {@code -Dkafka.delivery=at_least_once|exactly_once} (default at_least_once).
+ * <ul>
+ *     <li>AT_LEAST_ONCE: {@link KafkaEventPublisher}, consumers read uncommitted records</li>
+ *     <li>EXACTLY_ONCE: {@link TransactionalEventPublisher}, consumers read committed records only</li>
+ * </ul>
+ */
+public enum DeliveryMode {
+    AT_LEAST_ONCE,
+    EXACTLY_ONCE;
+
+    public static DeliveryMode fromSystemProperty() {
+        return parse(System.getProperty("kafka.delivery", "at_least_once"));
+    }
+
+    public static DeliveryMode parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /** Value for the consumer {@code isolation.level} setting. */
+    public String isolationLevel() {
+        IsolationLevel level = this == EXACTLY_ONCE ? IsolationLevel.READ_COMMITTED : IsolationLevel.READ_UNCOMMITTED;
+        return level.toString().toLowerCase(Locale.ROOT);
+    }
+}
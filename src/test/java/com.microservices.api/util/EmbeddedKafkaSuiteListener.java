@@ -0,0 +1,18 @@
+package com.microservices.api.util;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Boots the shared embedded broker before the first test of a suite when {@code -Dkafka.embedded=true}.
+ * Later suites in the same JVM reuse it.
+ */
+public class EmbeddedKafkaSuiteListener implements ISuiteListener {
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (EmbeddedKafkaSupport.isEnabled()) {
+            EmbeddedKafkaSupport.start();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.microservices.api.util;
+
+import com.microservices.api.constants.KafkaTestConstants;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One in-JVM KRaft broker shared by every suite and class of the run.
+ * <p>
+ * Started lazily by {@link EmbeddedKafkaSuiteListener} when {@code -Dkafka.embedded=true}; once
+ * up, {@link KafkaBootstrap} points every producer, consumer and admin client at it. The broker
+ * is never restarted between suites and is stopped by a JVM shutdown hook.
+ * <p>
+ * Tunable with {@code kafka.embedded.partitions} (default 3) and {@code kafka.embedded.port}
+ * (default 0 = random free port).
+ */
+public final class EmbeddedKafkaSupport {
+
+    private static volatile EmbeddedKafkaKraftBroker broker;
+    private static volatile long startupMillis;
+
+    private EmbeddedKafkaSupport() {}
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("kafka.embedded");
+    }
+
+    public static EmbeddedKafkaBroker start() {
+        EmbeddedKafkaKraftBroker running = broker;
+        if (running != null) {
+            return running;
+        }
+        synchronized (EmbeddedKafkaSupport.class) {
+            if (broker == null) {
+                long begin = System.nanoTime();
+                EmbeddedKafkaKraftBroker embedded = new EmbeddedKafkaKraftBroker(
+                        1,
+                        Integer.getInteger("kafka.embedded.partitions", 3),
+                        KafkaTestConstants.ALL_TOPICS
+                ).kafkaPorts(Integer.getInteger("kafka.embedded.port", 0));
+                // single broker: no replication, no rebalance delay, internal topics as small as possible
+                embedded.brokerProperty("group.initial.rebalance.delay.ms", "0");
+                embedded.brokerProperty("offsets.topic.num.partitions", "1");
+                embedded.brokerProperty("offsets.topic.replication.factor", "1");
+                embedded.brokerProperty("transaction.state.log.num.partitions", "1");
+                embedded.brokerProperty("transaction.state.log.replication.factor", "1");
+                embedded.brokerProperty("transaction.state.log.min.isr", "1");
+                embedded.afterPropertiesSet();
+
+                startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                KafkaBootstrap.override(embedded.getBrokersAsString());
+                Runtime.getRuntime().addShutdownHook(new Thread(embedded::destroy, "embedded-kafka-shutdown"));
+                System.out.println("Embedded KRaft broker started in " + startupMillis + " ms at "
+                        + embedded.getBrokersAsString() + " with topics " + embedded.getTopics());
+                broker = embedded;
+            }
+            return broker;
+        }
+    }
+
+    /**
+     * The running broker, or {@code null} when the suite talks to an external cluster.
+     */
+    public static EmbeddedKafkaBroker broker() {
+        return broker;
+    }
+
+    public static long getStartupMillis() {
+        return startupMillis;
+    }
+}
@@ -0,0 +1,152 @@
+package com.microservices.api.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polling assertions for eventually-consistent saga state.
+ * <p>
+ * Instead of {@code Thread.sleep(5000)} followed by a one-shot assertion, the assertion is retried
+ * on a small shared scheduler with exponential backoff and jitter until it passes or the timeout
+ * expires. Waiting callers do not occupy a scheduler thread between attempts, so hundreds of pending
+ * assertions can share a couple of threads. The time it took each assertion to pass is recorded
+ * per assertion kind (e.g. {@code booking-status}) and available from {@link #timeToConsistency()}; the
+ * description, which may name bookings and seats, only goes into failure messages.
+ * <p>
+ * Tunable with {@code eventually.timeout.ms}, {@code eventually.initial.delay.ms},
+ * {@code eventually.max.delay.ms} and {@code eventually.threads}.
+ */
+public final class Eventually {
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(Long.getLong("eventually.timeout.ms", 15_000L));
+    private static final long INITIAL_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("eventually.initial.delay.ms", 25L));
+    private static final long MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("eventually.max.delay.ms", 1_000L));
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(
+            Integer.getInteger("eventually.threads", 2), daemonThreads());
+
+    private static final Map<String, TimeToConsistency> METRICS = new ConcurrentHashMap<>();
+
+    private Eventually() {}
+
+    @FunctionalInterface
+    public interface Check {
+        void run() throws Exception;
+    }
+
+    public static Duration eventually(String kind, String description, Check check) {
+        return eventually(kind, description, DEFAULT_TIMEOUT, check);
+    }
+
+    /**
+     * Blocks until {@code check} passes and returns how long that took.
+     *
+     * @param kind        what is asserted, without ids; the key its time-to-consistency is recorded under
+     * @param description the concrete condition, for the failure message
+     * @throws AssertionError carrying the last failure if the check never passed within the timeout
+     */
+    public static Duration eventually(String kind, String description, Duration timeout, Check check) {
+        try {
+            return eventuallyAsync(kind, description, timeout, check).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while waiting for: " + description, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AssertionError) {
+                throw (AssertionError) e.getCause();
+            }
+            throw new AssertionError(description, e.getCause());
+        }
+    }
+
+    /**
+     * Non-blocking variant; the future completes with the time-to-consistency or fails with an
+     * {@link AssertionError}.
+     */
+    public static CompletableFuture<Duration> eventuallyAsync(String kind, String description, Duration timeout, Check check) {
+        CompletableFuture<Duration> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+        SCHEDULER.execute(new Attempt(kind, description, check, start, start + timeout.toNanos(), result));
+        return result;
+    }
+
+    /**
+     * Time-to-consistency per assertion kind since JVM start.
+     */
+    public static Map<String, TimeToConsistency> timeToConsistency() {
+        return METRICS;
+    }
+
+    private static final class Attempt implements Runnable {
+        private final String kind;
+        private final String description;
+        private final Check check;
+        private final long start;
+        private final long deadline;
+        private final CompletableFuture<Duration> result;
+        private int attempt;
+
+        private Attempt(String kind, String description, Check check, long start, long deadline,
+                        CompletableFuture<Duration> result) {
+            this.kind = kind;
+            this.description = description;
+            this.check = check;
+            this.start = start;
+            this.deadline = deadline;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                check.run();
+                long elapsed = System.nanoTime() - start;
+                METRICS.computeIfAbsent(kind, k -> new TimeToConsistency()).record(elapsed);
+                result.complete(Duration.ofNanos(elapsed));
+            } catch (Throwable failure) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    AssertionError error = new AssertionError("Condition not met within "
+                            + Duration.ofNanos(deadline - start).toMillis() + " ms after " + (attempt + 1)
+                            + " attempts: " + description, failure);
+                    result.completeExceptionally(error);
+                    return;
+                }
+                long delay = Math.min(nextDelay(), deadline - now);
+                SCHEDULER.schedule(this, delay, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Exponential backoff capped at the max delay, with "equal jitter" (half fixed, half random)
+         * so that many assertions started together do not hit the database in lockstep.
+         */
+        private long nextDelay() {
+            long exp = INITIAL_DELAY_NANOS << Math.min(attempt++, 20);
+            long capped = Math.min(MAX_DELAY_NANOS, exp);
+            long half = capped / 2;
+            return half + ThreadLocalRandom.current().nextLong(half + 1);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, "eventually-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.microservices.api.util;
+
+import com.microservices.api.consumers.IndexedEvent;
+import com.microservices.api.consumers.SagaEventIndex;
+import com.microservices.api.metrics.SagaHeaders;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end exactly-once check for a set of bookings, meant for {@link DeliveryMode#EXACTLY_ONCE} runs
+ * where the harness publishes transactionally and reads committed records only.
+ * <p>
+ * Every state transition of a booking is caused by one event, so the check counts the committed events
+ * per bookingId that the services published (events the harness injected itself, stamped with
+ * {@link SagaHeaders}, are not counted), after waiting {@code settle} for late duplicates to arrive:
+ * <ul>
+ *     <li>exactly one BookingCreated event and exactly one Booking row (a redelivered BookingCreatedEvent
+ *     applied twice shows up as a second row)</li>
+ *     <li>at most one SeatReserved event</li>
+ *     <li>exactly one payment event for a CONFIRMED booking and at most one for a FAILED one</li>
+ * </ul>
+ */
+public class ExactlyOnceVerifier {
+
+    public static SagaInvariantReport verify(
+            Collection<String> bookingCodes,
+            SagaEventIndex events,
+            Duration settle
+    ) throws SQLException {
+        sleep(settle);
+        Map<String, List<String>> statuses = DBHelper.fetchBookingStatuses(bookingCodes);
+
+        SagaInvariantReport report = new SagaInvariantReport();
+        for (String code : bookingCodes) {
+            long created = servicePublished(events.bookingCreated().indexedEvents(code));
+            if (created != 1) {
+                report.violation(code, created + " committed BookingCreated events");
+            }
+            long seatEvents = servicePublished(events.seatReserved().indexedEvents(code));
+            if (seatEvents > 1) {
+                report.violation(code, seatEvents + " committed SeatReserved events");
+            }
+
+            List<String> rows = statuses.get(code);
+            if (rows == null || rows.isEmpty()) {
+                report.violation(code, "no Booking row");
+                continue;
+            }
+            if (rows.size() > 1) {
+                report.violation(code, rows.size() + " Booking rows " + rows);
+            }
+
+            long paymentEvents = servicePublished(events.payments().indexedEvents(code));
+            switch (normalize(rows.get(0))) {
+                case "CONFIRMED":
+                    report.confirmed();
+                    if (paymentEvents != 1) {
+                        report.violation(code, "CONFIRMED with " + paymentEvents + " committed payment events");
+                    }
+                    break;
+                case "FAILED":
+                    report.failed();
+                    if (paymentEvents > 1) {
+                        report.violation(code, "FAILED with " + paymentEvents + " committed payment events");
+                    }
+                    break;
+                default:
+                    report.inFlight();
+            }
+        }
+        return report;
+    }
+
+    private static long servicePublished(List<? extends IndexedEvent<?>> events) {
+        return events.stream()
+                .filter(event -> SagaHeaders.publishedAtMillis(event.getRecord().headers()) < 0)
+                .count();
+    }
+
+    private static String normalize(String status) {
+        return status == null ? "" : status.trim().toUpperCase();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for saga state to settle", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.microservices.api.util;
+
+/**
+ * Resolves the Kafka bootstrap servers used by every producer, consumer and admin client in the harness.
+ * <p>
+ * Priority: {@link #override(String)} (e.g. an embedded broker started by the suite),
+ * then {@code -Dkafka.bootstrap}, then env {@code KAFKA_BOOTSTRAP_SERVERS}, then {@code localhost:9092}.
+ */
+public final class KafkaBootstrap {
+
+    private static volatile String override;
+
+    private KafkaBootstrap() {}
+
+    public static String servers() {
+        String servers = override;
+        if (servers != null) {
+            return servers;
+        }
+        String fromSysProp = System.getProperty("kafka.bootstrap");
+        if (fromSysProp != null && !fromSysProp.isBlank()) {
+            return fromSysProp;
+        }
+        String fromEnv = System.getenv("KAFKA_BOOTSTRAP_SERVERS");
+        if (fromEnv != null && !fromEnv.isBlank()) {
+            return fromEnv;
+        }
+        return "localhost:9092";
+    }
+
+    public static void override(String bootstrapServers) {
+        override = bootstrapServers;
+    }
+}
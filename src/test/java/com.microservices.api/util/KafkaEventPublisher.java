@@ -0,0 +1,150 @@
+package com.microservices.api.util;
+
+import com.microservices.api.metrics.SagaHeaders;
+import com.microservices.api.serde.SagaEventSerializer;
+import com.microservices.api.serde.WireFormat;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Long-lived, thread-safe publisher for injecting events into the saga topics.
+ * <p>
+ * Sends are asynchronous and batched by the Kafka client (linger/batch-size), so injecting
+ * thousands of duplicates no longer costs one broker round trip each. Records with the same key
+ * always go through the same producer of the pool, which keeps per-booking ordering intact.
+ * <p>
+ * Tunable with {@code kafka.producer.pool.size} (default 1), {@code kafka.producer.linger.ms}
+ * (default 5), {@code kafka.producer.batch.size} (default 65536), {@code kafka.producer.compression}
+ * (default lz4) and {@code kafka.producer.acks} (default all). Bootstrap servers come from
+ * {@link KafkaBootstrap}; the value encoding from {@code -Dkafka.wire.format} (see {@link WireFormat}).
+ * Every record carries the {@link SagaHeaders} correlation id (the key) and publish time.
+ */
+public class KafkaEventPublisher implements AutoCloseable {
+
+    private static volatile KafkaEventPublisher shared;
+
+    private final List<KafkaProducer<String, Object>> producers;
+
+    public KafkaEventPublisher(Map<String, Object> producerProperties, int poolSize) {
+        this.producers = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            producers.add(new KafkaProducer<>(producerProperties));
+        }
+    }
+
+    public static KafkaEventPublisher shared() {
+        KafkaEventPublisher publisher = shared;
+        if (publisher != null) {
+            return publisher;
+        }
+        synchronized (KafkaEventPublisher.class) {
+            if (shared == null) {
+                shared = new KafkaEventPublisher(producerProperties(), Integer.getInteger("kafka.producer.pool.size", 1));
+                Runtime.getRuntime().addShutdownHook(
+                        new Thread(KafkaEventPublisher::closeShared, "kafka-event-publisher-shutdown"));
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Closes the shared publisher; the next {@link #shared()} call creates a fresh one.
+     */
+    public static void closeShared() {
+        synchronized (KafkaEventPublisher.class) {
+            if (shared != null) {
+                shared.close();
+                shared = null;
+            }
+        }
+    }
+
+    public static Map<String, Object> producerProperties() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaBootstrap.servers());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, SagaEventSerializer.class);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, true);
+        props.put(SagaEventSerializer.WIRE_FORMAT_CONFIG, WireFormat.fromSystemProperty().name());
+        props.put(ProducerConfig.ACKS_CONFIG, System.getProperty("kafka.producer.acks", "all"));
+        props.put(ProducerConfig.LINGER_MS_CONFIG, Integer.getInteger("kafka.producer.linger.ms", 5));
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, Integer.getInteger("kafka.producer.batch.size", 65_536));
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, System.getProperty("kafka.producer.compression", "lz4"));
+        return props;
+    }
+
+    public CompletableFuture<RecordMetadata> publishAsync(String topic, String key, Object event) {
+        return publishAsync(topic, key, event, null);
+    }
+
+    /**
+     * Like {@link #publishAsync(String, String, Object)}, with {@code extraHeaders} added after the saga headers.
+     */
+    public CompletableFuture<RecordMetadata> publishAsync(String topic, String key, Object event, Headers extraHeaders) {
+        CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        Headers headers = SagaHeaders.stamp(key);
+        if (extraHeaders != null) {
+            extraHeaders.forEach(headers::add);
+        }
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, null, key, event, headers);
+        producerFor(key).send(record, (metadata, exception) -> {
+            if (exception != null) {
+                future.completeExceptionally(exception);
+            } else {
+                future.complete(metadata);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Sends every entry (key -> event) and completes once all of them are acknowledged.
+     */
+    public CompletableFuture<Void> publishAll(String topic, Map<String, ?> events) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[events.size()];
+        int i = 0;
+        for (Map.Entry<String, ?> entry : events.entrySet()) {
+            futures[i++] = publishAsync(topic, entry.getKey(), entry.getValue());
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Sends the same event {@code copies} times under one key, e.g. to inject duplicate deliveries.
+     */
+    public CompletableFuture<Void> publishDuplicates(String topic, String key, Object event, int copies) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[copies];
+        for (int i = 0; i < copies; i++) {
+            futures[i] = publishAsync(topic, key, event);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    public void flush() {
+        producers.forEach(KafkaProducer::flush);
+    }
+
+    private KafkaProducer<String, Object> producerFor(String key) {
+        if (producers.size() == 1 || key == null) {
+            return producers.get(0);
+        }
+        return producers.get(Math.floorMod(key.hashCode(), producers.size()));
+    }
+
+    @Override
+    public void close() {
+        producers.forEach(producer -> producer.close(Duration.ofSeconds(10)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.microservices.api.util;
 
+import com.microservices.api.consumers.TopicEventIndex;
 import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
 import org.apache.kafka.clients.consumer.Consumer;
 
@@ -80,4 +81,39 @@ public class KafkaTestAssertions {
         );
     }
 
+    /**
+     * Same as {@link #assertIdempotentEvent(Consumer, String, String, int, Function, Runnable, String)} but
+     * waits on the shared bookingId index, so it is safe to call from tests running in parallel.
+     */
+    public static <T> void assertIdempotentEvent(
+            TopicEventIndex<T> events,
+            String key,
+            int duplicateCount,
+            Runnable dbAssertion,
+            String expectedStatus
+    ) throws Exception {
+        events.await(key, Duration.ofSeconds(10));
+
+        dbAssertion.run();
+
+        assertEquals(BaseKafkaIntegrationTest.getBookingStatus(key), expectedStatus);
+    }
+
+    public static <T> void assertNoSideEffectsAfterDuplicateEvents(
+            TopicEventIndex<T> events,
+            String key,
+            Runnable dbAssertion,
+            String expectedStatus
+    ) throws Exception {
+        events.await(key, Duration.ofSeconds(10));
+
+        dbAssertion.run();
+
+        assertEquals(
+                BaseKafkaIntegrationTest.getBookingStatus(key),
+                expectedStatus,
+                "Booking status changed due to duplicate events"
+        );
+    }
+
 }
@@ -1,26 +1,19 @@
 package com.microservices.api.util;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.api.constants.KafkaTestConstants;
+import com.microservices.api.dlt.DltEntry;
+import com.microservices.api.dlt.DltInspector;
 import com.microservices.api.model.events.BookingCreatedEvent;
-import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
 import org.apache.kafka.clients.admin.*;
-import org.apache.kafka.clients.consumer.Consumer;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.clients.producer.RecordMetadata;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
-
-import org.apache.kafka.common.serialization.StringSerializer;
-import org.springframework.kafka.core.DefaultKafkaProducerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import java.util.Collections;
 import java.util.Properties;
@@ -28,57 +21,22 @@ import java.util.Properties;
 public class KafkaTestUtils {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
-    private static KafkaTemplate<String, Object> kafkaTemplate;
-
-    static {
-        Map<String, Object> props = new HashMap<>();
-        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, true);
 
-        ProducerFactory<String, Object> producerFactory =
-                new DefaultKafkaProducerFactory<>(props);
-
-        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    /**
+     * AdminClient for the configured cluster ({@link KafkaBootstrap}); the caller closes it.
+     */
+    public static AdminClient createAdminClient() {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaBootstrap.servers());
+        return AdminClient.create(props);
     }
 
-
+    /**
+     * Deletes every record of {@code topic}; see {@link TopicResetService} for resetting several topics at
+     * once or skipping deletion with a watermark.
+     */
     public static void deleteTopicRecords(String bootstrapServers, String topic) throws Exception {
-        Properties props = new Properties();
-        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-
-        try (AdminClient admin = AdminClient.create(props)) {
-
-            // Get partitions for topic
-            var partitions = admin.describeTopics(Collections.singletonList(topic))
-                    .all()
-                    .get()
-                    .get(topic)
-                    .partitions();
-
-            // Build map of TopicPartition -> RecordsToDelete using actual end offsets
-            Map<TopicPartition, RecordsToDelete> deleteMap = partitions.stream()
-                    .map(p -> new TopicPartition(topic, p.partition()))
-                    .collect(Collectors.toMap(
-                            tp -> tp,
-                            tp -> {
-                                try {
-                                    Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> offsets =
-                                            admin.listOffsets(Collections.singletonMap(tp, OffsetSpec.latest()))
-                                                    .all()
-                                                    .get();
-                                    long endOffset = offsets.get(tp).offset();
-                                    return RecordsToDelete.beforeOffset(endOffset);
-                                } catch (Exception e) {
-                                    throw new RuntimeException(e);
-                                }
-                            }
-                    ));
-
-            // Delete messages
-            admin.deleteRecords(deleteMap).all().get();
-        }
+        TopicResetService.forBootstrap(bootstrapServers).truncate(List.of(topic));
     }
 
     /**
@@ -146,28 +104,13 @@ public class KafkaTestUtils {
     }
 
 
-    public static BookingCreatedEvent waitForBookingCreatedEventInDLT(String bookingId) throws JsonProcessingException {
-        Consumer<String, String> consumer = BaseKafkaIntegrationTest.createConsumer(
-                "dlt-test-group",
-                String.class,
-                "movie-booking-events-dlt"
-        );
-
-        long end = System.currentTimeMillis() + 30_000;
-        while (System.currentTimeMillis() < end) {
-            ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(1000));
-
-            for (ConsumerRecord<String, String> record : records) {
-                String json = record.value();
-                BookingCreatedEvent event = new ObjectMapper().readValue(json, BookingCreatedEvent.class);
-
-                if (event != null && bookingId.equals(event.getBookingId())) {
-                    return event;  // ✅ Return the deserialized event
-                }
-            }
-        }
-
-        return null;
+    /**
+     * First BookingCreatedEvent of the booking on the booking DLT, or {@code null} after 30 seconds.
+     * Looked up in the suite-wide {@link DltInspector} index instead of polling the topic.
+     */
+    public static BookingCreatedEvent waitForBookingCreatedEventInDLT(String bookingId) {
+        DltEntry entry = DltInspector.shared().await(bookingId, KafkaTestConstants.BOOKING_EVENTS_DLT, Duration.ofSeconds(30));
+        return entry == null ? null : entry.as(BookingCreatedEvent.class);
     }
 
 
@@ -201,14 +144,54 @@ public class KafkaTestUtils {
         return null;*/
 
 
+    /**
+     * Publishes one event and waits for its acknowledgement only; other in-flight sends are not flushed.
+     * In exactly-once runs ({@link DeliveryMode}) the event is sent in its own committed transaction.
+     */
     public static void publishEvent(String topic, String key, Object event) {
-        kafkaTemplate.send(topic, key, event);
-        kafkaTemplate.flush();
+        if (DeliveryMode.fromSystemProperty() == DeliveryMode.EXACTLY_ONCE) {
+            TransactionalEventPublisher.shared().publishInTransaction(topic, key, event);
+            return;
+        }
+        try {
+            KafkaEventPublisher.shared().publishAsync(topic, key, event).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing to " + topic, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Failed to publish Kafka event to " + topic + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Publishes {@code copies} copies of one event under one key and waits for them. In exactly-once runs
+     * they are committed together in one transaction, so only the consumer's idempotency can absorb them.
+     */
+    public static void publishDuplicates(String topic, String key, Object event, int copies) {
+        if (DeliveryMode.fromSystemProperty() == DeliveryMode.EXACTLY_ONCE) {
+            TransactionalEventPublisher.shared().publishDuplicates(topic, key, event, copies);
+            return;
+        }
+        try {
+            KafkaEventPublisher.shared().publishDuplicates(topic, key, event, copies).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing to " + topic, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Failed to publish Kafka duplicates to " + topic + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static CompletableFuture<RecordMetadata> publishEventAsync(String topic, String key, Object event) {
+        return KafkaEventPublisher.shared().publishAsync(topic, key, event);
+    }
+
+    public static CompletableFuture<Void> publishAll(String topic, Map<String, ?> events) {
+        return KafkaEventPublisher.shared().publishAll(topic, events);
     }
 
     public static void shutdown() {
-        kafkaTemplate.destroy();
+        KafkaEventPublisher.closeShared();
     }
 
 }
-
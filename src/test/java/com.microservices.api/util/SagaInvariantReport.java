@@ -0,0 +1,74 @@
+package com.microservices.api.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of {@link SagaInvariantVerifier#verify}. Only the first {@value #MAX_LISTED} violations are
+ * kept verbatim; the count covers all of them.
+ */
+public class SagaInvariantReport {
+
+    static final int MAX_LISTED = 50;
+
+    private long confirmed;
+    private long failed;
+    private long inFlight;
+    private long violationCount;
+    private final List<String> violations = new ArrayList<>();
+
+    void confirmed() {
+        confirmed++;
+    }
+
+    void failed() {
+        failed++;
+    }
+
+    void inFlight() {
+        inFlight++;
+    }
+
+    void violation(String bookingCode, String message) {
+        violationCount++;
+        if (violations.size() < MAX_LISTED) {
+            violations.add(bookingCode + ": " + message);
+        }
+    }
+
+    public long getConfirmed() {
+        return confirmed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getInFlight() {
+        return inFlight;
+    }
+
+    public long getViolationCount() {
+        return violationCount;
+    }
+
+    public List<String> getViolations() {
+        return Collections.unmodifiableList(violations);
+    }
+
+    public boolean isClean() {
+        return violationCount == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SagaInvariantReport{" +
+                "confirmed=" + confirmed +
+                ", failed=" + failed +
+                ", inFlight=" + inFlight +
+                ", violations=" + violationCount +
+                (violations.isEmpty() ? "" : ", first=" + violations) +
+                '}';
+    }
+}
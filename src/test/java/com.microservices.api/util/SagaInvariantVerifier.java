@@ -0,0 +1,54 @@
+package com.microservices.api.util;
+
+import com.microservices.api.model.db.BookingSagaState;
+import com.microservices.api.model.db.SeatState;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Checks the end state of many sagas in one pass over {@link DBHelper#forEachBookingState}:
+ * <ul>
+ *     <li>CONFIRMED: every booked seat is LOCKED by this booking</li>
+ *     <li>FAILED: no booked seat is still held by this booking (it is AVAILABLE, or was never ours)</li>
+ *     <li>every requested booking code has a Booking row</li>
+ * </ul>
+ * Bookings in any other status are counted as still in flight.
+ */
+public class SagaInvariantVerifier {
+
+    public static SagaInvariantReport verify(Collection<String> bookingCodes) throws SQLException {
+        SagaInvariantReport report = new SagaInvariantReport();
+        Set<String> missing = DBHelper.forEachBookingState(bookingCodes, state -> check(state, report));
+        missing.forEach(code -> report.violation(code, "no Booking row"));
+        return report;
+    }
+
+    static void check(BookingSagaState state, SagaInvariantReport report) {
+        String status = state.getStatus() == null ? "" : state.getStatus().trim().toUpperCase();
+        switch (status) {
+            case "CONFIRMED":
+                report.confirmed();
+                if (state.getSeats().isEmpty()) {
+                    report.violation(state.getBookingCode(), "CONFIRMED without seats");
+                }
+                for (SeatState seat : state.getSeats()) {
+                    if (!seat.isLocked() || !state.isHeldByThisBooking(seat)) {
+                        report.violation(state.getBookingCode(), "CONFIRMED but seat not locked by booking: " + seat);
+                    }
+                }
+                break;
+            case "FAILED":
+                report.failed();
+                for (SeatState seat : state.getSeats()) {
+                    if (seat.isLocked() && state.isHeldByThisBooking(seat)) {
+                        report.violation(state.getBookingCode(), "FAILED but seat still locked by booking: " + seat);
+                    }
+                }
+                break;
+            default:
+                report.inFlight();
+        }
+    }
+}
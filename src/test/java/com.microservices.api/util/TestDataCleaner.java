@@ -106,6 +106,19 @@ public class TestDataCleaner {
         );
     }
 
+    /**
+     * Removes everything that belongs to a show: booking seats, bookings and the seat inventory rows.
+     * Only meant for generated shows (see {@link TestDataPartition}), never for shared ones.
+     */
+    public static void cleanShow(String showId) throws SQLException {
+        executeUpdate(
+                "DELETE bs FROM Booking_seatIds bs JOIN Booking b ON b.id = bs.Booking_id WHERE b.showId = ?",
+                showId
+        );
+        executeUpdate("DELETE FROM Booking WHERE showId = ?", showId);
+        executeUpdate("DELETE FROM seat_inventory WHERE showId = ?", showId);
+    }
+
     public static int executeUpdate(String sql, Object... params) throws SQLException {
         try (Connection conn = DbTestUtils.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
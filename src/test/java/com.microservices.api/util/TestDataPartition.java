@@ -0,0 +1,115 @@
+package com.microservices.api.util;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data owned by a single test method: a generated showId with its own block of seats.
+ * <p>
+ * Because no other test ever books, locks or releases seats of this show, test methods can run
+ * in parallel without seeing each other's state. {@link TestDataPartitionListener} creates, seeds and
+ * cleans a partition around every test method and binds it to the running thread; tests get it through
+ * {@link #current()} and hand out seats with {@link #takeSeats(int)}.
+ */
+public class TestDataPartition {
+
+    private static final ThreadLocal<TestDataPartition> CURRENT = new ThreadLocal<>();
+
+    private final String showId;
+    private final String theaterId;
+    private final String screenId;
+    private final List<String> seats;
+    private final AtomicInteger nextSeat = new AtomicInteger();
+
+    public TestDataPartition(String showId, String theaterId, String screenId, List<String> seats) {
+        this.showId = showId;
+        this.theaterId = theaterId;
+        this.screenId = screenId;
+        this.seats = Collections.unmodifiableList(new ArrayList<>(seats));
+    }
+
+    /**
+     * New partition with a unique showId and seats {@code S1..S<seatCount>}.
+     */
+    public static TestDataPartition generate(int seatCount) {
+        String suffix = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        List<String> seats = new ArrayList<>(seatCount);
+        for (int i = 1; i <= seatCount; i++) {
+            seats.add("S" + i);
+        }
+        return new TestDataPartition("SHOW_T_" + suffix, "THEATER_T_" + suffix, "SCREEN_T_" + suffix, seats);
+    }
+
+    /**
+     * Partition of the test method running on this thread.
+     */
+    public static TestDataPartition current() {
+        TestDataPartition partition = CURRENT.get();
+        if (partition == null) {
+            throw new IllegalStateException(
+                    "No test data partition bound to " + Thread.currentThread().getName()
+                            + "; is TestDataPartitionListener registered?");
+        }
+        return partition;
+    }
+
+    static void bind(TestDataPartition partition) {
+        CURRENT.set(partition);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public void seed() throws SQLException {
+        TestDataSeeder.seedSeatInventory(showId, theaterId, screenId, seats);
+    }
+
+    public void clean() throws SQLException {
+        TestDataCleaner.cleanShow(showId);
+    }
+
+    /**
+     * Next {@code count} seats of the block that no other step of this test has taken yet.
+     */
+    public List<String> takeSeats(int count) {
+        int from = nextSeat.getAndAdd(count);
+        if (from + count > seats.size()) {
+            throw new IllegalStateException("Partition " + showId + " has only " + seats.size()
+                    + " seats; raise -Dtest.partition.seats");
+        }
+        return seats.subList(from, from + count);
+    }
+
+    public String takeSeat() {
+        return takeSeats(1).get(0);
+    }
+
+    public String getShowId() {
+        return showId;
+    }
+
+    public String getTheaterId() {
+        return theaterId;
+    }
+
+    public String getScreenId() {
+        return screenId;
+    }
+
+    public List<String> getSeats() {
+        return seats;
+    }
+
+    @Override
+    public String toString() {
+        return "TestDataPartition{" +
+                "showId='" + showId + '\'' +
+                ", seats=" + seats.size() +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package com.microservices.api.util;
+
+import com.microservices.api.tests.base.BaseKafkaIntegrationTest;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.sql.SQLException;
+
+/**
+ * Gives every test method of a {@link BaseKafkaIntegrationTest} its own {@link TestDataPartition}: seeded
+ * before the method runs, bound to the test thread while it runs, and removed from the database afterwards.
+ * TestNG applies {@code @Listeners} to the whole suite, so methods of other classes, and of classes whose
+ * {@link BaseKafkaIntegrationTest#usesTestDataPartition()} is false, are left alone.
+ * <p>
+ * Seats per partition: {@code -Dtest.partition.seats} (default 32).
+ * Keep the data for debugging with {@code -Dtest.partition.cleanup=false}.
+ */
+public class TestDataPartitionListener implements IInvokedMethodListener {
+
+    private static final int SEATS = Integer.getInteger("test.partition.seats", 32);
+    private static final boolean CLEANUP =
+            Boolean.parseBoolean(System.getProperty("test.partition.cleanup", "true"));
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod() || !usesPartition(testResult.getInstance())) {
+            return;
+        }
+        TestDataPartition partition = TestDataPartition.generate(SEATS);
+        try {
+            partition.seed();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to seed " + partition, e);
+        }
+        testResult.setAttribute(TestDataPartition.class.getName(), partition);
+        TestDataPartition.bind(partition);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        TestDataPartition.unbind();
+        TestDataPartition partition =
+                (TestDataPartition) testResult.getAttribute(TestDataPartition.class.getName());
+        if (partition == null || !CLEANUP) {
+            return;
+        }
+        try {
+            partition.clean();
+        } catch (SQLException e) {
+            System.out.println("Failed to clean " + partition + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean usesPartition(Object testInstance) {
+        return testInstance instanceof BaseKafkaIntegrationTest
+                && ((BaseKafkaIntegrationTest) testInstance).usesTestDataPartition();
+    }
+}
@@ -0,0 +1,182 @@
+package com.microservices.api.util;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.RecordsToDelete;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Resets saga topics between tests with one long-lived {@link AdminClient} per cluster.
+ * <p>
+ * Partition lists are described once and cached, the end offsets of every partition of every requested
+ * topic come back from a single batched {@code listOffsets}, and one {@code deleteRecords} covers all of
+ * them, which the AdminClient fans out to the partition leaders in parallel.
+ * <p>
+ * Often nothing needs deleting at all: {@link #watermark(Collection)} records where the topics end now,
+ * and a test only looks at records from there on ({@link Watermark#includes}, {@link Watermark#seek}).
+ */
+public class TopicResetService implements AutoCloseable {
+
+    private static final ConcurrentMap<String, TopicResetService> BY_BOOTSTRAP = new ConcurrentHashMap<>();
+
+    private final AdminClient admin;
+    private final ConcurrentMap<String, List<TopicPartition>> partitions = new ConcurrentHashMap<>();
+
+    private TopicResetService(String bootstrapServers) {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        this.admin = AdminClient.create(props);
+    }
+
+    /** Service for the configured cluster ({@link KafkaBootstrap}). */
+    public static TopicResetService shared() {
+        return forBootstrap(KafkaBootstrap.servers());
+    }
+
+    public static TopicResetService forBootstrap(String bootstrapServers) {
+        return BY_BOOTSTRAP.computeIfAbsent(bootstrapServers, servers -> {
+            TopicResetService service = new TopicResetService(servers);
+            Runtime.getRuntime().addShutdownHook(new Thread(service::close, "topic-reset-shutdown"));
+            return service;
+        });
+    }
+
+    /**
+     * End offset of every partition of {@code topics}, in one request.
+     */
+    public Map<TopicPartition, Long> endOffsets(Collection<String> topics) {
+        Map<TopicPartition, OffsetSpec> query = new HashMap<>();
+        for (TopicPartition partition : partitionsOf(topics)) {
+            query.put(partition, OffsetSpec.latest());
+        }
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : get(admin.listOffsets(query).all()).entrySet()) {
+            offsets.put(entry.getKey(), entry.getValue().offset());
+        }
+        return offsets;
+    }
+
+    /**
+     * Deletes every record currently in {@code topics}; returns the new start offsets.
+     */
+    public Map<TopicPartition, Long> truncate(Collection<String> topics) {
+        long start = System.nanoTime();
+        Map<TopicPartition, Long> ends = endOffsets(topics);
+        Map<TopicPartition, RecordsToDelete> deletes = new HashMap<>();
+        ends.forEach((partition, end) -> {
+            if (end > 0) {
+                deletes.put(partition, RecordsToDelete.beforeOffset(end));
+            }
+        });
+        if (!deletes.isEmpty()) {
+            get(admin.deleteRecords(deletes).all());
+        }
+        System.out.println("Truncated " + topics + " (" + ends.size() + " partitions) in "
+                + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms");
+        return ends;
+    }
+
+    /**
+     * Where {@code topics} end right now; records before it belong to earlier tests.
+     */
+    public Watermark watermark(Collection<String> topics) {
+        return new Watermark(endOffsets(topics));
+    }
+
+    /** Drops cached partition lists, e.g. after topics were recreated. */
+    public void forgetTopics() {
+        partitions.clear();
+    }
+
+    private List<TopicPartition> partitionsOf(Collection<String> topics) {
+        List<String> unknown = new ArrayList<>();
+        for (String topic : topics) {
+            if (!partitions.containsKey(topic)) {
+                unknown.add(topic);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            for (Map.Entry<String, TopicDescription> entry : get(admin.describeTopics(unknown).allTopicNames()).entrySet()) {
+                List<TopicPartition> list = new ArrayList<>();
+                for (TopicPartitionInfo info : entry.getValue().partitions()) {
+                    list.add(new TopicPartition(entry.getKey(), info.partition()));
+                }
+                partitions.put(entry.getKey(), Collections.unmodifiableList(list));
+            }
+        }
+        List<TopicPartition> all = new ArrayList<>();
+        topics.forEach(topic -> all.addAll(partitions.get(topic)));
+        return all;
+    }
+
+    private static <T> T get(KafkaFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while talking to Kafka", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Kafka admin request failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        admin.close(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Start offsets per partition, taken before a test publishes anything.
+     */
+    public static final class Watermark {
+        private final Map<TopicPartition, Long> startOffsets;
+
+        Watermark(Map<TopicPartition, Long> startOffsets) {
+            this.startOffsets = Collections.unmodifiableMap(startOffsets);
+        }
+
+        public Map<TopicPartition, Long> getStartOffsets() {
+            return startOffsets;
+        }
+
+        /** True for records written after the watermark, and for partitions it does not know. */
+        public boolean includes(ConsumerRecord<?, ?> record) {
+            Long start = startOffsets.get(new TopicPartition(record.topic(), record.partition()));
+            return start == null || record.offset() >= start;
+        }
+
+        /** Moves the consumer's assigned partitions that the watermark covers to their start offset. */
+        public void seek(Consumer<?, ?> consumer) {
+            for (TopicPartition partition : consumer.assignment()) {
+                Long start = startOffsets.get(partition);
+                if (start != null) {
+                    consumer.seek(partition, start);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Watermark" + startOffsets;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.microservices.api.util;
+
+import com.microservices.api.metrics.SagaHeaders;
+import main.java.com.microservices.api.core.LatencyRecorder;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Publishes saga events inside Kafka transactions, for exactly-once runs ({@link DeliveryMode#EXACTLY_ONCE}).
+ * <p>
+ * A KafkaProducer can only run one transaction at a time, so the publisher keeps a small pool of
+ * transactional producers ({@code -Dkafka.tx.producer.pool.size}, default 4) and lends one to each
+ * {@link #inTransaction(Consumer)} call. Transactional ids are unique per publisher instance, so two
+ * test JVMs never fence each other. Everything sent in a transaction becomes visible to read_committed
+ * consumers at commit, or never, if the transaction is aborted. Commit latency is recorded as
+ * {@code kafka.tx.commit}.
+ * <p>
+ * Producer settings are those of {@link KafkaEventPublisher#producerProperties()} with idempotence and
+ * {@code acks=all} forced on.
+ */
+public class TransactionalEventPublisher implements AutoCloseable {
+
+    private static final int REPLACE_ATTEMPTS = 3;
+
+    private static volatile TransactionalEventPublisher shared;
+
+    private final Map<String, Object> producerProperties;
+    private final String transactionalIdPrefix;
+    private final BlockingQueue<KafkaProducer<String, Object>> idle;
+    private final List<KafkaProducer<String, Object>> all = new ArrayList<>();
+    private final LatencyRecorder commitLatency = LatencyRecorder.of("kafka.tx.commit");
+    private final Duration borrowTimeout = Duration.ofMillis(Long.getLong("kafka.tx.borrow.timeout.ms", 30_000L));
+    private int created;
+
+    public TransactionalEventPublisher(Map<String, Object> producerProperties, int poolSize) {
+        this.producerProperties = producerProperties;
+        this.transactionalIdPrefix = System.getProperty("kafka.tx.id.prefix", "saga-harness")
+                + "-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            idle.add(newProducer());
+        }
+    }
+
+    public static TransactionalEventPublisher shared() {
+        TransactionalEventPublisher publisher = shared;
+        if (publisher != null) {
+            return publisher;
+        }
+        synchronized (TransactionalEventPublisher.class) {
+            if (shared == null) {
+                shared = new TransactionalEventPublisher(KafkaEventPublisher.producerProperties(),
+                        Integer.getInteger("kafka.tx.producer.pool.size", 4));
+                Runtime.getRuntime().addShutdownHook(
+                        new Thread(TransactionalEventPublisher::closeShared, "kafka-tx-publisher-shutdown"));
+            }
+            return shared;
+        }
+    }
+
+    public static void closeShared() {
+        synchronized (TransactionalEventPublisher.class) {
+            if (shared != null) {
+                shared.close();
+                shared = null;
+            }
+        }
+    }
+
+    /**
+     * Runs {@code body} in one transaction and commits it; aborts and rethrows if the body or the commit
+     * fails. Blocks until the commit is acknowledged, so the records are readable when this returns.
+     *
+     * @return number of records sent in the transaction
+     */
+    public int inTransaction(Consumer<Transaction> body) {
+        KafkaProducer<String, Object> producer = borrow();
+        Transaction tx = new Transaction(producer);
+        boolean healthy = true;
+        try {
+            producer.beginTransaction();
+            body.accept(tx);
+            long start = System.nanoTime();
+            producer.commitTransaction();
+            commitLatency.recordNanos(System.nanoTime() - start);
+            return tx.sent;
+        } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+            // fatal for this producer: it cannot abort, only be replaced
+            healthy = false;
+            throw new RuntimeException("Transactional producer failed and was replaced: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            healthy = abortQuietly(producer);
+            throw e;
+        } finally {
+            giveBack(producer, healthy);
+        }
+    }
+
+    public int publishInTransaction(String topic, String key, Object event) {
+        return inTransaction(tx -> tx.send(topic, key, event));
+    }
+
+    /**
+     * Sends every entry (key -> event) in one transaction.
+     */
+    public int publishInTransaction(String topic, Map<String, ?> events) {
+        return inTransaction(tx -> events.forEach((key, event) -> tx.send(topic, key, event)));
+    }
+
+    /**
+     * Sends the same event {@code copies} times under one key in one transaction: the duplicates are
+     * committed, so only the consumer's idempotency can absorb them.
+     */
+    public int publishDuplicates(String topic, String key, Object event, int copies) {
+        return inTransaction(tx -> {
+            for (int i = 0; i < copies; i++) {
+                tx.send(topic, key, event);
+            }
+        });
+    }
+
+    /**
+     * Sends the event in a transaction and aborts it. A read_committed consumer must never see it.
+     */
+    public void publishAborted(String topic, String key, Object event) {
+        KafkaProducer<String, Object> producer = borrow();
+        boolean healthy = true;
+        try {
+            producer.beginTransaction();
+            new Transaction(producer).send(topic, key, event);
+            producer.flush();
+            producer.abortTransaction();
+        } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+            healthy = false;
+            throw new RuntimeException("Transactional producer failed and was replaced: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            healthy = abortQuietly(producer);
+            throw e;
+        } finally {
+            giveBack(producer, healthy);
+        }
+    }
+
+    /**
+     * Waits at most {@code kafka.tx.borrow.timeout.ms} (default 30000) for an idle producer, so a pool that
+     * lost producers fails the caller instead of blocking it forever.
+     */
+    private KafkaProducer<String, Object> borrow() {
+        KafkaProducer<String, Object> producer;
+        try {
+            producer = idle.poll(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a transactional producer", e);
+        }
+        if (producer == null) {
+            throw new IllegalStateException("No transactional producer became idle within " + borrowTimeout.toMillis()
+                    + " ms (" + idle.size() + " idle)");
+        }
+        return producer;
+    }
+
+    /**
+     * Returns a healthy producer to the pool, or replaces a broken one. Creating the replacement is retried,
+     * so a broker hiccup at that moment does not shrink the pool for good.
+     */
+    private void giveBack(KafkaProducer<String, Object> producer, boolean healthy) {
+        if (healthy) {
+            idle.add(producer);
+            return;
+        }
+        synchronized (this) {
+            all.remove(producer);
+        }
+        producer.close(Duration.ZERO);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                idle.add(newProducer());
+                return;
+            } catch (KafkaException e) {
+                if (attempt == REPLACE_ATTEMPTS) {
+                    System.out.println("Could not replace transactional producer after " + attempt + " attempts, pool shrinks to "
+                            + all.size() + ": " + e.getMessage());
+                    return;
+                }
+                sleepQuietly(Duration.ofMillis(200L * attempt));
+            }
+        }
+    }
+
+    private synchronized KafkaProducer<String, Object> newProducer() {
+        Map<String, Object> props = new HashMap<>(producerProperties);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalIdPrefix + created++);
+        KafkaProducer<String, Object> producer = new KafkaProducer<>(props);
+        try {
+            producer.initTransactions();
+        } catch (RuntimeException e) {
+            producer.close(Duration.ZERO);
+            throw e;
+        }
+        all.add(producer);
+        return producer;
+    }
+
+    /**
+     * @return false if the producer could not abort either and must be replaced
+     */
+    private static boolean abortQuietly(KafkaProducer<String, Object> producer) {
+        try {
+            producer.abortTransaction();
+            return true;
+        } catch (KafkaException e) {
+            System.out.println("Aborting Kafka transaction failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        all.forEach(producer -> producer.close(Duration.ofSeconds(10)));
+        all.clear();
+    }
+
+    /**
+     * Sends of one open transaction; stamped with the {@link SagaHeaders} like every harness record.
+     */
+    public static final class Transaction {
+        private final KafkaProducer<String, Object> producer;
+        private int sent;
+
+        private Transaction(KafkaProducer<String, Object> producer) {
+            this.producer = producer;
+        }
+
+        public void send(String topic, String key, Object event) {
+            producer.send(new ProducerRecord<>(topic, null, key, event, SagaHeaders.stamp(key)));
+            sent++;
+        }
+    }
+}
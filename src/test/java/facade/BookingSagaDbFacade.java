@@ -1,5 +1,6 @@
 package facade;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingSagaDbFacade {
@@ -15,4 +16,9 @@ public interface BookingSagaDbFacade {
             List<String> expectedSeats,
             String expectedUserId
     );
+
+    /**
+     * Bulk check of the saga end state for many bookings (e.g. after a load run).
+     */
+    void assertSagaInvariants(Collection<String> reservationIds);
 }
@@ -1,10 +1,13 @@
 package facade.impl;
 
 import com.microservices.api.util.DBHelper;
+import com.microservices.api.util.SagaInvariantReport;
+import com.microservices.api.util.SagaInvariantVerifier;
 import facade.BookingSagaDbFacade;
 import org.testng.Assert;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -59,4 +62,16 @@ public class BookingSagaDbFacadeImpl implements BookingSagaDbFacade {
         Assert.assertEquals(dbSeats, expectedSeats);
 
     }
+
+    @Override
+    public void assertSagaInvariants(Collection<String> reservationIds) {
+        SagaInvariantReport report;
+        try {
+            report = SagaInvariantVerifier.verify(reservationIds);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        System.out.println(report);
+        Assert.assertTrue(report.isClean(), "Saga invariants violated: " + report);
+    }
 }